@@ -0,0 +1,75 @@
+package uk.ac.newcastle.paritoshpal.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.ac.newcastle.paritoshpal.dto.CustomerStats;
+import uk.ac.newcastle.paritoshpal.dto.ModelStats;
+import uk.ac.newcastle.paritoshpal.dto.PartsStats;
+import uk.ac.newcastle.paritoshpal.service.PCShopImpl;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the three analytics queries over an order history of
+ * {@code historySize} orders.
+ *
+ * With {@code cached=false} an order is placed and cancelled before every
+ * call, which invalidates the shop's analytics cache, so the full query
+ * cost is measured; with {@code cached=true} calls are served from the cache.
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AnalyticsBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    int historySize;
+
+    @Param({"false", "true"})
+    boolean cached;
+
+    ShopFixture fixture;
+    PCShopImpl shop;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixture = new ShopFixture(42);
+        shop = new PCShopImpl();
+        fixture.fill(shop, historySize);
+    }
+
+    @Setup(Level.Invocation)
+    public void invalidate() {
+        if (!cached) {
+            shop.cancelOrder(shop.placeOrder(fixture.randomModels(), fixture.customers[0], fixture.cards[0]));
+        }
+    }
+
+    @Benchmark
+    public CustomerStats getLargestCustomer() {
+        return shop.getLargestCustomer();
+    }
+
+    @Benchmark
+    public ModelStats getMostOrderedModel() {
+        return shop.getMostOrderedModel();
+    }
+
+    @Benchmark
+    public PartsStats getMostOrderedPart() {
+        return shop.getMostOrderedPart();
+    }
+}
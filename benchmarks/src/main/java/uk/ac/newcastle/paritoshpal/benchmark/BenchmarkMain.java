@@ -0,0 +1,30 @@
+package uk.ac.newcastle.paritoshpal.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the benchmark jar.
+ * Accepts the standard JMH command line options and always enables the
+ * GC profiler, so every result reports the allocation rate per operation
+ * ({@code gc.alloc.rate.norm}) next to its timing.
+ */
+public final class BenchmarkMain {
+
+    private BenchmarkMain() {
+        // Empty by design.
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,94 @@
+package uk.ac.newcastle.paritoshpal.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.ac.newcastle.paritoshpal.model.customer.Customer;
+import uk.ac.newcastle.paritoshpal.model.customer.CustomerFactory;
+import uk.ac.newcastle.paritoshpal.model.customer.Name;
+import uk.ac.newcastle.paritoshpal.model.payment.CreditCard;
+import uk.ac.newcastle.paritoshpal.model.payment.CreditCardFactory;
+import uk.ac.newcastle.paritoshpal.model.pc.PresetModel;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the factories and value object construction that every
+ * order goes through: customer and card lookups against a warm cache, and
+ * the validation and normalisation done by {@link Name} and {@link PresetModel}.
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FactoryBenchmark {
+
+    private static final int KEYS = 1024;
+
+    String[] firstNames;
+    String[] lastNames;
+    String[] cardNumbers;
+    Date expiry;
+    List<String> parts;
+    int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ShopFixture fixture = new ShopFixture(42);
+        firstNames = new String[KEYS];
+        lastNames = new String[KEYS];
+        cardNumbers = new String[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            // raw, un-normalised input as it would arrive from a client
+            Customer customer = fixture.customers[i * 7];
+            firstNames[i] = "  " + customer.getFirstName().toUpperCase() + " ";
+            lastNames[i] = customer.getLastName();
+            cardNumbers[i] = fixture.cards[i * 7].getNumber();
+        }
+        Calendar cal = Calendar.getInstance();
+        cal.add(Calendar.YEAR, 5);
+        expiry = cal.getTime();
+        parts = List.of("Intel Core Ultra 9", "RTX 4090", "RAM 32 GB", "SSD 2 TB");
+    }
+
+    private int nextKey() {
+        int i = next;
+        next = (i + 1) & (KEYS - 1);
+        return i;
+    }
+
+    @Benchmark
+    public Customer getCustomer() {
+        int i = nextKey();
+        return CustomerFactory.getCustomer(firstNames[i], lastNames[i]);
+    }
+
+    @Benchmark
+    public CreditCard getCreditCard() {
+        return CreditCardFactory.getCreditCard(cardNumbers[nextKey()], expiry, "holder");
+    }
+
+    @Benchmark
+    public Name newName() {
+        int i = nextKey();
+        return new Name(firstNames[i], lastNames[i]);
+    }
+
+    @Benchmark
+    public PresetModel newPresetModel() {
+        return new PresetModel("  Inspiron   16 Plus ", " Dell ", parts);
+    }
+}
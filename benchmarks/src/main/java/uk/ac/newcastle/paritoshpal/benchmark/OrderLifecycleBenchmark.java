@@ -0,0 +1,124 @@
+package uk.ac.newcastle.paritoshpal.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.ac.newcastle.paritoshpal.model.fulfillment.FulfillmentDetails;
+import uk.ac.newcastle.paritoshpal.model.pc.PCModel;
+import uk.ac.newcastle.paritoshpal.service.Order;
+import uk.ac.newcastle.paritoshpal.service.PCShopImpl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for placing and fulfilling a single order in a shop that
+ * already holds {@code historySize} orders.
+ *
+ * Both benchmarks add orders to the shop, so the shop is rebuilt before
+ * every iteration, and every iteration is a single shot over a batch of
+ * exactly {@link #BATCH} orders: the history never grows beyond
+ * {@code historySize + BATCH} orders, whatever the speed of the shop.
+ */
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class OrderLifecycleBenchmark {
+
+    /**
+     * Number of orders placed or fulfilled in each iteration.
+     */
+    static final int BATCH = 10_000;
+
+    @State(Scope.Benchmark)
+    public static class ShopState {
+
+        @Param({"1000", "10000", "100000", "1000000", "10000000"})
+        int historySize;
+
+        ShopFixture fixture;
+        PCShopImpl shop;
+
+        // pre-built arguments so that the benchmark measures only the shop
+        List<List<PCModel>> models;
+        int[] customers;
+        int next;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            fixture = new ShopFixture(42);
+            models = new ArrayList<>(BATCH);
+            customers = new int[BATCH];
+            for (int i = 0; i < BATCH; i++) {
+                models.add(fixture.randomModels());
+                customers[i] = fixture.randomCustomer();
+            }
+        }
+
+        /**
+         * Discards the orders added by the previous iteration.
+         */
+        @Setup(Level.Iteration)
+        public void fill() {
+            shop = new PCShopImpl();
+            fixture.fill(shop, historySize);
+            next = 0;
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class PlacedOrders {
+
+        List<Order> orders;
+        int next;
+
+        @Setup(Level.Iteration)
+        public void setUp(ShopState state) {
+            orders = new ArrayList<>(BATCH);
+            for (int i = 0; i < BATCH; i++) {
+                int customer = state.customers[i];
+                orders.add(state.shop.placeOrder(state.models.get(i),
+                        state.fixture.customers[customer], state.fixture.cards[customer]));
+            }
+            next = 0;
+        }
+    }
+
+    /**
+     * Each invocation places one of the {@link #BATCH} pre-built orders.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Measurement(iterations = 5, batchSize = BATCH)
+    @Warmup(iterations = 5, batchSize = BATCH)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Order placeOrder(ShopState state) {
+        int i = state.next++;
+        int customer = state.customers[i];
+        return state.shop.placeOrder(state.models.get(i),
+                state.fixture.customers[customer], state.fixture.cards[customer]);
+    }
+
+    /**
+     * Each invocation fulfills a distinct placed order, so the iteration is
+     * measured as a single shot over a batch of exactly {@link #BATCH} orders.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Measurement(iterations = 5, batchSize = BATCH)
+    @Warmup(iterations = 5, batchSize = BATCH)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public FulfillmentDetails fulfillOrder(PlacedOrders placed, ShopState state) {
+        return state.shop.fulfillOrder(placed.orders.get(placed.next++));
+    }
+}
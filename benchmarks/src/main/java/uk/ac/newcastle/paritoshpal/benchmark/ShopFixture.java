@@ -0,0 +1,122 @@
+package uk.ac.newcastle.paritoshpal.benchmark;
+
+import uk.ac.newcastle.paritoshpal.model.customer.Customer;
+import uk.ac.newcastle.paritoshpal.model.customer.CustomerFactory;
+import uk.ac.newcastle.paritoshpal.model.payment.CreditCard;
+import uk.ac.newcastle.paritoshpal.model.payment.CreditCardFactory;
+import uk.ac.newcastle.paritoshpal.model.pc.CustomModel;
+import uk.ac.newcastle.paritoshpal.model.pc.CustomModelFactory;
+import uk.ac.newcastle.paritoshpal.model.pc.PCModel;
+import uk.ac.newcastle.paritoshpal.model.pc.PresetModel;
+import uk.ac.newcastle.paritoshpal.service.Order;
+import uk.ac.newcastle.paritoshpal.service.PCShop;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Builds the shared, deterministic data used by the benchmarks: a pool of
+ * customers and cards, a catalogue of preset and custom models, and shops
+ * pre-filled with an order history of a given size.
+ */
+final class ShopFixture {
+
+    static final int CUSTOMERS = 10_000;
+    static final int PRESETS = 200;
+    static final int CUSTOM_MODELS = 1_000;
+
+    private static final String[] FIRST_NAMES = {
+            "hannah", "clay", "bryce", "jessica", "justin", "alex", "tyler", "zach", "tony", "courtney"
+    };
+    private static final String[] PARTS = {
+            "case", "psu 750w", "psu 1000w", "ram 16 gb", "ram 32 gb", "ssd 1 tb", "ssd 2 tb", "hdd 4 tb",
+            "intel core ultra 7", "intel core ultra 9", "ryzen 7", "ryzen 9", "rtx 4070", "rtx 4090",
+            "cooling fan", "liquid cooler", "motherboard atx", "motherboard itx", "wifi card", "sound card"
+    };
+    private static final String[] MANUFACTURERS = {"dell", "lenovo", "apple", "hp", "asus", "acer"};
+
+    final Customer[] customers = new Customer[CUSTOMERS];
+    final CreditCard[] cards = new CreditCard[CUSTOMERS];
+    final PresetModel[] presets = new PresetModel[PRESETS];
+    final CustomModel[] customModels = new CustomModel[CUSTOM_MODELS];
+
+    private final SplittableRandom random;
+
+    ShopFixture(long seed) {
+        this.random = new SplittableRandom(seed);
+        Calendar cal = Calendar.getInstance();
+        cal.add(Calendar.YEAR, 5);
+        Date expiry = cal.getTime();
+
+        for (int i = 0; i < CUSTOMERS; i++) {
+            customers[i] = CustomerFactory.getCustomer(FIRST_NAMES[i % FIRST_NAMES.length], lastName(i));
+            cards[i] = CreditCardFactory.getCreditCard(String.format("%08d", i), expiry, "holder");
+        }
+        for (int i = 0; i < PRESETS; i++) {
+            presets[i] = new PresetModel("model " + i, MANUFACTURERS[i % MANUFACTURERS.length],
+                    List.of(PARTS[i % PARTS.length], PARTS[(i + 7) % PARTS.length], PARTS[(i + 13) % PARTS.length]));
+        }
+        for (int i = 0; i < CUSTOM_MODELS; i++) {
+            CustomModel model = CustomModelFactory.createCustomModel();
+            int partCount = 4 + random.nextInt(8);
+            for (int p = 0; p < partCount; p++) {
+                model.addPart(PARTS[random.nextInt(PARTS.length)]);
+            }
+            customModels[i] = model;
+        }
+    }
+
+    /**
+     * Generates a letters-only last name that is unique for the given index,
+     * since customer names cannot contain digits.
+     */
+    private static String lastName(int index) {
+        StringBuilder name = new StringBuilder();
+        int value = index;
+        do {
+            name.append((char) ('a' + value % 26));
+            value /= 26;
+        } while (value > 0);
+        return name.toString();
+    }
+
+    /**
+     * Creates a random order of one to four models, three quarters of them presets.
+     */
+    List<PCModel> randomModels() {
+        int count = 1 + random.nextInt(4);
+        List<PCModel> models = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            if (random.nextInt(4) == 0) {
+                models.add(customModels[random.nextInt(CUSTOM_MODELS)]);
+            } else {
+                models.add(presets[random.nextInt(PRESETS)]);
+            }
+        }
+        return models;
+    }
+
+    int randomCustomer() {
+        return random.nextInt(CUSTOMERS);
+    }
+
+    /**
+     * Places {@code orders} random orders in the given shop. Roughly 70% of them
+     * are fulfilled, 10% cancelled and the rest left placed.
+     */
+    void fill(PCShop shop, int orders) {
+        for (int i = 0; i < orders; i++) {
+            int customer = randomCustomer();
+            Order order = shop.placeOrder(randomModels(), customers[customer], cards[customer]);
+            int outcome = random.nextInt(10);
+            if (outcome < 7) {
+                shop.fulfillOrder(order);
+            } else if (outcome == 7) {
+                shop.cancelOrder(order);
+            }
+        }
+    }
+}
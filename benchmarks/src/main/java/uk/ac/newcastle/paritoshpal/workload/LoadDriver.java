@@ -0,0 +1,182 @@
+package uk.ac.newcastle.paritoshpal.workload;
+
+import uk.ac.newcastle.paritoshpal.service.Order;
+import uk.ac.newcastle.paritoshpal.service.PCShop;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Drives a {@link PCShop} with orders from a {@link WorkloadGenerator} on
+ * several threads and measures the latency of every call.
+ *
+ * Each thread records its own latencies, so measuring adds no contention of
+ * its own. With more than one thread the shop must be safe for concurrent use.
+ */
+public final class LoadDriver {
+
+    static final String PLACE = "place";
+    static final String FULFIL = "fulfil";
+    static final String CANCEL = "cancel";
+
+    private final WorkloadGenerator generator;
+    private final int threads;
+
+    /**
+     * Constructs a driver.
+     *
+     * @param generator the source of orders; cannot be null.
+     * @param threads the number of concurrent driver threads; must be positive.
+     * @throws IllegalArgumentException if {@code generator} is null or {@code threads} is not positive.
+     */
+    public LoadDriver(WorkloadGenerator generator, int threads) {
+        if (generator == null || threads <= 0) {
+            throw new IllegalArgumentException("A generator and a positive number of threads are required.");
+        }
+        this.generator = generator;
+        this.threads = threads;
+    }
+
+    /**
+     * Runs the workload against a shop. Every thread places
+     * {@code ordersPerThread} orders and fulfils or cancels them right away
+     * according to the profile.
+     *
+     * @param shop the shop under test; cannot be null.
+     * @param ordersPerThread the number of orders each thread places.
+     * @param seed the seed of the per-thread random sources.
+     * @return the report of the run.
+     * @throws InterruptedException if interrupted while waiting for the threads.
+     */
+    public LoadReport run(PCShop shop, int ordersPerThread, long seed) throws InterruptedException {
+        if (shop == null || ordersPerThread <= 0) {
+            throw new IllegalArgumentException("A shop and a positive number of orders are required.");
+        }
+        List<Worker> workers = new ArrayList<>(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicLong failures = new AtomicLong();
+        for (int t = 0; t < threads; t++) {
+            workers.add(new Worker(shop, ordersPerThread, new SplittableRandom(seed + t), start, failures));
+        }
+        List<Thread> running = new ArrayList<>(threads);
+        for (int t = 0; t < threads; t++) {
+            Thread thread = new Thread(workers.get(t), "load-driver-" + t);
+            thread.start();
+            running.add(thread);
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread thread : running) {
+            thread.join();
+        }
+        long elapsed = System.nanoTime() - begin;
+
+        Map<String, LoadReport.LatencySummary> latencies = new LinkedHashMap<>();
+        latencies.put(PLACE, summarise(workers, w -> w.place));
+        latencies.put(FULFIL, summarise(workers, w -> w.fulfil));
+        latencies.put(CANCEL, summarise(workers, w -> w.cancel));
+        latencies.values().removeIf(summary -> summary.count() == 0);
+        return new LoadReport(threads, elapsed, failures.get(), latencies);
+    }
+
+    private static LoadReport.LatencySummary summarise(List<Worker> workers,
+                                                       Function<Worker, Samples> samples) {
+        int total = 0;
+        for (Worker worker : workers) {
+            total += samples.apply(worker).size;
+        }
+        long[] all = new long[total];
+        int offset = 0;
+        for (Worker worker : workers) {
+            Samples s = samples.apply(worker);
+            System.arraycopy(s.values, 0, all, offset, s.size);
+            offset += s.size;
+        }
+        Arrays.sort(all);
+        return new LoadReport.LatencySummary(total, percentile(all, 0.50), percentile(all, 0.90),
+                percentile(all, 0.99), percentile(all, 0.999), total == 0 ? 0 : all[total - 1]);
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    /**
+     * A growable array of latency samples owned by one thread.
+     */
+    private static final class Samples {
+        long[] values = new long[1024];
+        int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+
+    private final class Worker implements Runnable {
+        private final PCShop shop;
+        private final int orders;
+        private final SplittableRandom random;
+        private final CountDownLatch start;
+        private final AtomicLong failures;
+        final Samples place = new Samples();
+        final Samples fulfil = new Samples();
+        final Samples cancel = new Samples();
+
+        Worker(PCShop shop, int orders, SplittableRandom random, CountDownLatch start, AtomicLong failures) {
+            this.shop = shop;
+            this.orders = orders;
+            this.random = random;
+            this.start = start;
+            this.failures = failures;
+        }
+
+        @Override
+        public void run() {
+            try {
+                start.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            for (int i = 0; i < orders; i++) {
+                WorkloadGenerator.OrderRequest request = generator.next(random);
+                try {
+                    long t0 = System.nanoTime();
+                    Order order = shop.placeOrder(request.models(), request.customer(), request.card());
+                    long t1 = System.nanoTime();
+                    place.add(t1 - t0);
+                    switch (request.outcome()) {
+                        case FULFIL -> {
+                            shop.fulfillOrder(order);
+                            fulfil.add(System.nanoTime() - t1);
+                        }
+                        case CANCEL -> {
+                            shop.cancelOrder(order);
+                            cancel.add(System.nanoTime() - t1);
+                        }
+                        case LEAVE_PLACED -> {
+                            // stays in the backlog
+                        }
+                    }
+                } catch (RuntimeException e) {
+                    failures.incrementAndGet();
+                }
+            }
+        }
+    }
+}
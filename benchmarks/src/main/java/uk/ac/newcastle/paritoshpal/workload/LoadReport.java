@@ -0,0 +1,54 @@
+package uk.ac.newcastle.paritoshpal.workload;
+
+import java.util.Map;
+
+/**
+ * The result of a load test run.
+ *
+ * @param threads the number of driver threads.
+ * @param elapsedNanos the wall-clock duration of the run.
+ * @param failures the number of operations that threw.
+ * @param latencies the latency summary of every operation type that ran.
+ */
+public record LoadReport(int threads, long elapsedNanos, long failures, Map<String, LatencySummary> latencies) {
+
+    /**
+     * Latency percentiles of one operation type, in nanoseconds.
+     *
+     * @param count the number of operations.
+     * @param p50 the median.
+     * @param p90 the 90th percentile.
+     * @param p99 the 99th percentile.
+     * @param p999 the 99.9th percentile.
+     * @param max the slowest operation.
+     */
+    public record LatencySummary(long count, long p50, long p90, long p99, long p999, long max) {
+    }
+
+    /**
+     * Returns the throughput of the given operation type.
+     *
+     * @param operation the operation name.
+     * @return operations per second, or {@code 0} if the operation did not run.
+     */
+    public double throughput(String operation) {
+        LatencySummary summary = latencies.get(operation);
+        return summary == null ? 0 : summary.count() * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Formats the report as a table with one row per operation type.
+     * @return the formatted report.
+     */
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("threads=%d elapsed=%.2fs failures=%d%n", threads, elapsedNanos / 1e9, failures));
+        out.append(String.format("%-10s %10s %12s %10s %10s %10s %10s %10s%n",
+                "operation", "count", "ops/s", "p50 us", "p90 us", "p99 us", "p99.9 us", "max us"));
+        latencies.forEach((operation, s) -> out.append(String.format("%-10s %10d %12.0f %10.1f %10.1f %10.1f %10.1f %10.1f%n",
+                operation, s.count(), throughput(operation),
+                s.p50() / 1e3, s.p90() / 1e3, s.p99() / 1e3, s.p999() / 1e3, s.max() / 1e3)));
+        return out.toString();
+    }
+}
@@ -0,0 +1,41 @@
+package uk.ac.newcastle.paritoshpal.workload;
+
+import uk.ac.newcastle.paritoshpal.service.PCShop;
+
+/**
+ * Command line entry point of the load test.
+ *
+ * Usage:
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar uk.ac.newcastle.paritoshpal.workload.LoadTestMain \
+ *     [shopClass] [threads] [ordersPerThread] [hotPresetShare]
+ * </pre>
+ * {@code shopClass} is any {@link PCShop} implementation with a public no-arg
+ * constructor (default {@code uk.ac.newcastle.paritoshpal.service.PCShopImpl},
+ * which is not thread-safe, so keep {@code threads} at 1 for it).
+ * A {@code hotPresetShare} above 0 simulates a flash sale on one preset.
+ */
+public final class LoadTestMain {
+
+    private LoadTestMain() {
+        // Empty by design.
+    }
+
+    public static void main(String[] args) throws Exception {
+        String shopClass = args.length > 0 ? args[0] : "uk.ac.newcastle.paritoshpal.service.PCShopImpl";
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+        int ordersPerThread = args.length > 2 ? Integer.parseInt(args[2]) : 1_000_000;
+        double hotPresetShare = args.length > 3 ? Double.parseDouble(args[3]) : 0;
+
+        WorkloadProfile profile = WorkloadProfile.defaults().withHotPresetShare(hotPresetShare);
+        WorkloadGenerator generator = new WorkloadGenerator(profile, 42);
+        PCShop shop = (PCShop) Class.forName(shopClass).getDeclaredConstructor().newInstance();
+
+        // short warm-up on a throwaway shop so the JIT has compiled the hot paths
+        PCShop warmUp = (PCShop) Class.forName(shopClass).getDeclaredConstructor().newInstance();
+        new LoadDriver(generator, threads).run(warmUp, Math.min(ordersPerThread, 100_000), 7);
+
+        LoadReport report = new LoadDriver(generator, threads).run(shop, ordersPerThread, 42);
+        System.out.print(report);
+    }
+}
@@ -0,0 +1,161 @@
+package uk.ac.newcastle.paritoshpal.workload;
+
+import uk.ac.newcastle.paritoshpal.model.customer.Customer;
+import uk.ac.newcastle.paritoshpal.model.customer.CustomerFactory;
+import uk.ac.newcastle.paritoshpal.model.payment.CreditCard;
+import uk.ac.newcastle.paritoshpal.model.payment.CreditCardFactory;
+import uk.ac.newcastle.paritoshpal.model.pc.CustomModel;
+import uk.ac.newcastle.paritoshpal.model.pc.CustomModelFactory;
+import uk.ac.newcastle.paritoshpal.model.pc.PCModel;
+import uk.ac.newcastle.paritoshpal.model.pc.PresetModel;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Generates a stream of realistic orders following a {@link WorkloadProfile}.
+ *
+ * The whole catalogue (customers, cards, presets and custom configurations)
+ * is built up front in the constructor, because the factories are not meant
+ * to be hammered concurrently. After construction the generator is read-only
+ * and {@link #next(SplittableRandom)} can be called from many threads, each
+ * with its own random source.
+ */
+public final class WorkloadGenerator {
+
+    /**
+     * What the driver does with an order once it has been placed.
+     */
+    public enum Outcome {
+        FULFIL,
+        CANCEL,
+        LEAVE_PLACED
+    }
+
+    /**
+     * One generated order.
+     *
+     * @param models the models to order.
+     * @param customer the ordering customer.
+     * @param card the card of the customer.
+     * @param outcome what happens to the order after it was placed.
+     */
+    public record OrderRequest(List<PCModel> models, Customer customer, CreditCard card, Outcome outcome) {
+    }
+
+    private final WorkloadProfile profile;
+    private final Customer[] customers;
+    private final CreditCard[] cards;
+    private final PresetModel[] presets;
+    private final CustomModel[] customModels;
+    private final ZipfDistribution customerPopularity;
+    private final ZipfDistribution presetPopularity;
+    private final ZipfDistribution configurationPopularity;
+
+    /**
+     * Builds the catalogue for the given profile.
+     *
+     * @param profile the workload shape; cannot be null.
+     * @param seed the seed for the catalogue, so that runs are reproducible.
+     * @throws IllegalArgumentException if {@code profile} is null.
+     */
+    public WorkloadGenerator(WorkloadProfile profile, long seed) {
+        if (profile == null) {
+            throw new IllegalArgumentException("Workload profile cannot be null.");
+        }
+        this.profile = profile;
+        SplittableRandom random = new SplittableRandom(seed);
+
+        Calendar cal = Calendar.getInstance();
+        cal.add(Calendar.YEAR, 5);
+        Date expiry = cal.getTime();
+        customers = new Customer[profile.customers()];
+        cards = new CreditCard[profile.customers()];
+        for (int i = 0; i < customers.length; i++) {
+            customers[i] = CustomerFactory.getCustomer("customer", letters(i));
+            cards[i] = CreditCardFactory.getCreditCard(String.format("%08d", i % 100_000_000), expiry, "holder");
+        }
+
+        String[] manufacturers = {"dell", "lenovo", "apple", "hp", "asus", "acer", "msi"};
+        ZipfDistribution partPopularity = new ZipfDistribution(profile.parts(), profile.partSkew());
+        presets = new PresetModel[profile.presets()];
+        for (int i = 0; i < presets.length; i++) {
+            presets[i] = new PresetModel("model " + i, manufacturers[i % manufacturers.length],
+                    List.of(part(partPopularity.sample(random)), part(partPopularity.sample(random))));
+        }
+
+        customModels = new CustomModel[profile.customConfigurations()];
+        for (int i = 0; i < customModels.length; i++) {
+            CustomModel model = CustomModelFactory.createCustomModel();
+            int partCount = 1 + random.nextInt(profile.maxPartsPerCustomModel());
+            for (int p = 0; p < partCount; p++) {
+                model.addPart(part(partPopularity.sample(random)));
+            }
+            customModels[i] = model;
+        }
+
+        customerPopularity = new ZipfDistribution(profile.customers(), profile.customerSkew());
+        presetPopularity = new ZipfDistribution(profile.presets(), profile.presetSkew());
+        configurationPopularity = new ZipfDistribution(profile.customConfigurations(), 1.0);
+    }
+
+    private static String part(int rank) {
+        return "part " + rank;
+    }
+
+    /**
+     * Names cannot contain digits, so indices are spelled with letters.
+     */
+    private static String letters(int index) {
+        StringBuilder name = new StringBuilder();
+        int value = index;
+        do {
+            name.append((char) ('a' + value % 26));
+            value /= 26;
+        } while (value > 0);
+        return name.toString();
+    }
+
+    /**
+     * Generates the next order.
+     *
+     * @param random the caller's random source; not shared between threads.
+     * @return the generated order request.
+     */
+    public OrderRequest next(SplittableRandom random) {
+        int modelCount = 1 + random.nextInt(profile.maxModelsPerOrder());
+        List<PCModel> models = new ArrayList<>(modelCount);
+        for (int i = 0; i < modelCount; i++) {
+            if (random.nextDouble() < profile.customShare()) {
+                models.add(customModels[configurationPopularity.sample(random)]);
+            } else if (random.nextDouble() < profile.hotPresetShare()) {
+                models.add(presets[0]);
+            } else {
+                models.add(presets[presetPopularity.sample(random)]);
+            }
+        }
+        int customer = customerPopularity.sample(random);
+
+        double roll = random.nextDouble();
+        Outcome outcome;
+        if (roll < profile.fulfilShare()) {
+            outcome = Outcome.FULFIL;
+        } else if (roll < profile.fulfilShare() + profile.cancelShare()) {
+            outcome = Outcome.CANCEL;
+        } else {
+            outcome = Outcome.LEAVE_PLACED;
+        }
+        return new OrderRequest(models, customers[customer], cards[customer], outcome);
+    }
+
+    /**
+     * Returns the profile this generator follows.
+     * @return the profile.
+     */
+    public WorkloadProfile getProfile() {
+        return profile;
+    }
+}
@@ -0,0 +1,81 @@
+package uk.ac.newcastle.paritoshpal.workload;
+
+/**
+ * The shape of a synthetic workload.
+ *
+ * @param customers number of distinct customers.
+ * @param customerSkew Zipf exponent of customer popularity.
+ * @param presets number of preset models in the catalogue.
+ * @param presetSkew Zipf exponent of preset popularity.
+ * @param hotPresetShare share of preset picks that go to the single most popular preset
+ *                       on top of the Zipf skew, e.g. {@code 0.5} for a flash sale; {@code 0} for none.
+ * @param parts number of distinct custom parts; a large value gives a long tail.
+ * @param partSkew Zipf exponent of part popularity.
+ * @param customConfigurations number of distinct custom configurations built up front.
+ * @param customShare probability that a model in an order is a custom model.
+ * @param maxModelsPerOrder maximum number of models in one order.
+ * @param maxPartsPerCustomModel maximum number of parts in a custom configuration.
+ * @param fulfilShare probability that a placed order is then fulfilled.
+ * @param cancelShare probability that a placed order is then cancelled.
+ */
+public record WorkloadProfile(int customers, double customerSkew,
+                              int presets, double presetSkew, double hotPresetShare,
+                              int parts, double partSkew, int customConfigurations,
+                              double customShare, int maxModelsPerOrder, int maxPartsPerCustomModel,
+                              double fulfilShare, double cancelShare) {
+
+    /**
+     * Validates the profile.
+     * @throws IllegalArgumentException if a size is not positive or a share is outside {@code [0, 1]}.
+     */
+    public WorkloadProfile {
+        if (customers <= 0 || presets <= 0 || parts <= 0 || customConfigurations <= 0
+                || maxModelsPerOrder <= 0 || maxPartsPerCustomModel <= 0) {
+            throw new IllegalArgumentException("Workload sizes must be positive.");
+        }
+        if (!isShare(hotPresetShare) || !isShare(customShare) || !isShare(fulfilShare) || !isShare(cancelShare)
+                || fulfilShare + cancelShare > 1) {
+            throw new IllegalArgumentException("Workload shares must be between 0 and 1.");
+        }
+    }
+
+    private static boolean isShare(double value) {
+        return value >= 0 && value <= 1;
+    }
+
+    /**
+     * A steady-state profile: 100k customers, 500 presets and 20k parts with
+     * typical popularity skew, 70% of orders fulfilled and 10% cancelled.
+     * @return the default profile.
+     */
+    public static WorkloadProfile defaults() {
+        return new WorkloadProfile(100_000, 1.0, 500, 1.1, 0,
+                20_000, 1.2, 10_000, 0.25, 4, 12, 0.7, 0.1);
+    }
+
+    /**
+     * Returns a copy of this profile in which the given share of preset picks
+     * goes to the most popular preset, as during a flash sale.
+     *
+     * @param share the share of preset picks for the hot preset.
+     * @return the new profile.
+     */
+    public WorkloadProfile withHotPresetShare(double share) {
+        return new WorkloadProfile(customers, customerSkew, presets, presetSkew, share,
+                parts, partSkew, customConfigurations, customShare, maxModelsPerOrder,
+                maxPartsPerCustomModel, fulfilShare, cancelShare);
+    }
+
+    /**
+     * Returns a copy of this profile with a different fulfil/cancel mix.
+     *
+     * @param fulfil the probability that an order is fulfilled.
+     * @param cancel the probability that an order is cancelled.
+     * @return the new profile.
+     */
+    public WorkloadProfile withOutcomes(double fulfil, double cancel) {
+        return new WorkloadProfile(customers, customerSkew, presets, presetSkew, hotPresetShare,
+                parts, partSkew, customConfigurations, customShare, maxModelsPerOrder,
+                maxPartsPerCustomModel, fulfil, cancel);
+    }
+}
@@ -0,0 +1,57 @@
+package uk.ac.newcastle.paritoshpal.workload;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * A Zipf distribution over the ranks {@code 0 .. n-1}, where rank {@code k}
+ * is drawn with a probability proportional to {@code 1 / (k + 1)^exponent}.
+ * The cumulative distribution is computed once, so sampling is a binary
+ * search and the instance can be shared between threads.
+ */
+public final class ZipfDistribution {
+
+    private final double[] cumulative;
+
+    /**
+     * Constructs a Zipf distribution.
+     *
+     * @param n the number of ranks; must be positive.
+     * @param exponent the skew; {@code 0} is uniform, around {@code 1} is typical for popularity.
+     * @throws IllegalArgumentException if {@code n} is not positive or {@code exponent} is negative.
+     */
+    public ZipfDistribution(int n, double exponent) {
+        if (n <= 0 || exponent < 0) {
+            throw new IllegalArgumentException("Zipf distribution needs a positive size and a non-negative exponent.");
+        }
+        cumulative = new double[n];
+        double total = 0;
+        for (int k = 0; k < n; k++) {
+            total += 1.0 / Math.pow(k + 1, exponent);
+            cumulative[k] = total;
+        }
+        for (int k = 0; k < n; k++) {
+            cumulative[k] /= total;
+        }
+    }
+
+    /**
+     * Draws a rank.
+     *
+     * @param random the source of randomness.
+     * @return a rank between {@code 0} and {@code n-1}; lower ranks are more likely.
+     */
+    public int sample(SplittableRandom random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        int rank = index >= 0 ? index : -index - 1;
+        return Math.min(rank, cumulative.length - 1);
+    }
+
+    /**
+     * Returns the number of ranks.
+     * @return the size.
+     */
+    public int size() {
+        return cumulative.length;
+    }
+}
@@ -0,0 +1,117 @@
+package uk.ac.newcastle.paritoshpal.workload;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import uk.ac.newcastle.paritoshpal.model.pc.CustomModel;
+import uk.ac.newcastle.paritoshpal.model.pc.PCModel;
+import uk.ac.newcastle.paritoshpal.model.pc.PresetModel;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("WorkloadGenerator Unit Tests")
+class WorkloadGeneratorTest {
+
+    private static final int ORDERS = 200_000;
+
+    /**
+     * A small catalogue of presets only, with one model per order.
+     */
+    private static WorkloadProfile presetsOnly() {
+        return new WorkloadProfile(500, 1.0, 50, 1.1, 0,
+                100, 1.2, 10, 0, 1, 4, 0.7, 0.1);
+    }
+
+    /**
+     * The share of preset picks that go to the first preset.
+     */
+    private static double hotShare(WorkloadProfile profile) {
+        WorkloadGenerator generator = new WorkloadGenerator(profile, 1);
+        SplittableRandom random = new SplittableRandom(2);
+        int hot = 0;
+        for (int i = 0; i < ORDERS; i++) {
+            PCModel model = generator.next(random).models().get(0);
+            assertInstanceOf(PresetModel.class, model);
+            if (model.getName().equals("model 0")) {
+                hot++;
+            }
+        }
+        return (double) hot / ORDERS;
+    }
+
+    @Test
+    @DisplayName("Test the outcomes follow the fulfil and cancel shares")
+    void testOutcomeMix() {
+        WorkloadProfile profile = presetsOnly().withOutcomes(0.6, 0.3);
+        WorkloadGenerator generator = new WorkloadGenerator(profile, 1);
+        SplittableRandom random = new SplittableRandom(3);
+        Map<WorkloadGenerator.Outcome, Integer> outcomes = new EnumMap<>(WorkloadGenerator.Outcome.class);
+        for (int i = 0; i < ORDERS; i++) {
+            outcomes.merge(generator.next(random).outcome(), 1, Integer::sum);
+        }
+
+        assertEquals(0.6, outcomes.get(WorkloadGenerator.Outcome.FULFIL) / (double) ORDERS, 0.005);
+        assertEquals(0.3, outcomes.get(WorkloadGenerator.Outcome.CANCEL) / (double) ORDERS, 0.005);
+        assertEquals(0.1, outcomes.get(WorkloadGenerator.Outcome.LEAVE_PLACED) / (double) ORDERS, 0.005);
+    }
+
+    @Test
+    @DisplayName("Test a flash sale sends its share of preset picks to the hot preset")
+    void testFlashSaleSkew() {
+        WorkloadProfile profile = presetsOnly();
+        double normalizer = 0;
+        for (int k = 1; k <= profile.presets(); k++) {
+            normalizer += 1 / Math.pow(k, profile.presetSkew());
+        }
+        double zipfShare = 1 / normalizer;
+
+        assertEquals(zipfShare, hotShare(profile), 0.005);
+        // the hot share goes to the first preset, the rest still follow the Zipf skew
+        assertEquals(0.5 + 0.5 * zipfShare, hotShare(profile.withHotPresetShare(0.5)), 0.005);
+        assertEquals(1, hotShare(profile.withHotPresetShare(1)));
+    }
+
+    @Test
+    @DisplayName("Test the custom share and order size follow the profile")
+    void testModelMix() {
+        WorkloadProfile profile = new WorkloadProfile(500, 1.0, 50, 1.1, 0,
+                100, 1.2, 10, 0.25, 4, 4, 0.7, 0.1);
+        WorkloadGenerator generator = new WorkloadGenerator(profile, 1);
+        SplittableRandom random = new SplittableRandom(4);
+        long models = 0;
+        long custom = 0;
+        for (int i = 0; i < ORDERS; i++) {
+            for (PCModel model : generator.next(random).models()) {
+                models++;
+                if (model instanceof CustomModel) {
+                    custom++;
+                }
+            }
+        }
+
+        assertEquals(2.5, (double) models / ORDERS, 0.01);
+        assertEquals(0.25, (double) custom / models, 0.005);
+    }
+
+    @Test
+    @DisplayName("Test the same seeds generate the same orders")
+    void testReproducible() {
+        WorkloadGenerator generator = new WorkloadGenerator(presetsOnly(), 5);
+        SplittableRandom first = new SplittableRandom(6);
+        SplittableRandom second = new SplittableRandom(6);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(generator.next(first), generator.next(second));
+        }
+    }
+
+    @Test
+    @DisplayName("Test invalid arguments")
+    void testInvalidArguments() {
+        assertThrowsExactly(IllegalArgumentException.class, () -> new WorkloadGenerator(null, 1));
+        assertThrowsExactly(IllegalArgumentException.class, () -> presetsOnly().withOutcomes(0.8, 0.3));
+        assertThrowsExactly(IllegalArgumentException.class, () -> presetsOnly().withHotPresetShare(1.5));
+    }
+}
@@ -0,0 +1,78 @@
+package uk.ac.newcastle.paritoshpal.workload;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ZipfDistribution Unit Tests")
+class ZipfDistributionTest {
+
+    private static final int SAMPLES = 1_000_000;
+
+    private static int[] frequencies(ZipfDistribution zipf, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int[] counts = new int[zipf.size()];
+        for (int i = 0; i < SAMPLES; i++) {
+            counts[zipf.sample(random)]++;
+        }
+        return counts;
+    }
+
+    /**
+     * Fits the exponent as minus the slope of log frequency against log rank.
+     */
+    private static double fittedExponent(int[] counts, int ranks) {
+        double sumX = 0, sumY = 0, sumXX = 0, sumXY = 0;
+        for (int k = 0; k < ranks; k++) {
+            double x = Math.log(k + 1);
+            double y = Math.log(counts[k]);
+            sumX += x;
+            sumY += y;
+            sumXX += x * x;
+            sumXY += x * y;
+        }
+        return -(ranks * sumXY - sumX * sumY) / (ranks * sumXX - sumX * sumX);
+    }
+
+    @Test
+    @DisplayName("Test rank frequencies follow the configured exponent")
+    void testExponent() {
+        for (double exponent : new double[]{0.8, 1.0, 1.2}) {
+            int[] counts = frequencies(new ZipfDistribution(1000, exponent), 42);
+            assertEquals(exponent, fittedExponent(counts, 20), 0.05, "exponent " + exponent);
+            // the most popular rank is 2^s times as frequent as the second
+            assertEquals(Math.pow(2, exponent), (double) counts[0] / counts[1], 0.05, "exponent " + exponent);
+        }
+    }
+
+    @Test
+    @DisplayName("Test a zero exponent is uniform")
+    void testUniform() {
+        int[] counts = frequencies(new ZipfDistribution(10, 0), 7);
+        for (int count : counts) {
+            assertEquals(SAMPLES / 10.0, count, SAMPLES * 0.005);
+        }
+    }
+
+    @Test
+    @DisplayName("Test samples stay within the ranks and are reproducible")
+    void testRangeAndSeed() {
+        ZipfDistribution zipf = new ZipfDistribution(5, 1.5);
+        assertArrayEquals(frequencies(zipf, 3), frequencies(zipf, 3));
+        SplittableRandom random = new SplittableRandom(9);
+        for (int i = 0; i < 10_000; i++) {
+            int rank = zipf.sample(random);
+            assertTrue(rank >= 0 && rank < 5);
+        }
+    }
+
+    @Test
+    @DisplayName("Test invalid arguments")
+    void testInvalidArguments() {
+        assertThrowsExactly(IllegalArgumentException.class, () -> new ZipfDistribution(0, 1));
+        assertThrowsExactly(IllegalArgumentException.class, () -> new ZipfDistribution(10, -0.5));
+    }
+}
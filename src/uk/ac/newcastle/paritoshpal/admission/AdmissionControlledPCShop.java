@@ -0,0 +1,261 @@
+package uk.ac.newcastle.paritoshpal.admission;
+
+import uk.ac.newcastle.paritoshpal.admission.AdmissionRejectedException.Reason;
+import uk.ac.newcastle.paritoshpal.dto.CustomerStats;
+import uk.ac.newcastle.paritoshpal.dto.CustomerSummary;
+import uk.ac.newcastle.paritoshpal.dto.ModelStats;
+import uk.ac.newcastle.paritoshpal.dto.PartsStats;
+import uk.ac.newcastle.paritoshpal.model.customer.Customer;
+import uk.ac.newcastle.paritoshpal.model.fulfillment.FulfillmentDetails;
+import uk.ac.newcastle.paritoshpal.model.payment.CreditCard;
+import uk.ac.newcastle.paritoshpal.model.pc.PCModel;
+import uk.ac.newcastle.paritoshpal.service.Order;
+import uk.ac.newcastle.paritoshpal.service.OrderPage;
+import uk.ac.newcastle.paritoshpal.service.OrderQuery;
+import uk.ac.newcastle.paritoshpal.service.PCShop;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * A {@link PCShop} decorator that sheds load before it reaches the shop.
+ *
+ * Placing an order requires a slot under the global concurrency limit, then
+ * a token from the customer's and from the card's rate limiter; fulfilling
+ * an order only requires a concurrency slot. A request that cannot be
+ * admitted fails immediately with an {@link AdmissionRejectedException}
+ * carrying a retry-after hint: the time until the next token for rate
+ * limits, or the recent average service time for the concurrency limit.
+ * Cancellations and analytics queries are passed through unchecked.
+ *
+ * Every check is a compare-and-set on an atomic, so admission never blocks.
+ * The underlying shop must itself be safe for the concurrency allowed, e.g.
+ * a {@link uk.ac.newcastle.paritoshpal.service.ShardedPCShop}.
+ */
+public final class AdmissionControlledPCShop implements PCShop {
+
+    private final PCShop delegate;
+    private final RateLimiter<Customer> customerLimiter;
+    private final RateLimiter<String> cardLimiter;
+    private final ConcurrencyLimiter concurrencyLimiter;
+    private final LongSupplier nanoTime;
+
+    // exponentially weighted average of the time spent in the shop
+    private final AtomicLong averageServiceNanos = new AtomicLong();
+    private final LongAdder admitted = new LongAdder();
+    private final Map<Reason, LongAdder> rejected = new EnumMap<>(Reason.class);
+
+    /**
+     * Constructs an admission-controlled shop.
+     *
+     * @param delegate the shop receiving the admitted requests; cannot be null.
+     * @param policy the limits to apply; cannot be null.
+     * @throws IllegalArgumentException if an argument is null.
+     */
+    public AdmissionControlledPCShop(PCShop delegate, AdmissionPolicy policy) {
+        this(delegate, policy, System::nanoTime);
+    }
+
+    AdmissionControlledPCShop(PCShop delegate, AdmissionPolicy policy, LongSupplier nanoTime) {
+        if (delegate == null || policy == null) {
+            throw new IllegalArgumentException("Shop and admission policy cannot be null.");
+        }
+        this.delegate = delegate;
+        this.customerLimiter = new RateLimiter<>(policy.customerOrdersPerSecond(), policy.customerBurst(), nanoTime);
+        this.cardLimiter = new RateLimiter<>(policy.cardOrdersPerSecond(), policy.cardBurst(), nanoTime);
+        this.concurrencyLimiter = new ConcurrencyLimiter(policy.maxConcurrentRequests());
+        this.nanoTime = nanoTime;
+        for (Reason reason : Reason.values()) {
+            rejected.put(reason, new LongAdder());
+        }
+    }
+
+    /**
+     * Gets the number of requests admitted so far.
+     *
+     * @return the count.
+     */
+    public long getAdmitted() {
+        return admitted.sum();
+    }
+
+    /**
+     * Gets the number of requests rejected so far for a reason.
+     *
+     * @param reason the reason.
+     * @return the count.
+     */
+    public long getRejected(Reason reason) {
+        return rejected.get(reason).sum();
+    }
+
+    /**
+     * Gets the number of places and fulfils currently in progress.
+     *
+     * @return the number of requests.
+     */
+    public int getInFlight() {
+        return concurrencyLimiter.getInFlight();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws AdmissionRejectedException if the request is shed.
+     */
+    @Override
+    public Order placeOrder(List<PCModel> models, Customer customer, CreditCard creditCard) {
+        return admitOrder(customer, creditCard, () -> delegate.placeOrder(models, customer, creditCard));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws AdmissionRejectedException if the request is shed.
+     */
+    @Override
+    public Order placeOrder(String idempotencyKey, List<PCModel> models, Customer customer, CreditCard creditCard) {
+        return admitOrder(customer, creditCard,
+                () -> delegate.placeOrder(idempotencyKey, models, customer, creditCard));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void cancelOrder(Order order) {
+        delegate.cancelOrder(order);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws AdmissionRejectedException if the request is shed.
+     */
+    @Override
+    public FulfillmentDetails fulfillOrder(Order order) {
+        acquireSlot();
+        return run(() -> delegate.fulfillOrder(order));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void cancelIfVersion(Order order, long expectedVersion) {
+        delegate.cancelIfVersion(order, expectedVersion);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws AdmissionRejectedException if the request is shed.
+     */
+    @Override
+    public FulfillmentDetails fulfillIfVersion(Order order, long expectedVersion) {
+        acquireSlot();
+        return run(() -> delegate.fulfillIfVersion(order, expectedVersion));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CustomerStats getLargestCustomer() {
+        return delegate.getLargestCustomer();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ModelStats getMostOrderedModel() {
+        return delegate.getMostOrderedModel();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public PartsStats getMostOrderedPart() {
+        return delegate.getMostOrderedPart();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CustomerSummary getCustomerSummary(Customer customer) {
+        return delegate.getCustomerSummary(customer);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public OrderQuery orders() {
+        return delegate.orders();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public OrderPage pageOrders(String cursor, int pageSize) {
+        return delegate.pageOrders(cursor, pageSize);
+    }
+
+    private Order admitOrder(Customer customer, CreditCard creditCard, Supplier<Order> placement) {
+        if (customer == null || creditCard == null) {
+            throw new IllegalArgumentException("Models, customer, and credit card cannot be null.");
+        }
+        acquireSlot();
+        long wait = customerLimiter.tryAcquire(customer);
+        Reason reason = Reason.CUSTOMER_RATE;
+        if (wait == 0) {
+            wait = cardLimiter.tryAcquire(creditCard.getNumber());
+            reason = Reason.CARD_RATE;
+            if (wait > 0) {
+                // the request has no effect, so it must not use up the customer's rate
+                customerLimiter.refund(customer);
+            }
+        }
+        if (wait > 0) {
+            concurrencyLimiter.release();
+            throw reject(reason, wait);
+        }
+        return run(placement);
+    }
+
+    private void acquireSlot() {
+        if (!concurrencyLimiter.tryAcquire()) {
+            throw reject(Reason.CONCURRENCY, Math.max(1, averageServiceNanos.get()));
+        }
+    }
+
+    /**
+     * Runs an admitted request, holding a concurrency slot already acquired.
+     */
+    private <T> T run(Supplier<T> request) {
+        admitted.increment();
+        long start = nanoTime.getAsLong();
+        try {
+            return request.get();
+        } finally {
+            concurrencyLimiter.release();
+            long elapsed = nanoTime.getAsLong() - start;
+            averageServiceNanos.accumulateAndGet(elapsed, (average, sample) -> average + (sample - average) / 8);
+        }
+    }
+
+    private AdmissionRejectedException reject(Reason reason, long waitNanos) {
+        rejected.get(reason).increment();
+        return new AdmissionRejectedException(reason, Duration.ofNanos(waitNanos));
+    }
+}
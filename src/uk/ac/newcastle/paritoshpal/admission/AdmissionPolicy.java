@@ -0,0 +1,70 @@
+package uk.ac.newcastle.paritoshpal.admission;
+
+/**
+ * The limits applied by an {@link AdmissionControlledPCShop}.
+ *
+ * @param customerOrdersPerSecond the sustained order rate of a customer.
+ * @param customerBurst the number of orders a customer can place at once.
+ * @param cardOrdersPerSecond the sustained order rate of a credit card.
+ * @param cardBurst the number of orders a credit card can pay for at once.
+ * @param maxConcurrentRequests the maximum number of places and fulfils in progress.
+ */
+public record AdmissionPolicy(double customerOrdersPerSecond, int customerBurst,
+                              double cardOrdersPerSecond, int cardBurst, int maxConcurrentRequests) {
+
+    /**
+     * Validates the limits.
+     *
+     * @throws IllegalArgumentException if a limit is not positive.
+     */
+    public AdmissionPolicy {
+        if (!(customerOrdersPerSecond > 0) || customerBurst <= 0 || !(cardOrdersPerSecond > 0)
+                || cardBurst <= 0 || maxConcurrentRequests <= 0) {
+            throw new IllegalArgumentException("Admission limits must be positive.");
+        }
+    }
+
+    /**
+     * The default limits: 5 orders per second with bursts of 20 per customer
+     * and per card, and 4 requests in progress per available processor.
+     *
+     * @return the default policy.
+     */
+    public static AdmissionPolicy defaults() {
+        return new AdmissionPolicy(5, 20, 5, 20, 4 * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Returns a copy of this policy with another per-customer limit.
+     *
+     * @param ordersPerSecond the sustained order rate of a customer.
+     * @param burst the number of orders a customer can place at once.
+     * @return the new policy.
+     */
+    public AdmissionPolicy withCustomerRate(double ordersPerSecond, int burst) {
+        return new AdmissionPolicy(ordersPerSecond, burst, cardOrdersPerSecond, cardBurst, maxConcurrentRequests);
+    }
+
+    /**
+     * Returns a copy of this policy with another per-card limit.
+     *
+     * @param ordersPerSecond the sustained order rate of a credit card.
+     * @param burst the number of orders a credit card can pay for at once.
+     * @return the new policy.
+     */
+    public AdmissionPolicy withCardRate(double ordersPerSecond, int burst) {
+        return new AdmissionPolicy(customerOrdersPerSecond, customerBurst, ordersPerSecond, burst,
+                maxConcurrentRequests);
+    }
+
+    /**
+     * Returns a copy of this policy with another concurrency limit.
+     *
+     * @param maxConcurrentRequests the maximum number of places and fulfils in progress.
+     * @return the new policy.
+     */
+    public AdmissionPolicy withMaxConcurrentRequests(int maxConcurrentRequests) {
+        return new AdmissionPolicy(customerOrdersPerSecond, customerBurst, cardOrdersPerSecond, cardBurst,
+                maxConcurrentRequests);
+    }
+}
@@ -0,0 +1,57 @@
+package uk.ac.newcastle.paritoshpal.admission;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a request is shed by admission control. The request had no
+ * effect and may be retried after {@link #getRetryAfter()}.
+ */
+public class AdmissionRejectedException extends IllegalStateException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Why a request was rejected.
+     */
+    public enum Reason {
+        /** The customer exceeded their order rate. */
+        CUSTOMER_RATE,
+        /** The credit card exceeded its order rate. */
+        CARD_RATE,
+        /** Too many requests were already in progress. */
+        CONCURRENCY
+    }
+
+    private final Reason reason;
+    private final Duration retryAfter;
+
+    /**
+     * Constructs the exception.
+     *
+     * @param reason why the request was rejected.
+     * @param retryAfter how long to wait before retrying.
+     */
+    public AdmissionRejectedException(Reason reason, Duration retryAfter) {
+        super("Request rejected (" + reason + "), retry after " + retryAfter.toMillis() + " ms.");
+        this.reason = reason;
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Gets why the request was rejected.
+     *
+     * @return the reason.
+     */
+    public Reason getReason() {
+        return reason;
+    }
+
+    /**
+     * Gets how long to wait before retrying.
+     *
+     * @return the retry-after hint.
+     */
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
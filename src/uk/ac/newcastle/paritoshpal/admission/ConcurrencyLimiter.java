@@ -0,0 +1,67 @@
+package uk.ac.newcastle.paritoshpal.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A lock-free limit on the number of requests in progress at once.
+ */
+public final class ConcurrencyLimiter {
+
+    private final int limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    /**
+     * Constructs a limiter.
+     *
+     * @param limit the maximum number of requests in progress; must be positive.
+     * @throws IllegalArgumentException if {@code limit} is not positive.
+     */
+    public ConcurrencyLimiter(int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Concurrency limit must be positive.");
+        }
+        this.limit = limit;
+    }
+
+    /**
+     * Tries to start a request. Every successful call must be paired with {@link #release()}.
+     *
+     * @return {@code true} if the request may proceed.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Ends a request started by {@link #tryAcquire()}.
+     */
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * Gets the number of requests in progress.
+     *
+     * @return the number of requests.
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Gets the maximum number of requests in progress.
+     *
+     * @return the limit.
+     */
+    public int getLimit() {
+        return limit;
+    }
+}
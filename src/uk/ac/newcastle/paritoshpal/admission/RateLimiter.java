@@ -0,0 +1,153 @@
+package uk.ac.newcastle.paritoshpal.admission;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * A lock-free, per-key token bucket rate limiter.
+ *
+ * It implements the generic cell rate algorithm: instead of a token count,
+ * each key only stores its theoretical arrival time in an {@link AtomicLong},
+ * and a request is admitted by advancing it with a compare-and-set. A key
+ * may make {@code burst} requests at once, then one every
+ * {@code 1 / permitsPerSecond} seconds. A rejected request consumes nothing
+ * and is told how long to wait before it would be admitted.
+ *
+ * Keys whose bucket has refilled completely carry no information, and are
+ * swept from the table once it grows beyond {@link #SWEEP_THRESHOLD} keys.
+ * After a sweep, the next one waits until the table has doubled, so a
+ * table full of active keys is not rescanned for every new key: the cost
+ * of sweeping stays constant per key added.
+ *
+ * @param <K> the type of the keys, e.g. customers or card numbers.
+ */
+public final class RateLimiter<K> {
+
+    /**
+     * The number of keys above which idle keys are swept.
+     */
+    public static final int SWEEP_THRESHOLD = 1 << 16;
+
+    private final long emissionIntervalNanos;
+    private final long toleranceNanos;
+    private final LongSupplier nanoTime;
+
+    private final ConcurrentHashMap<K, AtomicLong> arrivals = new ConcurrentHashMap<>();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+    // the table size at which the next sweep runs
+    private volatile int sweepAt = SWEEP_THRESHOLD;
+    private final AtomicInteger sweeps = new AtomicInteger();
+
+    /**
+     * Constructs a rate limiter.
+     *
+     * @param permitsPerSecond the sustained rate per key; must be positive.
+     * @param burst the number of requests a key can make at once; must be positive.
+     * @throws IllegalArgumentException if an argument is not positive.
+     */
+    public RateLimiter(double permitsPerSecond, int burst) {
+        this(permitsPerSecond, burst, System::nanoTime);
+    }
+
+    RateLimiter(double permitsPerSecond, int burst, LongSupplier nanoTime) {
+        if (!(permitsPerSecond > 0) || burst <= 0) {
+            throw new IllegalArgumentException("Rate and burst must be positive.");
+        }
+        this.emissionIntervalNanos = Math.max(1, (long) (1_000_000_000L / permitsPerSecond));
+        this.toleranceNanos = emissionIntervalNanos * (burst - 1);
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * Tries to admit one request for a key.
+     *
+     * @param key the key; cannot be null.
+     * @return {@code 0} if the request is admitted, otherwise the number of
+     *         nanoseconds after which it would be.
+     */
+    public long tryAcquire(K key) {
+        long now = nanoTime.getAsLong();
+        while (true) {
+            AtomicLong arrival = arrivals.get(key);
+            if (arrival == null) {
+                if (arrivals.size() >= sweepAt) {
+                    sweep(now);
+                }
+                arrival = arrivals.computeIfAbsent(key, k -> new AtomicLong(now));
+            }
+            long wait = acquire(arrival, now);
+            if (wait > 0 || arrivals.get(key) == arrival) {
+                return wait;
+            }
+            // swept meanwhile, so the token was taken from a detached counter: take it again
+        }
+    }
+
+    private long acquire(AtomicLong arrival, long now) {
+        while (true) {
+            long tat = arrival.get();
+            long start = Math.max(tat, now);
+            long wait = start - toleranceNanos - now;
+            if (wait > 0) {
+                return wait;
+            }
+            if (arrival.compareAndSet(tat, start + emissionIntervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Returns the token taken by an admitted request that was then abandoned,
+     * e.g. because another limiter rejected it. Must only be called once per
+     * request admitted by {@link #tryAcquire}.
+     *
+     * @param key the key the request was admitted for.
+     */
+    public void refund(K key) {
+        AtomicLong arrival = arrivals.get(key);
+        if (arrival != null) {
+            // a swept key had a full bucket, so there is nothing to return
+            arrival.addAndGet(-emissionIntervalNanos);
+        }
+    }
+
+    /**
+     * Gets the number of keys currently tracked.
+     *
+     * @return the number of keys.
+     */
+    public int size() {
+        return arrivals.size();
+    }
+
+    /**
+     * Gets the number of sweeps run so far.
+     */
+    int sweeps() {
+        return sweeps.get();
+    }
+
+    /**
+     * Removes the keys whose bucket is full, by one thread at a time.
+     */
+    private void sweep(long now) {
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            arrivals.forEach((key, arrival) -> {
+                if (arrival.get() <= now) {
+                    arrivals.remove(key, arrival);
+                }
+            });
+            sweeps.incrementAndGet();
+            sweepAt = Math.max(SWEEP_THRESHOLD, (int) Math.min(Integer.MAX_VALUE, 2L * arrivals.size()));
+        } finally {
+            sweeping.set(false);
+        }
+    }
+}
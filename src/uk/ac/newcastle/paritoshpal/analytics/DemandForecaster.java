@@ -0,0 +1,210 @@
+package uk.ac.newcastle.paritoshpal.analytics;
+
+import uk.ac.newcastle.paritoshpal.dto.DemandForecast;
+import uk.ac.newcastle.paritoshpal.model.fulfillment.FulfillmentDetails;
+import uk.ac.newcastle.paritoshpal.model.pc.PCModel;
+import uk.ac.newcastle.paritoshpal.model.pc.PresetModel;
+import uk.ac.newcastle.paritoshpal.service.Order;
+import uk.ac.newcastle.paritoshpal.service.OrderListener;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Forecasts the demand for warehouse parts and preset models from the
+ * stream of fulfilments, without ever rescanning the order history.
+ *
+ * Time is cut into periods (one day by default). For every part and preset
+ * the forecaster keeps an exponentially weighted moving average of the
+ * demand per period, and a seasonal profile of {@code seasonLength} periods
+ * (a week of days by default), also smoothed exponentially. Once a full
+ * season has been observed, the forecast for the current, not yet completed,
+ * period is the average scaled by that period's seasonal index.
+ *
+ * Items are interned to dense ids and all state lives in primitive arrays,
+ * with a running total of each seasonal profile, so an update or a query
+ * costs {@code O(1)} whatever the history size; only the first one after
+ * periods without any demand for an item costs {@code O(seasonLength)}. Register the forecaster with {@code PCShopImpl.addOrderListener}.
+ */
+public final class DemandForecaster implements OrderListener {
+
+    private final long periodMillis;
+    private final int seasonLength;
+    private final double alpha;
+    private final double beta;
+    private final Clock clock;
+
+    private final Series<String> parts;
+    private final Series<PresetModel> presets;
+
+    /**
+     * Constructs a forecaster with daily periods, a weekly season, a level
+     * smoothing factor of 0.3 and a seasonal smoothing factor of 0.1.
+     */
+    public DemandForecaster() {
+        this(Duration.ofDays(1), 7, 0.3, 0.1, Clock.systemUTC());
+    }
+
+    /**
+     * Constructs a forecaster.
+     *
+     * @param period the length of a period; must be positive.
+     * @param seasonLength the number of periods in a season; {@code 1} disables seasonality.
+     * @param alpha the weight of the latest period in the average, in {@code (0, 1]}.
+     * @param beta the weight of the latest period in the seasonal profile, in {@code (0, 1]}.
+     * @param clock the clock that dates fulfilments; cannot be null.
+     * @throws IllegalArgumentException if an argument is null or out of range.
+     */
+    public DemandForecaster(Duration period, int seasonLength, double alpha, double beta, Clock clock) {
+        if (period == null || clock == null || period.toMillis() <= 0 || seasonLength <= 0
+                || alpha <= 0 || alpha > 1 || beta <= 0 || beta > 1) {
+            throw new IllegalArgumentException("Invalid forecaster configuration.");
+        }
+        this.periodMillis = period.toMillis();
+        this.seasonLength = seasonLength;
+        this.alpha = alpha;
+        this.beta = beta;
+        this.clock = clock;
+        // created last, their arrays are sized by seasonLength
+        this.parts = new Series<>();
+        this.presets = new Series<>();
+    }
+
+    /**
+     * Records the parts and preset models of a fulfilled order.
+     */
+    @Override
+    public synchronized void orderFulfilled(Order order, FulfillmentDetails details) {
+        long period = currentPeriod();
+        details.getWarehouseParts().forEach((part, quantity) -> parts.record(parts.intern(part), quantity, period));
+        for (PCModel model : order.getModels()) {
+            if (model instanceof PresetModel preset) {
+                presets.record(presets.intern(preset), 1, period);
+            }
+        }
+    }
+
+    /**
+     * Gets the demand forecast of a warehouse part.
+     *
+     * @param part the part name.
+     * @return the forecast, or {@code null} if the part has never been fulfilled.
+     */
+    public synchronized DemandForecast forecastPart(String part) {
+        return parts.forecast(part, part, currentPeriod());
+    }
+
+    /**
+     * Gets the demand forecast of a preset model.
+     *
+     * @param model the preset model.
+     * @return the forecast, or {@code null} if the model has never been fulfilled.
+     */
+    public synchronized DemandForecast forecastModel(PresetModel model) {
+        return presets.forecast(model, String.valueOf(model), currentPeriod());
+    }
+
+    private long currentPeriod() {
+        return Math.floorDiv(clock.millis(), periodMillis);
+    }
+
+    /**
+     * The smoothed demand series of one kind of item, in parallel arrays indexed by item id.
+     */
+    private final class Series<K> {
+        private final Map<K, Integer> ids = new HashMap<>();
+        private double[] level = new double[16];
+        private double[] pending = new double[16];
+        private long[] lastPeriod = new long[16];
+        private long[] firstPeriod = new long[16];
+        private double[] seasonal = new double[16 * seasonLength];
+        // the sum of each item's seasonal profile
+        private double[] seasonalTotal = new double[16];
+
+        int intern(K key) {
+            Integer id = ids.get(key);
+            if (id != null) {
+                return id;
+            }
+            int newId = ids.size();
+            if (newId == level.length) {
+                int capacity = newId * 2;
+                level = Arrays.copyOf(level, capacity);
+                pending = Arrays.copyOf(pending, capacity);
+                lastPeriod = Arrays.copyOf(lastPeriod, capacity);
+                firstPeriod = Arrays.copyOf(firstPeriod, capacity);
+                seasonal = Arrays.copyOf(seasonal, capacity * seasonLength);
+                seasonalTotal = Arrays.copyOf(seasonalTotal, capacity);
+            }
+            ids.put(key, newId);
+            lastPeriod[newId] = -1;
+            return newId;
+        }
+
+        void record(int id, double quantity, long period) {
+            if (lastPeriod[id] < 0) {
+                firstPeriod[id] = period;
+                lastPeriod[id] = period;
+            }
+            roll(id, period);
+            pending[id] += quantity;
+        }
+
+        /**
+         * Folds the demand of every period completed since the last update into the averages.
+         */
+        private void roll(int id, long period) {
+            long last = lastPeriod[id];
+            if (last >= period) {
+                return;
+            }
+            int base = id * seasonLength;
+            int lastSlot = (int) Math.floorMod(last, (long) seasonLength);
+            double demand = pending[id];
+            level[id] = last == firstPeriod[id] ? demand : alpha * demand + (1 - alpha) * level[id];
+            double updated = beta * demand + (1 - beta) * seasonal[base + lastSlot];
+            seasonalTotal[id] += updated - seasonal[base + lastSlot];
+            seasonal[base + lastSlot] = updated;
+
+            // periods without any demand in between
+            long gap = period - last - 1;
+            if (gap > 0) {
+                level[id] *= Math.pow(1 - alpha, gap);
+                long fullSeasons = gap / seasonLength;
+                int rest = (int) (gap % seasonLength);
+                double total = 0;
+                for (int i = 0; i < seasonLength; i++) {
+                    int slot = (lastSlot + 1 + i) % seasonLength;
+                    seasonal[base + slot] *= Math.pow(1 - beta, fullSeasons + (i < rest ? 1 : 0));
+                    total += seasonal[base + slot];
+                }
+                // recomputed rather than adjusted, which also drops any rounding drift
+                seasonalTotal[id] = total;
+            }
+            pending[id] = 0;
+            lastPeriod[id] = period;
+        }
+
+        DemandForecast forecast(K key, String label, long period) {
+            Integer id = ids.get(key);
+            if (id == null) {
+                return null;
+            }
+            roll(id, period);
+            double next = level[id];
+            // seasonality only applies once a full season of completed periods has been seen
+            if (seasonLength > 1 && period - firstPeriod[id] >= seasonLength) {
+                int base = id * seasonLength;
+                double total = seasonalTotal[id];
+                if (total > 0) {
+                    int slot = (int) Math.floorMod(period, (long) seasonLength);
+                    next *= seasonal[base + slot] * seasonLength / total;
+                }
+            }
+            return new DemandForecast(label, level[id], next);
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package uk.ac.newcastle.paritoshpal.analytics;
+
+import uk.ac.newcastle.paritoshpal.dto.DistinctCounts;
+import uk.ac.newcastle.paritoshpal.model.fulfillment.FulfillmentDetails;
+import uk.ac.newcastle.paritoshpal.model.pc.CustomModel;
+import uk.ac.newcastle.paritoshpal.model.pc.PCModel;
+import uk.ac.newcastle.paritoshpal.service.Order;
+import uk.ac.newcastle.paritoshpal.service.OrderListener;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Approximate distinct counts of customers and credit cards placing orders,
+ * and of custom model configurations fulfilled, overall and per time window.
+ *
+ * Every count is a {@link HyperLogLog} sketch, so memory is fixed per window
+ * (three sketches of 2 KB at the default precision) however many orders are
+ * placed. Only the windows from the last {@code retainedWindows} window
+ * lengths are kept. A range
+ * of windows is counted by merging their sketches, and counters of several
+ * shops can be merged into one.
+ *
+ * A configuration is the sorted list of the parts of a custom model, so two
+ * models with the same parts in a different order count once.
+ *
+ * Register it with {@code PCShopImpl.addOrderListener}.
+ */
+public final class DistinctCounter implements OrderListener {
+
+    private final long windowMillis;
+    private final int retainedWindows;
+    private final int precision;
+    private final Clock clock;
+
+    private final Sketches totals;
+    // window start (millis) -> sketches of that window
+    private final NavigableMap<Long, Sketches> windows = new TreeMap<>();
+
+    /**
+     * Constructs a counter with daily windows, keeping the last 30, at the default precision.
+     */
+    public DistinctCounter() {
+        this(Duration.ofDays(1), 30, HyperLogLog.DEFAULT_PRECISION, Clock.systemUTC());
+    }
+
+    /**
+     * Constructs a counter.
+     *
+     * @param window the length of a window; must be positive.
+     * @param retainedWindows how many window lengths of history are kept; must be positive.
+     * @param precision the precision of the sketches, see {@link HyperLogLog#HyperLogLog(int)}.
+     * @param clock the clock that dates events; cannot be null.
+     * @throws IllegalArgumentException if an argument is null or out of range.
+     */
+    public DistinctCounter(Duration window, int retainedWindows, int precision, Clock clock) {
+        if (window == null || clock == null || window.toMillis() <= 0 || retainedWindows <= 0) {
+            throw new IllegalArgumentException("Invalid distinct counter configuration.");
+        }
+        this.windowMillis = window.toMillis();
+        this.retainedWindows = retainedWindows;
+        this.precision = precision;
+        this.clock = clock;
+        this.totals = new Sketches(precision);
+    }
+
+    /**
+     * Records the customer and card of a placed order.
+     */
+    @Override
+    public synchronized void orderPlaced(Order order) {
+        String customer = order.getCustomer().toString();
+        String card = order.getCreditCard().getNumber();
+        Sketches window = currentWindow();
+        totals.customers.offer(customer);
+        totals.cards.offer(card);
+        window.customers.offer(customer);
+        window.cards.offer(card);
+    }
+
+    /**
+     * Records the configurations of the custom models in a fulfilled order.
+     */
+    @Override
+    public synchronized void orderFulfilled(Order order, FulfillmentDetails details) {
+        Sketches window = null;
+        for (PCModel model : order.getModels()) {
+            if (model instanceof CustomModel customModel) {
+                String configuration = customModel.getConfiguration();
+                if (window == null) {
+                    window = currentWindow();
+                }
+                totals.configurations.offer(configuration);
+                window.configurations.offer(configuration);
+            }
+        }
+    }
+
+    /**
+     * Gets the distinct counts over everything recorded.
+     *
+     * @return the counts.
+     */
+    public synchronized DistinctCounts getTotals() {
+        return totals.counts();
+    }
+
+    /**
+     * Gets the distinct counts over the retained windows overlapping a time range.
+     *
+     * @param from the start of the range, inclusive; cannot be null.
+     * @param to the end of the range, exclusive; cannot be null.
+     * @return the counts.
+     * @throws IllegalArgumentException if either instant is null or {@code to} is before {@code from}.
+     */
+    public synchronized DistinctCounts getCounts(Instant from, Instant to) {
+        if (from == null || to == null || to.isBefore(from)) {
+            throw new IllegalArgumentException("A valid time range is required.");
+        }
+        Sketches merged = new Sketches(precision);
+        long start = windowStart(from.toEpochMilli());
+        for (Sketches window : windows.subMap(start, true, to.toEpochMilli(), false).values()) {
+            merged.merge(window);
+        }
+        return merged.counts();
+    }
+
+    /**
+     * Gets the distinct counts of the current window.
+     *
+     * @return the counts.
+     */
+    public synchronized DistinctCounts getCurrentWindow() {
+        Sketches window = windows.get(windowStart(clock.millis()));
+        return window == null ? new DistinctCounts(0, 0, 0) : window.counts();
+    }
+
+    /**
+     * Merges the sketches of another counter into this one, e.g. to count
+     * across the shards of a shop.
+     *
+     * @param other the counter to merge; cannot be null and must have the
+     *              same window length and precision.
+     * @throws IllegalArgumentException if the counter is null or incompatible.
+     */
+    public void merge(DistinctCounter other) {
+        if (other == null || other.windowMillis != windowMillis || other.precision != precision) {
+            throw new IllegalArgumentException("Only counters with the same windows and precision can be merged.");
+        }
+        Sketches otherTotals;
+        List<Map.Entry<Long, Sketches>> otherWindows = new ArrayList<>();
+        synchronized (other) {
+            otherTotals = other.totals.copy();
+            for (Map.Entry<Long, Sketches> entry : other.windows.entrySet()) {
+                otherWindows.add(Map.entry(entry.getKey(), entry.getValue().copy()));
+            }
+        }
+        synchronized (this) {
+            totals.merge(otherTotals);
+            for (Map.Entry<Long, Sketches> entry : otherWindows) {
+                windows.computeIfAbsent(entry.getKey(), start -> new Sketches(precision)).merge(entry.getValue());
+            }
+            trim();
+        }
+    }
+
+    private Sketches currentWindow() {
+        Sketches window = windows.computeIfAbsent(windowStart(clock.millis()), start -> new Sketches(precision));
+        trim();
+        return window;
+    }
+
+    private void trim() {
+        if (windows.isEmpty()) {
+            return;
+        }
+        // keep the windows within retainedWindows of the latest one
+        long oldest = windows.lastKey() - (retainedWindows - 1) * windowMillis;
+        windows.headMap(oldest, false).clear();
+    }
+
+    private long windowStart(long millis) {
+        return Math.floorDiv(millis, windowMillis) * windowMillis;
+    }
+
+    /**
+     * The three sketches of a window, or of the totals.
+     */
+    private static final class Sketches {
+        private final HyperLogLog customers;
+        private final HyperLogLog cards;
+        private final HyperLogLog configurations;
+
+        Sketches(int precision) {
+            this(new HyperLogLog(precision), new HyperLogLog(precision), new HyperLogLog(precision));
+        }
+
+        private Sketches(HyperLogLog customers, HyperLogLog cards, HyperLogLog configurations) {
+            this.customers = customers;
+            this.cards = cards;
+            this.configurations = configurations;
+        }
+
+        void merge(Sketches other) {
+            customers.merge(other.customers);
+            cards.merge(other.cards);
+            configurations.merge(other.configurations);
+        }
+
+        Sketches copy() {
+            return new Sketches(customers.copy(), cards.copy(), configurations.copy());
+        }
+
+        DistinctCounts counts() {
+            return new DistinctCounts(customers.estimate(), cards.estimate(), configurations.estimate());
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package uk.ac.newcastle.paritoshpal.analytics;
+
+import java.util.Arrays;
+
+/**
+ * A HyperLogLog sketch, estimating the number of distinct values offered
+ * to it in a fixed amount of memory.
+ *
+ * A sketch of precision {@code p} keeps {@code 2^p} one-byte registers and
+ * has a standard error of about {@code 1.04 / sqrt(2^p)}, e.g. 2 KB and 2.3%
+ * at the default precision of 11. Small cardinalities are estimated by
+ * linear counting, so they are close to exact. Sketches of the same
+ * precision can be merged, the result estimating the size of the union.
+ *
+ * This class is not thread-safe.
+ */
+public final class HyperLogLog {
+
+    /**
+     * The default precision.
+     */
+    public static final int DEFAULT_PRECISION = 11;
+
+    private static final int MIN_PRECISION = 4;
+    private static final int MAX_PRECISION = 16;
+
+    private final int precision;
+    private final byte[] registers;
+
+    /**
+     * Constructs an empty sketch with the default precision.
+     */
+    public HyperLogLog() {
+        this(DEFAULT_PRECISION);
+    }
+
+    /**
+     * Constructs an empty sketch.
+     *
+     * @param precision the number of index bits, from 4 to 16.
+     * @throws IllegalArgumentException if the precision is out of range.
+     */
+    public HyperLogLog(int precision) {
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("Precision must be between " + MIN_PRECISION
+                    + " and " + MAX_PRECISION + ".");
+        }
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    /**
+     * Offers a value to the sketch.
+     *
+     * @param value the value; cannot be null.
+     * @throws IllegalArgumentException if the value is null.
+     */
+    public void offer(String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Value cannot be null.");
+        }
+        offerHash(hash(value));
+    }
+
+    /**
+     * Offers an already hashed value to the sketch.
+     * The hash must be uniformly distributed over all 64 bits.
+     *
+     * @param hash the 64-bit hash of the value.
+     */
+    public void offerHash(long hash) {
+        int index = (int) (hash >>> (64 - precision));
+        // the guard bit caps the rank when all remaining bits are zero
+        int rank = Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1;
+        if (rank > registers[index]) {
+            registers[index] = (byte) rank;
+        }
+    }
+
+    /**
+     * Estimates the number of distinct values offered so far.
+     *
+     * @return the estimate.
+     */
+    public long estimate() {
+        int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double estimate = alpha(m) * m * m / sum;
+        if (estimate <= 2.5 * m && zeros > 0) {
+            estimate = m * Math.log((double) m / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    /**
+     * Merges another sketch into this one, so this sketch then estimates
+     * the distinct values offered to either.
+     *
+     * @param other the sketch to merge; cannot be null and must have the same precision.
+     * @return this sketch.
+     * @throws IllegalArgumentException if the sketch is null or of a different precision.
+     */
+    public HyperLogLog merge(HyperLogLog other) {
+        if (other == null || other.precision != precision) {
+            throw new IllegalArgumentException("Only sketches of the same precision can be merged.");
+        }
+        for (int i = 0; i < registers.length; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Creates an independent copy of this sketch.
+     *
+     * @return the copy.
+     */
+    public HyperLogLog copy() {
+        HyperLogLog copy = new HyperLogLog(precision);
+        System.arraycopy(registers, 0, copy.registers, 0, registers.length);
+        return copy;
+    }
+
+    /**
+     * Gets the precision of the sketch.
+     *
+     * @return the number of index bits.
+     */
+    public int getPrecision() {
+        return precision;
+    }
+
+    /**
+     * Serialises the sketch: one byte of precision followed by the registers.
+     *
+     * @return the serialised sketch.
+     */
+    public byte[] toBytes() {
+        byte[] bytes = new byte[registers.length + 1];
+        bytes[0] = (byte) precision;
+        System.arraycopy(registers, 0, bytes, 1, registers.length);
+        return bytes;
+    }
+
+    /**
+     * Restores a sketch serialised by {@link #toBytes()}.
+     *
+     * @param bytes the serialised sketch; cannot be null.
+     * @return the sketch.
+     * @throws IllegalArgumentException if the bytes are not a valid sketch.
+     */
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            throw new IllegalArgumentException("Serialised sketch cannot be empty.");
+        }
+        HyperLogLog sketch = new HyperLogLog(bytes[0]);
+        if (bytes.length != sketch.registers.length + 1) {
+            throw new IllegalArgumentException("Serialised sketch has the wrong length.");
+        }
+        for (int i = 0; i < sketch.registers.length; i++) {
+            byte register = bytes[i + 1];
+            if (register < 0 || register > 65 - sketch.precision) {
+                throw new IllegalArgumentException("Serialised sketch has an invalid register.");
+            }
+            sketch.registers[i] = register;
+        }
+        return sketch;
+    }
+
+    /**
+     * Hashes a string to 64 bits: FNV-1a over its characters, then the
+     * MurmurHash3 finaliser to spread the bits.
+     *
+     * @param value the string.
+     * @return the hash.
+     */
+    static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static double alpha(int m) {
+        return switch (m) {
+            case 16 -> 0.673;
+            case 32 -> 0.697;
+            case 64 -> 0.709;
+            default -> 0.7213 / (1 + 1.079 / m);
+        };
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof HyperLogLog other)) return false;
+        return precision == other.precision && Arrays.equals(registers, other.registers);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * precision + Arrays.hashCode(registers);
+    }
+}
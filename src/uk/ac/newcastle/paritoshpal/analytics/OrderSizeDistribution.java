@@ -0,0 +1,115 @@
+package uk.ac.newcastle.paritoshpal.analytics;
+
+import uk.ac.newcastle.paritoshpal.dto.DistributionStats;
+import uk.ac.newcastle.paritoshpal.metrics.Histogram;
+import uk.ac.newcastle.paritoshpal.metrics.HistogramSnapshot;
+import uk.ac.newcastle.paritoshpal.model.fulfillment.FulfillmentDetails;
+import uk.ac.newcastle.paritoshpal.model.pc.CustomModel;
+import uk.ac.newcastle.paritoshpal.model.pc.PCModel;
+import uk.ac.newcastle.paritoshpal.service.Order;
+import uk.ac.newcastle.paritoshpal.service.OrderListener;
+
+import java.util.Map;
+
+/**
+ * Tracks the size distributions of fulfilled orders: models per order,
+ * parts per custom model and preset units per manufacturer in an order.
+ *
+ * Each distribution is a {@link Histogram}, so memory is fixed whatever the
+ * history size, recording is lock-free, sizes below 32 are exact and larger
+ * ones are within about 3%. Snapshots of several instances can be merged to
+ * get the distribution over all of them.
+ *
+ * Register it with {@code PCShopImpl.addOrderListener}.
+ */
+public final class OrderSizeDistribution implements OrderListener {
+
+    /**
+     * Precision of the size histograms, see {@link Histogram#Histogram(int)}.
+     */
+    public static final int PRECISION_BITS = 5;
+
+    private final Histogram modelsPerOrder = new Histogram(PRECISION_BITS);
+    private final Histogram partsPerCustomModel = new Histogram(PRECISION_BITS);
+    private final Histogram unitsPerManufacturer = new Histogram(PRECISION_BITS);
+
+    /**
+     * Records the sizes of a fulfilled order.
+     */
+    @Override
+    public void orderFulfilled(Order order, FulfillmentDetails details) {
+        modelsPerOrder.record(order.getModels().size());
+        for (PCModel model : order.getModels()) {
+            if (model instanceof CustomModel customModel) {
+                partsPerCustomModel.record(customModel.getPartCount());
+            }
+        }
+        for (Map<String, Integer> models : details.getPresetOrders().values()) {
+            long units = 0;
+            for (int quantity : models.values()) {
+                units += quantity;
+            }
+            unitsPerManufacturer.record(units);
+        }
+    }
+
+    /**
+     * Gets the distribution of the number of models per fulfilled order.
+     * @return the percentiles.
+     */
+    public DistributionStats getModelsPerOrder() {
+        return toStats(modelsPerOrder.snapshot());
+    }
+
+    /**
+     * Gets the distribution of the number of parts per fulfilled custom model.
+     * @return the percentiles.
+     */
+    public DistributionStats getPartsPerCustomModel() {
+        return toStats(partsPerCustomModel.snapshot());
+    }
+
+    /**
+     * Gets the distribution of the number of preset units ordered from one
+     * manufacturer in one fulfilled order.
+     * @return the percentiles.
+     */
+    public DistributionStats getUnitsPerManufacturer() {
+        return toStats(unitsPerManufacturer.snapshot());
+    }
+
+    /**
+     * Takes a mergeable snapshot of the models-per-order distribution.
+     * @return the snapshot.
+     */
+    public HistogramSnapshot snapshotModelsPerOrder() {
+        return modelsPerOrder.snapshot();
+    }
+
+    /**
+     * Takes a mergeable snapshot of the parts-per-custom-model distribution.
+     * @return the snapshot.
+     */
+    public HistogramSnapshot snapshotPartsPerCustomModel() {
+        return partsPerCustomModel.snapshot();
+    }
+
+    /**
+     * Takes a mergeable snapshot of the units-per-manufacturer distribution.
+     * @return the snapshot.
+     */
+    public HistogramSnapshot snapshotUnitsPerManufacturer() {
+        return unitsPerManufacturer.snapshot();
+    }
+
+    /**
+     * Converts a size histogram into its main percentiles.
+     *
+     * @param snapshot the histogram snapshot, e.g. several merged ones; cannot be null.
+     * @return the percentiles.
+     */
+    public static DistributionStats toStats(HistogramSnapshot snapshot) {
+        return new DistributionStats(snapshot.getCount(), snapshot.getValueAtPercentile(50),
+                snapshot.getValueAtPercentile(90), snapshot.getValueAtPercentile(99), snapshot.getMax());
+    }
+}
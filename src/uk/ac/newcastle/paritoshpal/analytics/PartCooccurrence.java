@@ -0,0 +1,252 @@
+package uk.ac.newcastle.paritoshpal.analytics;
+
+import uk.ac.newcastle.paritoshpal.dto.PartSetStats;
+import uk.ac.newcastle.paritoshpal.model.fulfillment.FulfillmentDetails;
+import uk.ac.newcastle.paritoshpal.model.pc.CustomModel;
+import uk.ac.newcastle.paritoshpal.model.pc.PCModel;
+import uk.ac.newcastle.paritoshpal.service.Order;
+import uk.ac.newcastle.paritoshpal.service.OrderListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * "Frequently bought together" analytics over the parts of fulfilled
+ * custom models: the most common part pairs, part triples and complete
+ * configurations.
+ *
+ * Part names are interned to dense ids, and every distinct configuration
+ * (the set of distinct parts of a custom model, ignoring quantities) is
+ * stored once as a {@link BitSet} over part ids with a count of how often
+ * it was fulfilled. For each part the ids of the configurations containing
+ * it are kept as another bitset, so the support of a part set is the
+ * weighted cardinality of the AND of its parts' bitsets. Triples are mined
+ * by extending the strongest pairs first and pruning any pair that cannot
+ * beat the current top results.
+ *
+ * Register it with {@code PCShopImpl.addOrderListener}.
+ */
+public final class PartCooccurrence implements OrderListener {
+
+    private static final Comparator<PartSetStats> MOST_FREQUENT = Comparator
+            .comparingInt(PartSetStats::count).reversed()
+            .thenComparing(PartSetStats::parts, PartCooccurrence::compareParts);
+
+    private final Map<String, Integer> partIds = new HashMap<>();
+    private final List<String> partNames = new ArrayList<>();
+    // for every part, the ids of the configurations containing it
+    private final List<BitSet> partConfigurations = new ArrayList<>();
+
+    private final Map<BitSet, Integer> configurationIds = new HashMap<>();
+    private final List<BitSet> configurations = new ArrayList<>();
+    private int[] configurationCounts = new int[64];
+
+    /**
+     * Records the configurations of the custom models in a fulfilled order.
+     */
+    @Override
+    public synchronized void orderFulfilled(Order order, FulfillmentDetails details) {
+        for (PCModel model : order.getModels()) {
+            if (model instanceof CustomModel customModel) {
+                add(customModel.partCounts().keySet());
+            }
+        }
+    }
+
+    private void add(Collection<String> parts) {
+        if (parts.isEmpty()) {
+            return;
+        }
+        BitSet configuration = new BitSet();
+        for (String part : parts) {
+            configuration.set(intern(part));
+        }
+        Integer id = configurationIds.get(configuration);
+        if (id == null) {
+            id = configurations.size();
+            configurationIds.put(configuration, id);
+            configurations.add(configuration);
+            if (id == configurationCounts.length) {
+                configurationCounts = Arrays.copyOf(configurationCounts, id * 2);
+            }
+            for (int p = configuration.nextSetBit(0); p >= 0; p = configuration.nextSetBit(p + 1)) {
+                partConfigurations.get(p).set(id);
+            }
+        }
+        configurationCounts[id]++;
+    }
+
+    private int intern(String part) {
+        Integer id = partIds.get(part);
+        if (id != null) {
+            return id;
+        }
+        int newId = partNames.size();
+        partIds.put(part, newId);
+        partNames.add(part);
+        partConfigurations.add(new BitSet());
+        return newId;
+    }
+
+    private int support(BitSet configurationIds) {
+        int support = 0;
+        for (int c = configurationIds.nextSetBit(0); c >= 0; c = configurationIds.nextSetBit(c + 1)) {
+            support += configurationCounts[c];
+        }
+        return support;
+    }
+
+    /**
+     * Gets the part pairs most often found together in a custom model.
+     * Ties are broken alphabetically on the parts.
+     *
+     * @param limit the maximum number of pairs to return; must be positive.
+     * @return the pairs, most frequent first.
+     * @throws IllegalArgumentException if {@code limit} is not positive.
+     */
+    public synchronized List<PartSetStats> getTopPairs(int limit) {
+        checkLimit(limit);
+        TopK top = new TopK(limit);
+        for (Pair pair : pairs()) {
+            top.offer(stats(pair.support, pair.a, pair.b));
+        }
+        return top.sorted();
+    }
+
+    /**
+     * Gets the part triples most often found together in a custom model.
+     * Ties are broken alphabetically on the parts.
+     *
+     * @param limit the maximum number of triples to return; must be positive.
+     * @return the triples, most frequent first.
+     * @throws IllegalArgumentException if {@code limit} is not positive.
+     */
+    public synchronized List<PartSetStats> getTopTriples(int limit) {
+        checkLimit(limit);
+        List<Pair> pairs = pairs();
+        pairs.sort(Comparator.comparingInt((Pair pair) -> pair.support).reversed());
+        TopK top = new TopK(limit);
+        for (Pair pair : pairs) {
+            // a triple is never more frequent than any of its pairs
+            if (top.isFull() && pair.support < top.weakest().count()) {
+                break;
+            }
+            for (int c = pair.b + 1; c < partNames.size(); c++) {
+                BitSet common = (BitSet) pair.configurations.clone();
+                common.and(partConfigurations.get(c));
+                if (!common.isEmpty()) {
+                    top.offer(stats(support(common), pair.a, pair.b, c));
+                }
+            }
+        }
+        return top.sorted();
+    }
+
+    /**
+     * Gets the most common complete configurations, i.e. sets of distinct
+     * parts making up a custom model.
+     * Ties are broken alphabetically on the parts.
+     *
+     * @param limit the maximum number of configurations to return; must be positive.
+     * @return the configurations, most frequent first.
+     * @throws IllegalArgumentException if {@code limit} is not positive.
+     */
+    public synchronized List<PartSetStats> getTopConfigurations(int limit) {
+        checkLimit(limit);
+        TopK top = new TopK(limit);
+        for (int id = 0; id < configurations.size(); id++) {
+            top.offer(stats(configurationCounts[id], configurations.get(id).stream().toArray()));
+        }
+        return top.sorted();
+    }
+
+    private record Pair(int a, int b, BitSet configurations, int support) {
+    }
+
+    /**
+     * Lists every pair of parts that occur together at least once, with a < b.
+     */
+    private List<Pair> pairs() {
+        List<Pair> pairs = new ArrayList<>();
+        int parts = partNames.size();
+        for (int a = 0; a < parts; a++) {
+            BitSet withA = partConfigurations.get(a);
+            for (int b = a + 1; b < parts; b++) {
+                if (withA.intersects(partConfigurations.get(b))) {
+                    BitSet common = (BitSet) withA.clone();
+                    common.and(partConfigurations.get(b));
+                    pairs.add(new Pair(a, b, common, support(common)));
+                }
+            }
+        }
+        return pairs;
+    }
+
+    private PartSetStats stats(int count, int... partIds) {
+        List<String> parts = new ArrayList<>(partIds.length);
+        for (int id : partIds) {
+            parts.add(partNames.get(id));
+        }
+        parts.sort(Comparator.naturalOrder());
+        return new PartSetStats(List.copyOf(parts), count);
+    }
+
+    private static int compareParts(List<String> a, List<String> b) {
+        for (int i = 0; i < Math.min(a.size(), b.size()); i++) {
+            int cmp = a.get(i).compareTo(b.get(i));
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return Integer.compare(a.size(), b.size());
+    }
+
+    private static void checkLimit(int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive.");
+        }
+    }
+
+    /**
+     * Keeps the {@code k} most frequent results seen so far.
+     */
+    private static final class TopK {
+        private final int k;
+        // weakest result at the head
+        private final PriorityQueue<PartSetStats> heap = new PriorityQueue<>(MOST_FREQUENT.reversed());
+
+        TopK(int k) {
+            this.k = k;
+        }
+
+        void offer(PartSetStats stats) {
+            if (heap.size() < k) {
+                heap.add(stats);
+            } else if (MOST_FREQUENT.compare(stats, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(stats);
+            }
+        }
+
+        boolean isFull() {
+            return heap.size() == k;
+        }
+
+        PartSetStats weakest() {
+            return heap.peek();
+        }
+
+        List<PartSetStats> sorted() {
+            List<PartSetStats> result = new ArrayList<>(heap);
+            result.sort(MOST_FREQUENT);
+            return result;
+        }
+    }
+}
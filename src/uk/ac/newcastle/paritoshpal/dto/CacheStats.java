@@ -0,0 +1,18 @@
+package uk.ac.newcastle.paritoshpal.dto;
+
+/**
+ * A data transfer object to hold hit and miss counts of a cache.
+ * @param hits
+ * @param misses
+ */
+public record CacheStats(long hits, long misses) {
+
+    /**
+     * Returns the share of lookups that were served from the cache.
+     * @return the hit ratio, or {@code 0} if there were no lookups.
+     */
+    public double hitRatio() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+}
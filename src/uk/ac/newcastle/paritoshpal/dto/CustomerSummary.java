@@ -0,0 +1,21 @@
+package uk.ac.newcastle.paritoshpal.dto;
+
+import uk.ac.newcastle.paritoshpal.model.customer.Customer;
+
+import java.util.Date;
+
+/**
+ * A data transfer object to hold a summary of a customer's order activity.
+ * Unit and part totals cover every order that has not been cancelled.
+ * @param customer
+ * @param ordersPlaced total number of orders the customer has ever placed.
+ * @param ordersFulfilled number of those orders that have been fulfilled.
+ * @param ordersCancelled number of those orders that have been cancelled.
+ * @param presetUnits number of preset models in the non-cancelled orders.
+ * @param customParts number of parts in custom models of the non-cancelled orders.
+ * @param firstOrderDate date of the customer's first order.
+ * @param lastOrderDate date of the customer's most recent order.
+ */
+public record CustomerSummary(Customer customer, int ordersPlaced, int ordersFulfilled, int ordersCancelled,
+                              long presetUnits, long customParts, Date firstOrderDate, Date lastOrderDate) {
+}
@@ -0,0 +1,11 @@
+package uk.ac.newcastle.paritoshpal.dto;
+
+/**
+ * A data transfer object to hold the demand forecast of a part or preset model.
+ * @param item the part name or preset model description.
+ * @param level the smoothed demand per period over the completed periods.
+ * @param nextPeriod the expected demand of the current, not yet completed, period,
+ *                   adjusted for seasonality.
+ */
+public record DemandForecast(String item, double level, double nextPeriod) {
+}
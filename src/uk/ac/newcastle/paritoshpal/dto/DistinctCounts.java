@@ -0,0 +1,10 @@
+package uk.ac.newcastle.paritoshpal.dto;
+
+/**
+ * A data transfer object to hold approximate distinct counts.
+ * @param customers the number of distinct customers who placed orders.
+ * @param cards the number of distinct credit cards used to place orders.
+ * @param configurations the number of distinct custom model configurations fulfilled.
+ */
+public record DistinctCounts(long customers, long cards, long configurations) {
+}
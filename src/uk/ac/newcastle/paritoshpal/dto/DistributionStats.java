@@ -0,0 +1,12 @@
+package uk.ac.newcastle.paritoshpal.dto;
+
+/**
+ * A data transfer object to hold the percentiles of a size distribution.
+ * @param count the number of recorded values.
+ * @param p50
+ * @param p90
+ * @param p99
+ * @param max
+ */
+public record DistributionStats(long count, long p50, long p90, long p99, long max) {
+}
@@ -0,0 +1,9 @@
+package uk.ac.newcastle.paritoshpal.dto;
+
+/**
+ * A data transfer object to hold why one line of an import was rejected.
+ * @param line the line number, starting at 1.
+ * @param message the reason the line was rejected.
+ */
+public record ImportError(long line, String message) {
+}
@@ -0,0 +1,14 @@
+package uk.ac.newcastle.paritoshpal.dto;
+
+import java.util.List;
+
+/**
+ * A data transfer object to hold the outcome of a bulk import.
+ * @param linesRead the number of lines read, including skipped ones.
+ * @param ordersPlaced the number of orders placed.
+ * @param errorCount the number of rejected lines.
+ * @param errors the first rejected lines, in line order; at most
+ *               {@code OrderImporter.MAX_REPORTED_ERRORS} of them.
+ */
+public record ImportResult(long linesRead, long ordersPlaced, long errorCount, List<ImportError> errors) {
+}
@@ -0,0 +1,11 @@
+package uk.ac.newcastle.paritoshpal.dto;
+
+import java.util.List;
+
+/**
+ * A data transfer object to hold how often a set of parts was ordered together.
+ * @param parts the parts of the set, in alphabetical order.
+ * @param count the number of fulfilled custom models containing all of them.
+ */
+public record PartSetStats(List<String> parts, int count) {
+}
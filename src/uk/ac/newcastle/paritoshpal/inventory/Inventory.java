@@ -0,0 +1,147 @@
+package uk.ac.newcastle.paritoshpal.inventory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tracks the warehouse stock of the parts used in custom models.
+ *
+ * Parts are reserved when an order is placed, then either committed (the
+ * parts leave the warehouse) when it is fulfilled or released back into
+ * stock when it is cancelled. Stock levels are kept in striped atomic
+ * counters, so reservations never block and many threads can reserve the
+ * same popular part with little contention.
+ */
+public final class Inventory {
+
+    private static final class PartStock {
+        final StripedStock available;
+        final LongAdder reserved = new LongAdder();
+
+        PartStock(int stripes) {
+            available = new StripedStock(stripes);
+        }
+    }
+
+    private final Map<String, PartStock> stock = new ConcurrentHashMap<>();
+    private final int stripes;
+
+    /**
+     * Constructs an empty inventory with one stripe per available processor.
+     */
+    public Inventory() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructs an empty inventory.
+     *
+     * @param stripes the number of stripes per part; more stripes lower contention.
+     * @throws IllegalArgumentException if {@code stripes} is not positive.
+     */
+    public Inventory(int stripes) {
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("Number of stripes must be positive.");
+        }
+        this.stripes = stripes;
+    }
+
+    /**
+     * Adds units of a part to the stock.
+     *
+     * @param part the part name; cannot be null or empty.
+     * @param quantity the number of units to add; must be positive.
+     * @throws IllegalArgumentException if the part is null or empty or the quantity is not positive.
+     */
+    public void addStock(String part, long quantity) {
+        if (part == null || part.trim().isEmpty() || quantity <= 0) {
+            throw new IllegalArgumentException("A part and a positive quantity are required.");
+        }
+        stock.computeIfAbsent(part, p -> new PartStock(stripes)).available.add(quantity);
+    }
+
+    /**
+     * Gets the number of units of a part that can still be reserved.
+     *
+     * @param part the part name.
+     * @return the available quantity, {@code 0} for unknown parts.
+     */
+    public long getAvailable(String part) {
+        PartStock partStock = stock.get(part);
+        return partStock == null ? 0 : partStock.available.available();
+    }
+
+    /**
+     * Gets the number of units of a part reserved by orders that are not yet
+     * fulfilled or cancelled.
+     *
+     * @param part the part name.
+     * @return the reserved quantity, {@code 0} for unknown parts.
+     */
+    public long getReserved(String part) {
+        PartStock partStock = stock.get(part);
+        return partStock == null ? 0 : partStock.reserved.sum();
+    }
+
+    /**
+     * Reserves all the given parts, or none of them.
+     *
+     * @param parts a map of part names to the quantities needed; cannot be null.
+     * @return the reservation, to be committed or released later.
+     * @throws IllegalArgumentException if {@code parts} is null.
+     * @throws IllegalStateException if any part is not in stock in the required quantity.
+     */
+    public Reservation reserve(Map<String, Integer> parts) {
+        if (parts == null) {
+            throw new IllegalArgumentException("Parts to reserve cannot be null.");
+        }
+        Map<String, Integer> taken = new LinkedHashMap<>();
+        for (Map.Entry<String, Integer> entry : parts.entrySet()) {
+            PartStock partStock = stock.get(entry.getKey());
+            if (partStock == null || !partStock.available.tryTake(entry.getValue())) {
+                // roll back the parts taken so far
+                taken.forEach((part, quantity) -> stock.get(part).available.add(quantity));
+                throw new IllegalStateException("Insufficient stock for part: " + entry.getKey());
+            }
+            taken.put(entry.getKey(), entry.getValue());
+        }
+        taken.forEach((part, quantity) -> stock.get(part).reserved.add(quantity));
+        return new Reservation(taken);
+    }
+
+    /**
+     * Commits a reservation: the reserved parts have left the warehouse.
+     *
+     * @param reservation the reservation to commit; cannot be null.
+     * @throws IllegalArgumentException if {@code reservation} is null.
+     * @throws IllegalStateException if it was already committed or released.
+     */
+    public void commit(Reservation reservation) {
+        if (reservation == null) {
+            throw new IllegalArgumentException("Reservation cannot be null.");
+        }
+        reservation.settle();
+        reservation.getParts().forEach((part, quantity) -> stock.get(part).reserved.add(-quantity));
+    }
+
+    /**
+     * Releases a reservation: the reserved parts go back into stock.
+     *
+     * @param reservation the reservation to release; cannot be null.
+     * @throws IllegalArgumentException if {@code reservation} is null.
+     * @throws IllegalStateException if it was already committed or released.
+     */
+    public void release(Reservation reservation) {
+        if (reservation == null) {
+            throw new IllegalArgumentException("Reservation cannot be null.");
+        }
+        reservation.settle();
+        reservation.getParts().forEach((part, quantity) -> {
+            PartStock partStock = stock.get(part);
+            partStock.reserved.add(-quantity);
+            partStock.available.add(quantity);
+        });
+    }
+}
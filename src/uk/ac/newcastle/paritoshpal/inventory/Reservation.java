@@ -0,0 +1,54 @@
+package uk.ac.newcastle.paritoshpal.inventory;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Parts held back in an {@link Inventory} for one order.
+ * A reservation is settled exactly once, either by committing it when the
+ * order is fulfilled or by releasing it when the order is cancelled.
+ */
+public final class Reservation {
+
+    private final Map<String, Integer> parts;
+    private final AtomicBoolean settled = new AtomicBoolean();
+
+    Reservation(Map<String, Integer> parts) {
+        this.parts = Map.copyOf(parts);
+    }
+
+    /**
+     * Gets the reserved parts.
+     * @return an unmodifiable map of part names to reserved quantities.
+     */
+    public Map<String, Integer> getParts() {
+        return parts;
+    }
+
+    /**
+     * Returns whether this reservation has been committed or released.
+     * @return {@code true} once settled.
+     */
+    public boolean isSettled() {
+        return settled.get();
+    }
+
+    /**
+     * Marks the reservation as settled.
+     * @throws IllegalStateException if it was already settled.
+     */
+    void settle() {
+        if (!settled.compareAndSet(false, true)) {
+            throw new IllegalStateException("Reservation has already been committed or released.");
+        }
+    }
+
+    /**
+     * Returns a string representation of the reservation.
+     * @return a string in the format "Reservation{parts}".
+     */
+    @Override
+    public String toString() {
+        return "Reservation" + parts;
+    }
+}
@@ -0,0 +1,93 @@
+package uk.ac.newcastle.paritoshpal.inventory;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A stock level split over several independently updated stripes.
+ *
+ * Each thread starts taking units from its own stripe and only moves on to
+ * the others when that one runs dry, so threads reserving the same popular
+ * part mostly compare-and-set different cache lines. Updates never take a
+ * lock, and the total never drops below zero.
+ */
+final class StripedStock {
+
+    // one stripe per 64-byte cache line to avoid false sharing
+    private static final int PADDING = 8;
+
+    private final int mask;
+    private final AtomicLongArray stripes;
+
+    StripedStock(int stripeCount) {
+        int size = stripeCount <= 1 ? 1 : Integer.highestOneBit(stripeCount - 1) << 1;
+        this.mask = size - 1;
+        this.stripes = new AtomicLongArray(size * PADDING);
+    }
+
+    private int homeStripe() {
+        long id = Thread.currentThread().getId();
+        return (int) (id ^ (id >>> 16)) & mask;
+    }
+
+    /**
+     * Adds units, spread evenly over the stripes.
+     */
+    void add(long quantity) {
+        int count = mask + 1;
+        long share = quantity / count;
+        long rest = quantity % count;
+        int home = homeStripe();
+        for (int i = 0; i < count; i++) {
+            long amount = share + (i == 0 ? rest : 0);
+            if (amount != 0) {
+                stripes.getAndAdd(((home + i) & mask) * PADDING, amount);
+            }
+        }
+    }
+
+    /**
+     * Takes the given number of units if that many are available.
+     * A concurrent taker may briefly hold units it later gives back, so under
+     * contention a request can fail although the total would have sufficed;
+     * it never succeeds when the stock is short.
+     *
+     * @return {@code true} if all units were taken, {@code false} if none were.
+     */
+    boolean tryTake(long quantity) {
+        long remaining = quantity;
+        int home = homeStripe();
+        for (int i = 0; i <= mask && remaining > 0; i++) {
+            int index = ((home + i) & mask) * PADDING;
+            long current = stripes.get(index);
+            while (current > 0) {
+                long take = Math.min(current, remaining);
+                long witness = stripes.compareAndExchange(index, current, current - take);
+                if (witness == current) {
+                    remaining -= take;
+                    break;
+                }
+                current = witness;
+            }
+        }
+        if (remaining > 0) {
+            // not enough stock: give back what was taken
+            long taken = quantity - remaining;
+            if (taken > 0) {
+                stripes.getAndAdd(home * PADDING, taken);
+            }
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the total units across all stripes; not an atomic snapshot.
+     */
+    long available() {
+        long total = 0;
+        for (int i = 0; i <= mask; i++) {
+            total += stripes.get(i * PADDING);
+        }
+        return total;
+    }
+}
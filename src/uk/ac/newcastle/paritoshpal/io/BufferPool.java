@@ -0,0 +1,72 @@
+package uk.ac.newcastle.paritoshpal.io;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A thread-safe pool of direct {@link ByteBuffer}s of one size.
+ *
+ * Direct buffers are costly to allocate and are only freed by the garbage
+ * collector, so exports borrow them from the pool and return them when
+ * done. At most {@code maxPooled} idle buffers are kept; more can be
+ * borrowed at once, the extra ones simply being dropped on return.
+ */
+public final class BufferPool {
+
+    private final int bufferSize;
+    private final int maxPooled;
+    private final ConcurrentLinkedQueue<ByteBuffer> idle = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+
+    /**
+     * Constructs a pool.
+     *
+     * @param bufferSize the capacity of each buffer in bytes; must be at least 64.
+     * @param maxPooled the maximum number of idle buffers kept; cannot be negative.
+     * @throws IllegalArgumentException if an argument is out of range.
+     */
+    public BufferPool(int bufferSize, int maxPooled) {
+        if (bufferSize < 64 || maxPooled < 0) {
+            throw new IllegalArgumentException("Invalid buffer pool configuration.");
+        }
+        this.bufferSize = bufferSize;
+        this.maxPooled = maxPooled;
+    }
+
+    /**
+     * Borrows a cleared buffer, allocating one if none is idle.
+     *
+     * @return the buffer.
+     */
+    public ByteBuffer acquire() {
+        ByteBuffer buffer = idle.poll();
+        if (buffer == null) {
+            return ByteBuffer.allocateDirect(bufferSize);
+        }
+        idleCount.decrementAndGet();
+        return buffer.clear();
+    }
+
+    /**
+     * Returns a borrowed buffer to the pool.
+     *
+     * @param buffer the buffer; must have been acquired from this pool.
+     */
+    public void release(ByteBuffer buffer) {
+        if (idleCount.incrementAndGet() <= maxPooled) {
+            idle.offer(buffer);
+        } else {
+            idleCount.decrementAndGet();
+        }
+    }
+
+    /**
+     * Gets the number of idle buffers in the pool.
+     *
+     * @return the number of buffers.
+     */
+    public int getIdleCount() {
+        return idleCount.get();
+    }
+}
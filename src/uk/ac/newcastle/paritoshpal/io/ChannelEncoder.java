@@ -0,0 +1,225 @@
+package uk.ac.newcastle.paritoshpal.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Encodes text and numbers straight into a {@link ByteBuffer}, writing it
+ * to a channel whenever it fills up, so that no intermediate strings or
+ * byte arrays are created. Text is encoded as UTF-8.
+ */
+final class ChannelEncoder {
+
+    private final ByteBuffer buffer;
+    private final WritableByteChannel channel;
+    private long bytesWritten;
+
+    ChannelEncoder(ByteBuffer buffer, WritableByteChannel channel) {
+        this.buffer = buffer;
+        this.channel = channel;
+    }
+
+    void putByte(int b) throws IOException {
+        ensure(1);
+        buffer.put((byte) b);
+    }
+
+    void putInt(int value) throws IOException {
+        ensure(Integer.BYTES);
+        buffer.putInt(value);
+    }
+
+    void putLong(long value) throws IOException {
+        ensure(Long.BYTES);
+        buffer.putLong(value);
+    }
+
+    /**
+     * Writes ASCII text, e.g. punctuation or field names.
+     */
+    void putAscii(String text) throws IOException {
+        for (int i = 0; i < text.length(); i++) {
+            putByte(text.charAt(i));
+        }
+    }
+
+    /**
+     * Writes a number in decimal.
+     */
+    void putDecimal(long value) throws IOException {
+        if (value < 0) {
+            putByte('-');
+            if (value == Long.MIN_VALUE) {
+                putAscii("9223372036854775808");
+                return;
+            }
+            value = -value;
+        }
+        long divisor = 1;
+        while (divisor <= value / 10) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            putByte('0' + (int) (value / divisor % 10));
+        }
+    }
+
+    /**
+     * Writes a number in decimal, left-padded with zeros to the given width.
+     */
+    void putDecimal(long value, int width) throws IOException {
+        long limit = 10;
+        for (int digits = 1; digits < width; digits++, limit *= 10) {
+            if (value < limit) {
+                putByte('0');
+            }
+        }
+        putDecimal(value);
+    }
+
+    /**
+     * Writes text as UTF-8.
+     */
+    void putText(CharSequence text) throws IOException {
+        for (int i = 0; i < text.length(); i++) {
+            i = putChar(text, i);
+        }
+    }
+
+    /**
+     * Writes text as the contents of a JSON string, escaping as needed.
+     */
+    void putJsonText(CharSequence text) throws IOException {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"' -> putAscii("\\\"");
+                case '\\' -> putAscii("\\\\");
+                case '\n' -> putAscii("\\n");
+                case '\r' -> putAscii("\\r");
+                case '\t' -> putAscii("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        putAscii("\\u00");
+                        putByte(Character.forDigit(c >> 4, 16));
+                        putByte(Character.forDigit(c & 0xf, 16));
+                    } else {
+                        i = putChar(text, i);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes text as a CSV field, quoting it if it contains a comma, quote or line break.
+     */
+    void putCsvText(CharSequence text) throws IOException {
+        if (!needsCsvQuotes(text)) {
+            putText(text);
+            return;
+        }
+        putByte('"');
+        putCsvEscaped(text);
+        putByte('"');
+    }
+
+    /**
+     * Writes text for the inside of a quoted CSV field, doubling its quotes.
+     */
+    void putCsvEscaped(CharSequence text) throws IOException {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '"') {
+                putByte('"');
+            }
+            i = putChar(text, i);
+        }
+    }
+
+    /**
+     * Tells whether text must be quoted in a CSV field.
+     */
+    static boolean needsCsvQuotes(CharSequence text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Writes text as its UTF-8 length followed by its UTF-8 bytes.
+     */
+    void putLengthPrefixedText(CharSequence text) throws IOException {
+        int length = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                length += 1;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < text.length()
+                    && Character.isLowSurrogate(text.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        putInt(length);
+        putText(text);
+    }
+
+    /**
+     * Writes any buffered bytes to the channel.
+     */
+    void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            bytesWritten += channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    long getBytesWritten() {
+        return bytesWritten + buffer.position();
+    }
+
+    /**
+     * Writes the character at {@code i} as UTF-8, and returns the index of
+     * the last character consumed, which is {@code i + 1} for a surrogate pair.
+     */
+    private int putChar(CharSequence text, int i) throws IOException {
+        char c = text.charAt(i);
+        ensure(4);
+        if (c < 0x80) {
+            buffer.put((byte) c);
+        } else if (c < 0x800) {
+            buffer.put((byte) (0xc0 | c >> 6));
+            buffer.put((byte) (0x80 | c & 0x3f));
+        } else if (Character.isHighSurrogate(c) && i + 1 < text.length()
+                && Character.isLowSurrogate(text.charAt(i + 1))) {
+            int cp = Character.toCodePoint(c, text.charAt(i + 1));
+            buffer.put((byte) (0xf0 | cp >> 18));
+            buffer.put((byte) (0x80 | cp >> 12 & 0x3f));
+            buffer.put((byte) (0x80 | cp >> 6 & 0x3f));
+            buffer.put((byte) (0x80 | cp & 0x3f));
+            return i + 1;
+        } else {
+            // lone surrogates are encoded as is, like a 3-byte character
+            buffer.put((byte) (0xe0 | c >> 12));
+            buffer.put((byte) (0x80 | c >> 6 & 0x3f));
+            buffer.put((byte) (0x80 | c & 0x3f));
+        }
+        return i;
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+}
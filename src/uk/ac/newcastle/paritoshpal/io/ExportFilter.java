@@ -0,0 +1,98 @@
+package uk.ac.newcastle.paritoshpal.io;
+
+import uk.ac.newcastle.paritoshpal.service.Order;
+import uk.ac.newcastle.paritoshpal.service.OrderState;
+import uk.ac.newcastle.paritoshpal.service.OrderStatus;
+
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Selects the orders written by an {@link OrderExporter}.
+ *
+ * @param statuses the statuses to export.
+ * @param from the earliest order date, inclusive, or null for no lower bound.
+ * @param to the latest order date, exclusive, or null for no upper bound.
+ */
+public record ExportFilter(Set<OrderStatus> statuses, Date from, Date to) {
+
+    /**
+     * Validates and copies the filter.
+     *
+     * @throws IllegalArgumentException if {@code statuses} is null or empty.
+     */
+    public ExportFilter {
+        if (statuses == null || statuses.isEmpty()) {
+            throw new IllegalArgumentException("At least one status is required.");
+        }
+        statuses = Set.copyOf(statuses);
+        from = from == null ? null : new Date(from.getTime());
+        to = to == null ? null : new Date(to.getTime());
+    }
+
+    /**
+     * A filter accepting every order.
+     *
+     * @return the filter.
+     */
+    public static ExportFilter all() {
+        return new ExportFilter(EnumSet.allOf(OrderStatus.class), null, null);
+    }
+
+    /**
+     * Returns a copy of this filter accepting only the given statuses.
+     *
+     * @param first a status to export.
+     * @param rest more statuses to export.
+     * @return the new filter.
+     */
+    public ExportFilter withStatuses(OrderStatus first, OrderStatus... rest) {
+        return new ExportFilter(EnumSet.of(first, rest), from, to);
+    }
+
+    /**
+     * Returns a copy of this filter accepting only orders placed in a date range.
+     *
+     * @param from the earliest order date, inclusive, or null for no lower bound.
+     * @param to the latest order date, exclusive, or null for no upper bound.
+     * @return the new filter.
+     */
+    public ExportFilter placedBetween(Date from, Date to) {
+        return new ExportFilter(statuses, from, to);
+    }
+
+    /**
+     * Tells whether an order is to be exported.
+     *
+     * @param order the order.
+     * @return {@code true} if the order passes the filter.
+     */
+    public boolean test(Order order) {
+        return test(order, order.getState());
+    }
+
+    /**
+     * Tells whether an order is to be exported, given the state read for it.
+     */
+    boolean test(Order order, OrderState state) {
+        if (!statuses.contains(state.status())) {
+            return false;
+        }
+        if (from == null && to == null) {
+            return true;
+        }
+        long date = order.getOrderDate().getTime();
+        return (from == null || date >= from.getTime()) && (to == null || date < to.getTime());
+    }
+
+    @Override
+    public Date from() {
+        return from == null ? null : new Date(from.getTime());
+    }
+
+    @Override
+    public Date to() {
+        return to == null ? null : new Date(to.getTime());
+    }
+}
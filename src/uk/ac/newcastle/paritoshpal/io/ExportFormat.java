@@ -0,0 +1,223 @@
+package uk.ac.newcastle.paritoshpal.io;
+
+import uk.ac.newcastle.paritoshpal.model.payment.CreditCard;
+import uk.ac.newcastle.paritoshpal.model.pc.CustomModel;
+import uk.ac.newcastle.paritoshpal.model.pc.PCModel;
+import uk.ac.newcastle.paritoshpal.model.pc.PresetModel;
+import uk.ac.newcastle.paritoshpal.service.Order;
+import uk.ac.newcastle.paritoshpal.service.OrderState;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * The formats written by {@link OrderExporter}. Order dates are written as
+ * epoch milliseconds, and card expiry dates as ISO dates in text formats.
+ *
+ * <p>{@link #CSV}: a header line, then
+ * {@code orderDate,status,version,customer,cardNumber,cardExpiry,cardHolder,model[,model...]}
+ * with models as in {@link ImportFormat#CSV}.
+ *
+ * <p>{@link #JSON_LINES}: one object per line with the fields of
+ * {@link ImportFormat#JSON_LINES} plus {@code date}, {@code status} and {@code version}.
+ *
+ * <p>{@link #BINARY}: the magic number {@code 0x5043534F} ("PCSO") and a
+ * format version byte, then per order: date (long), status ordinal (byte),
+ * version (long), customer first and last name, card number, card expiry
+ * (long), card holder, the number of models (int), and per model a type byte
+ * (0 preset, 1 custom), its name, for a preset its manufacturer, and its
+ * parts as a count (int) and texts. Texts are an int UTF-8 length followed
+ * by the UTF-8 bytes; numbers are big-endian.
+ */
+public enum ExportFormat {
+
+    /**
+     * Comma-separated values.
+     */
+    CSV {
+        @Override
+        void writeHeader(ChannelEncoder out) throws IOException {
+            out.putAscii("orderDate,status,version,customer,cardNumber,cardExpiry,cardHolder,models\n");
+        }
+
+        @Override
+        void write(Order order, OrderState state, ChannelEncoder out) throws IOException {
+            CreditCard card = order.getCreditCard();
+            out.putDecimal(order.getOrderDate().getTime());
+            out.putByte(',');
+            out.putAscii(state.status().name());
+            out.putByte(',');
+            out.putDecimal(state.version());
+            out.putByte(',');
+            // names are letters only, so never need quoting
+            out.putText(order.getCustomer().getFirstName());
+            out.putAscii(" - ");
+            out.putText(order.getCustomer().getLastName());
+            out.putByte(',');
+            out.putCsvText(card.getNumber());
+            out.putByte(',');
+            putIsoDate(card, out);
+            out.putByte(',');
+            out.putCsvText(card.getHolder());
+            for (PCModel model : order.getModels()) {
+                out.putByte(',');
+                // the model field is quoted as a whole if any part needs it
+                boolean quote = needsQuotes(model);
+                if (quote) {
+                    out.putByte('"');
+                }
+                if (model instanceof PresetModel preset) {
+                    out.putAscii("preset:");
+                    putCsvModelText(preset.getManufacturer(), quote, out);
+                    out.putByte(':');
+                    putCsvModelText(preset.getName(), quote, out);
+                    out.putByte(':');
+                } else {
+                    out.putAscii("custom:");
+                }
+                List<String> parts = model.getParts();
+                for (int i = 0; i < parts.size(); i++) {
+                    if (i > 0) {
+                        out.putByte(';');
+                    }
+                    putCsvModelText(parts.get(i), quote, out);
+                }
+                if (quote) {
+                    out.putByte('"');
+                }
+            }
+            out.putByte('\n');
+        }
+    },
+
+    /**
+     * One JSON object per line.
+     */
+    JSON_LINES {
+        @Override
+        void write(Order order, OrderState state, ChannelEncoder out) throws IOException {
+            CreditCard card = order.getCreditCard();
+            out.putAscii("{\"date\":");
+            out.putDecimal(order.getOrderDate().getTime());
+            out.putAscii(",\"status\":\"");
+            out.putAscii(state.status().name());
+            out.putAscii("\",\"version\":");
+            out.putDecimal(state.version());
+            out.putAscii(",\"customer\":\"");
+            out.putJsonText(order.getCustomer().getFirstName());
+            out.putAscii(" - ");
+            out.putJsonText(order.getCustomer().getLastName());
+            out.putAscii("\",\"card\":{\"number\":\"");
+            out.putJsonText(card.getNumber());
+            out.putAscii("\",\"expiry\":\"");
+            putIsoDate(card, out);
+            out.putAscii("\",\"holder\":\"");
+            out.putJsonText(card.getHolder());
+            out.putAscii("\"},\"models\":[");
+            List<PCModel> models = order.getModels();
+            for (int m = 0; m < models.size(); m++) {
+                PCModel model = models.get(m);
+                if (m > 0) {
+                    out.putByte(',');
+                }
+                if (model instanceof PresetModel preset) {
+                    out.putAscii("{\"type\":\"preset\",\"manufacturer\":\"");
+                    out.putJsonText(preset.getManufacturer());
+                    out.putAscii("\",\"name\":\"");
+                } else {
+                    out.putAscii("{\"type\":\"custom\",\"name\":\"");
+                }
+                out.putJsonText(model.getName());
+                out.putAscii("\",\"parts\":[");
+                List<String> parts = model.getParts();
+                for (int i = 0; i < parts.size(); i++) {
+                    out.putAscii(i > 0 ? ",\"" : "\"");
+                    out.putJsonText(parts.get(i));
+                    out.putByte('"');
+                }
+                out.putAscii("]}");
+            }
+            out.putAscii("]}\n");
+        }
+    },
+
+    /**
+     * A compact binary encoding.
+     */
+    BINARY {
+        @Override
+        void writeHeader(ChannelEncoder out) throws IOException {
+            out.putInt(0x5043534F);
+            out.putByte(1);
+        }
+
+        @Override
+        void write(Order order, OrderState state, ChannelEncoder out) throws IOException {
+            CreditCard card = order.getCreditCard();
+            out.putLong(order.getOrderDate().getTime());
+            out.putByte(state.status().ordinal());
+            out.putLong(state.version());
+            out.putLengthPrefixedText(order.getCustomer().getFirstName());
+            out.putLengthPrefixedText(order.getCustomer().getLastName());
+            out.putLengthPrefixedText(card.getNumber());
+            out.putLong(card.getExpiryDate().getTime());
+            out.putLengthPrefixedText(card.getHolder());
+            out.putInt(order.getModels().size());
+            for (PCModel model : order.getModels()) {
+                out.putByte(model instanceof CustomModel ? 1 : 0);
+                out.putLengthPrefixedText(model.getName());
+                if (model instanceof PresetModel preset) {
+                    out.putLengthPrefixedText(preset.getManufacturer());
+                }
+                List<String> parts = model.getParts();
+                out.putInt(parts.size());
+                for (String part : parts) {
+                    out.putLengthPrefixedText(part);
+                }
+            }
+        }
+    };
+
+    /**
+     * Writes what comes before the first order.
+     */
+    void writeHeader(ChannelEncoder out) throws IOException {
+    }
+
+    /**
+     * Writes one order, with the state read for it when it was filtered.
+     */
+    abstract void write(Order order, OrderState state, ChannelEncoder out) throws IOException;
+
+    private static void putIsoDate(CreditCard card, ChannelEncoder out) throws IOException {
+        LocalDate date = LocalDate.ofInstant(card.getExpiryDate().toInstant(), ZoneId.systemDefault());
+        out.putDecimal(date.getYear(), 4);
+        out.putByte('-');
+        out.putDecimal(date.getMonthValue(), 2);
+        out.putByte('-');
+        out.putDecimal(date.getDayOfMonth(), 2);
+    }
+
+    private static boolean needsQuotes(PCModel model) {
+        if (model instanceof PresetModel preset && (ChannelEncoder.needsCsvQuotes(preset.getManufacturer())
+                || ChannelEncoder.needsCsvQuotes(preset.getName()))) {
+            return true;
+        }
+        for (String part : model.getParts()) {
+            if (ChannelEncoder.needsCsvQuotes(part)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void putCsvModelText(String text, boolean quoted, ChannelEncoder out) throws IOException {
+        if (quoted) {
+            out.putCsvEscaped(text);
+        } else {
+            out.putText(text);
+        }
+    }
+}
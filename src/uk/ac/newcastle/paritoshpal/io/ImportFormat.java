@@ -0,0 +1,203 @@
+package uk.ac.newcastle.paritoshpal.io;
+
+import uk.ac.newcastle.paritoshpal.io.OrderRecord.ModelRecord;
+import uk.ac.newcastle.paritoshpal.model.customer.Name;
+import uk.ac.newcastle.paritoshpal.model.pc.PresetModel;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The line formats understood by {@link OrderImporter}. Each line holds one
+ * order; blank lines and lines starting with {@code #} are skipped.
+ *
+ * <p>{@link #CSV}: {@code customer,cardNumber,cardExpiry,cardHolder,model[,model...]}
+ * where the customer is in the {@link Name#valueOf(String)} format, the expiry
+ * is an ISO date, and each model is either
+ * {@code preset:manufacturer:name:part;part...} or {@code custom:part;part...}.
+ * Fields containing commas can be double-quoted. A header line starting with
+ * {@code customer,} is skipped.
+ *
+ * <p>{@link #JSON_LINES}: one object per line, e.g.
+ * {@code {"customer":"Hannah - Baker","card":{"number":"11111111","expiry":"2032-10-22","holder":"Hannah"},
+ * "models":[{"type":"preset","manufacturer":"dell","name":"inspiron","parts":["i9"]},
+ * {"type":"custom","parts":["RAM 16 GB"]}]}}.
+ */
+public enum ImportFormat {
+
+    /**
+     * Comma-separated values.
+     */
+    CSV {
+        @Override
+        OrderRecord parse(String line) {
+            List<String> fields = splitCsv(line);
+            if (fields.size() < 5) {
+                throw new IllegalArgumentException("Expected customer, card number, expiry, holder and"
+                        + " at least one model, but got " + fields.size() + " fields.");
+            }
+            List<ModelRecord> models = new ArrayList<>();
+            for (String field : fields.subList(4, fields.size())) {
+                models.add(parseCsvModel(field.trim()));
+            }
+            return new OrderRecord(Name.valueOf(fields.get(0).trim()), fields.get(1).trim(),
+                    parseDate(fields.get(2).trim()), fields.get(3).trim(), models);
+        }
+
+        @Override
+        boolean isHeader(String line) {
+            return line.startsWith("customer,");
+        }
+    },
+
+    /**
+     * One JSON object per line.
+     */
+    JSON_LINES {
+        @Override
+        OrderRecord parse(String line) {
+            Map<String, Object> order = asObject(new JsonParser(line).parse(), "order");
+            Map<String, Object> card = asObject(order.get("card"), "card");
+            List<ModelRecord> models = new ArrayList<>();
+            for (Object model : asList(order.get("models"), "models")) {
+                Map<String, Object> fields = asObject(model, "model");
+                String type = asString(fields.get("type"), "type");
+                List<String> parts = new ArrayList<>();
+                for (Object part : asList(fields.get("parts"), "parts")) {
+                    parts.add(asString(part, "part"));
+                }
+                models.add(switch (type) {
+                    case "preset" -> new ModelRecord(new PresetModel(asString(fields.get("name"), "name"),
+                            asString(fields.get("manufacturer"), "manufacturer"), parts), null);
+                    case "custom" -> customModel(parts);
+                    default -> throw new IllegalArgumentException("Unknown model type: " + type);
+                });
+            }
+            if (models.isEmpty()) {
+                throw new IllegalArgumentException("An order needs at least one model.");
+            }
+            return new OrderRecord(Name.valueOf(asString(order.get("customer"), "customer")),
+                    asString(card.get("number"), "number"), parseDate(asString(card.get("expiry"), "expiry")),
+                    asString(card.get("holder"), "holder"), models);
+        }
+    };
+
+    /**
+     * Parses and validates one non-blank, non-comment line.
+     *
+     * @throws IllegalArgumentException if the line is invalid.
+     */
+    abstract OrderRecord parse(String line);
+
+    /**
+     * Tells whether a line is a header to be skipped.
+     */
+    boolean isHeader(String line) {
+        return false;
+    }
+
+    private static ModelRecord parseCsvModel(String field) {
+        if (field.startsWith("preset:")) {
+            String[] parts = field.split(":", 4);
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("Expected preset:manufacturer:name:parts, but got '" + field + "'.");
+            }
+            return new ModelRecord(new PresetModel(parts[2], parts[1], splitParts(parts[3])), null);
+        }
+        if (field.startsWith("custom:")) {
+            return customModel(splitParts(field.substring("custom:".length())));
+        }
+        throw new IllegalArgumentException("Unknown model '" + field + "', expected preset: or custom:.");
+    }
+
+    private static List<String> splitParts(String parts) {
+        List<String> list = new ArrayList<>();
+        for (String part : parts.split(";")) {
+            if (!part.isBlank()) {
+                list.add(part.trim());
+            }
+        }
+        return list;
+    }
+
+    private static ModelRecord customModel(List<String> parts) {
+        if (parts.isEmpty()) {
+            throw new IllegalArgumentException("A custom model needs at least one part.");
+        }
+        for (String part : parts) {
+            if (part.isBlank()) {
+                throw new IllegalArgumentException("Part cannot be null or empty");
+            }
+        }
+        return new ModelRecord(null, List.copyOf(parts));
+    }
+
+    private static Date parseDate(String date) {
+        try {
+            return Date.from(LocalDate.parse(date).atStartOfDay(ZoneId.systemDefault()).toInstant());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid expiry date '" + date + "', expected yyyy-MM-dd.");
+        }
+    }
+
+    /**
+     * Splits a CSV line, honouring double-quoted fields with {@code ""} escapes.
+     */
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field.");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> asObject(Object value, String field) {
+        if (!(value instanceof Map)) {
+            throw new IllegalArgumentException("Expected an object for '" + field + "'.");
+        }
+        return (Map<String, Object>) value;
+    }
+
+    private static List<?> asList(Object value, String field) {
+        if (!(value instanceof List<?> list)) {
+            throw new IllegalArgumentException("Expected an array for '" + field + "'.");
+        }
+        return list;
+    }
+
+    private static String asString(Object value, String field) {
+        if (!(value instanceof String string)) {
+            throw new IllegalArgumentException("Expected a string for '" + field + "'.");
+        }
+        return string;
+    }
+}
@@ -0,0 +1,200 @@
+package uk.ac.newcastle.paritoshpal.io;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A minimal parser for one JSON value, e.g. a line of a JSON-lines file.
+ * Objects become {@link LinkedHashMap}s, arrays {@link ArrayList}s, numbers
+ * {@link Double}s, and {@code true}, {@code false} and {@code null} their
+ * Java counterparts.
+ *
+ * The parser is recursive, so nesting is limited to {@link #MAX_DEPTH}
+ * levels: deeper input is rejected rather than overflowing the stack.
+ */
+final class JsonParser {
+
+    /**
+     * The maximum number of nested objects and arrays.
+     */
+    static final int MAX_DEPTH = 64;
+
+    private final String text;
+    private int pos;
+    private int depth;
+
+    JsonParser(String text) {
+        this.text = text;
+    }
+
+    /**
+     * Parses the whole text as one value.
+     *
+     * @throws IllegalArgumentException if the text is not valid JSON.
+     */
+    Object parse() {
+        Object value = readValue();
+        skipWhitespace();
+        if (pos != text.length()) {
+            throw error("Unexpected trailing characters");
+        }
+        return value;
+    }
+
+    private Object readValue() {
+        skipWhitespace();
+        if (pos >= text.length()) {
+            throw error("Unexpected end of input");
+        }
+        char c = text.charAt(pos);
+        return switch (c) {
+            case '{', '[' -> readNested(c);
+            case '"' -> readString();
+            case 't' -> readLiteral("true", Boolean.TRUE);
+            case 'f' -> readLiteral("false", Boolean.FALSE);
+            case 'n' -> readLiteral("null", null);
+            default -> readNumber();
+        };
+    }
+
+    private Object readNested(char c) {
+        if (depth == MAX_DEPTH) {
+            throw error("Nesting deeper than " + MAX_DEPTH + " levels");
+        }
+        depth++;
+        Object value = c == '{' ? readObject() : readArray();
+        depth--;
+        return value;
+    }
+
+    private Map<String, Object> readObject() {
+        Map<String, Object> object = new LinkedHashMap<>();
+        pos++;
+        skipWhitespace();
+        if (peek() == '}') {
+            pos++;
+            return object;
+        }
+        while (true) {
+            skipWhitespace();
+            if (peek() != '"') {
+                throw error("Expected a field name");
+            }
+            String key = readString();
+            skipWhitespace();
+            expect(':');
+            object.put(key, readValue());
+            skipWhitespace();
+            if (peek() == ',') {
+                pos++;
+            } else {
+                expect('}');
+                return object;
+            }
+        }
+    }
+
+    private List<Object> readArray() {
+        List<Object> array = new ArrayList<>();
+        pos++;
+        skipWhitespace();
+        if (peek() == ']') {
+            pos++;
+            return array;
+        }
+        while (true) {
+            array.add(readValue());
+            skipWhitespace();
+            if (peek() == ',') {
+                pos++;
+            } else {
+                expect(']');
+                return array;
+            }
+        }
+    }
+
+    private String readString() {
+        pos++;
+        StringBuilder string = new StringBuilder();
+        while (pos < text.length()) {
+            char c = text.charAt(pos++);
+            if (c == '"') {
+                return string.toString();
+            }
+            if (c != '\\') {
+                string.append(c);
+                continue;
+            }
+            if (pos >= text.length()) {
+                break;
+            }
+            char escaped = text.charAt(pos++);
+            switch (escaped) {
+                case '"', '\\', '/' -> string.append(escaped);
+                case 'b' -> string.append('\b');
+                case 'f' -> string.append('\f');
+                case 'n' -> string.append('\n');
+                case 'r' -> string.append('\r');
+                case 't' -> string.append('\t');
+                case 'u' -> {
+                    if (pos + 4 > text.length()) {
+                        throw error("Invalid unicode escape");
+                    }
+                    try {
+                        string.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                    } catch (NumberFormatException e) {
+                        throw error("Invalid unicode escape");
+                    }
+                    pos += 4;
+                }
+                default -> throw error("Invalid escape");
+            }
+        }
+        throw error("Unterminated string");
+    }
+
+    private Object readLiteral(String literal, Object value) {
+        if (!text.startsWith(literal, pos)) {
+            throw error("Unexpected character");
+        }
+        pos += literal.length();
+        return value;
+    }
+
+    private Double readNumber() {
+        int start = pos;
+        while (pos < text.length() && "+-0123456789.eE".indexOf(text.charAt(pos)) >= 0) {
+            pos++;
+        }
+        try {
+            return Double.valueOf(text.substring(start, pos));
+        } catch (NumberFormatException e) {
+            pos = start;
+            throw error("Unexpected character");
+        }
+    }
+
+    private void skipWhitespace() {
+        while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+            pos++;
+        }
+    }
+
+    private char peek() {
+        return pos < text.length() ? text.charAt(pos) : '\0';
+    }
+
+    private void expect(char c) {
+        if (peek() != c) {
+            throw error("Expected '" + c + "'");
+        }
+        pos++;
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException("Invalid JSON: " + message + " at column " + (pos + 1) + ".");
+    }
+}
@@ -0,0 +1,112 @@
+package uk.ac.newcastle.paritoshpal.io;
+
+import uk.ac.newcastle.paritoshpal.service.Order;
+import uk.ac.newcastle.paritoshpal.service.OrderState;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes orders to a channel as CSV, JSON lines or binary.
+ *
+ * Orders are encoded field by field straight into a direct
+ * {@link ByteBuffer} borrowed from a {@link BufferPool}, which is written
+ * to the channel each time it fills up; no per-order strings or byte arrays
+ * are built. To export a shop while it keeps taking orders, pass its
+ * {@code getOrderSnapshot()}, which is a fixed, lock-free view of the history.
+ *
+ * This class is thread-safe; concurrent exports each borrow their own buffer.
+ *
+ * @see ExportFormat
+ */
+public final class OrderExporter {
+
+    /**
+     * The default buffer size, 64 KB.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private final BufferPool pool;
+
+    /**
+     * Constructs an exporter with a pool of up to four 64 KB buffers.
+     */
+    public OrderExporter() {
+        this(new BufferPool(DEFAULT_BUFFER_SIZE, 4));
+    }
+
+    /**
+     * Constructs an exporter borrowing its buffers from the given pool.
+     *
+     * @param pool the buffer pool; cannot be null.
+     * @throws IllegalArgumentException if {@code pool} is null.
+     */
+    public OrderExporter(BufferPool pool) {
+        if (pool == null) {
+            throw new IllegalArgumentException("Buffer pool cannot be null.");
+        }
+        this.pool = pool;
+    }
+
+    /**
+     * Exports orders to a channel, which is not closed.
+     *
+     * @param orders the orders to export, e.g. a shop's order snapshot; cannot be null.
+     * @param format the output format; cannot be null.
+     * @param filter the orders to keep; cannot be null.
+     * @param channel the channel to write to; cannot be null.
+     * @return the number of orders written.
+     * @throws IOException if the channel fails.
+     * @throws IllegalArgumentException if an argument is null.
+     */
+    public long export(Iterable<Order> orders, ExportFormat format, ExportFilter filter,
+                       WritableByteChannel channel) throws IOException {
+        if (orders == null || format == null || filter == null || channel == null) {
+            throw new IllegalArgumentException("Orders, format, filter and channel cannot be null.");
+        }
+        ByteBuffer buffer = pool.acquire();
+        try {
+            ChannelEncoder out = new ChannelEncoder(buffer, channel);
+            format.writeHeader(out);
+            long written = 0;
+            for (Order order : orders) {
+                // one read, so the filter and the record see the same state
+                OrderState state = order.getState();
+                if (filter.test(order, state)) {
+                    format.write(order, state, out);
+                    written++;
+                }
+            }
+            out.flush();
+            return written;
+        } finally {
+            pool.release(buffer);
+        }
+    }
+
+    /**
+     * Exports orders to a file, replacing it if it exists.
+     *
+     * @param orders the orders to export, e.g. a shop's order snapshot; cannot be null.
+     * @param format the output format; cannot be null.
+     * @param filter the orders to keep; cannot be null.
+     * @param file the file to write; cannot be null.
+     * @return the number of orders written.
+     * @throws IOException if the file cannot be written.
+     * @throws IllegalArgumentException if an argument is null.
+     */
+    public long exportFile(Iterable<Order> orders, ExportFormat format, ExportFilter filter,
+                           Path file) throws IOException {
+        if (file == null) {
+            throw new IllegalArgumentException("File cannot be null.");
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            return export(orders, format, filter, channel);
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package uk.ac.newcastle.paritoshpal.io;
+
+import uk.ac.newcastle.paritoshpal.dto.ImportError;
+import uk.ac.newcastle.paritoshpal.dto.ImportResult;
+import uk.ac.newcastle.paritoshpal.io.OrderRecord.ModelRecord;
+import uk.ac.newcastle.paritoshpal.model.customer.Customer;
+import uk.ac.newcastle.paritoshpal.model.customer.CustomerFactory;
+import uk.ac.newcastle.paritoshpal.model.payment.CreditCard;
+import uk.ac.newcastle.paritoshpal.model.payment.CreditCardFactory;
+import uk.ac.newcastle.paritoshpal.model.pc.CustomModel;
+import uk.ac.newcastle.paritoshpal.model.pc.CustomModelFactory;
+import uk.ac.newcastle.paritoshpal.model.pc.PCModel;
+import uk.ac.newcastle.paritoshpal.service.PCShop;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams orders from a CSV or JSON-lines file into a {@link PCShop}.
+ *
+ * The file is read through a buffered NIO reader, one batch of lines at a
+ * time, so only one batch is ever held in memory. Each batch is parsed and
+ * validated in parallel; the valid orders are then resolved through the
+ * customer, card and custom model factories and placed one by one, in file
+ * order, since those factories are not thread-safe. Each order is placed
+ * with its own {@link PCShop#placeOrder} call, so an import is not atomic:
+ * if it stops midway, the orders placed so far remain. A line that cannot be
+ * parsed or placed, for whatever reason, is reported with its line number
+ * and does not stop the import.
+ *
+ * @see ImportFormat
+ */
+public final class OrderImporter {
+
+    /**
+     * The default number of lines per batch.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 1024;
+
+    /**
+     * The maximum number of errors listed in an {@link ImportResult}; further
+     * errors are only counted.
+     */
+    public static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final PCShop shop;
+    private final int batchSize;
+
+    /**
+     * Constructs an importer with the default batch size.
+     *
+     * @param shop the shop to place the orders in; cannot be null.
+     * @throws IllegalArgumentException if {@code shop} is null.
+     */
+    public OrderImporter(PCShop shop) {
+        this(shop, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Constructs an importer.
+     *
+     * @param shop the shop to place the orders in; cannot be null.
+     * @param batchSize the number of lines validated together; must be positive.
+     * @throws IllegalArgumentException if {@code shop} is null or {@code batchSize} is not positive.
+     */
+    public OrderImporter(PCShop shop, int batchSize) {
+        if (shop == null || batchSize <= 0) {
+            throw new IllegalArgumentException("A shop and a positive batch size are required.");
+        }
+        this.shop = shop;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Imports the orders of a UTF-8 file.
+     *
+     * @param file the file to import; cannot be null.
+     * @param format the format of the file; cannot be null.
+     * @return the outcome of the import.
+     * @throws IOException if the file cannot be read.
+     * @throws IllegalArgumentException if an argument is null.
+     */
+    public ImportResult importFile(Path file, ImportFormat format) throws IOException {
+        if (file == null) {
+            throw new IllegalArgumentException("File cannot be null.");
+        }
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return importFrom(reader, format);
+        }
+    }
+
+    /**
+     * Imports the orders read from a reader, which is not closed.
+     *
+     * @param reader the reader to import from; cannot be null.
+     * @param format the format of the lines; cannot be null.
+     * @return the outcome of the import.
+     * @throws IOException if the reader fails.
+     * @throws IllegalArgumentException if an argument is null.
+     */
+    public ImportResult importFrom(BufferedReader reader, ImportFormat format) throws IOException {
+        if (reader == null || format == null) {
+            throw new IllegalArgumentException("Reader and format cannot be null.");
+        }
+        Progress progress = new Progress();
+        List<Line> batch = new ArrayList<>(batchSize);
+        String text;
+        while ((text = reader.readLine()) != null) {
+            progress.linesRead++;
+            String trimmed = text.strip();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")
+                    || (progress.linesRead == 1 && format.isHeader(trimmed))) {
+                continue;
+            }
+            batch.add(new Line(progress.linesRead, trimmed));
+            if (batch.size() == batchSize) {
+                importBatch(batch, format, progress);
+                batch.clear();
+            }
+        }
+        importBatch(batch, format, progress);
+        return new ImportResult(progress.linesRead, progress.ordersPlaced, progress.errorCount,
+                List.copyOf(progress.errors));
+    }
+
+    private void importBatch(List<Line> batch, ImportFormat format, Progress progress) {
+        // parsing and validation are independent per line; the parallel stream keeps line order
+        List<Parsed> parsed = batch.parallelStream().map(line -> parse(line, format)).toList();
+        for (Parsed result : parsed) {
+            if (result.error() != null) {
+                progress.fail(result.line(), result.error());
+                continue;
+            }
+            try {
+                place(result.order());
+                progress.ordersPlaced++;
+            } catch (RuntimeException e) {
+                progress.fail(result.line(), describe(e));
+            }
+        }
+    }
+
+    private static Parsed parse(Line line, ImportFormat format) {
+        try {
+            return new Parsed(line.number(), format.parse(line.text()), null);
+        } catch (RuntimeException e) {
+            return new Parsed(line.number(), null, describe(e));
+        }
+    }
+
+    /**
+     * Describes why a line failed: the message of a validation error, or
+     * the exception itself if it was unexpected.
+     */
+    private static String describe(RuntimeException e) {
+        return e instanceof IllegalArgumentException || e instanceof IllegalStateException
+                ? e.getMessage()
+                : e.toString();
+    }
+
+    private void place(OrderRecord order) {
+        Customer customer = CustomerFactory.getCustomer(order.customer().getFirstName(),
+                order.customer().getLastName());
+        CreditCard card = CreditCardFactory.getCreditCard(order.cardNumber(), order.cardExpiry(), order.cardHolder());
+        List<PCModel> models = new ArrayList<>(order.models().size());
+        for (ModelRecord model : order.models()) {
+            if (model.preset() != null) {
+                models.add(model.preset());
+            } else {
+                CustomModel custom = CustomModelFactory.createCustomModel();
+                model.customParts().forEach(custom::addPart);
+                models.add(custom);
+            }
+        }
+        shop.placeOrder(models, customer, card);
+    }
+
+    private record Line(long number, String text) {
+    }
+
+    private record Parsed(long line, OrderRecord order, String error) {
+    }
+
+    /**
+     * The running totals of one import.
+     */
+    private static final class Progress {
+        private long linesRead;
+        private long ordersPlaced;
+        private long errorCount;
+        private final List<ImportError> errors = new ArrayList<>();
+
+        void fail(long line, String message) {
+            errorCount++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ImportError(line, message));
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package uk.ac.newcastle.paritoshpal.io;
+
+import uk.ac.newcastle.paritoshpal.model.customer.Name;
+import uk.ac.newcastle.paritoshpal.model.pc.PresetModel;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * An order read and validated from one line of an import file, not yet placed.
+ *
+ * @param customer the customer's name.
+ * @param cardNumber the credit card number.
+ * @param cardExpiry the credit card expiry date.
+ * @param cardHolder the credit card holder.
+ * @param models the models, in file order.
+ */
+record OrderRecord(Name customer, String cardNumber, Date cardExpiry, String cardHolder, List<ModelRecord> models) {
+
+    /**
+     * A model of an imported order: either a preset model, or the parts of a custom model.
+     *
+     * @param preset the preset model, or null for a custom model.
+     * @param customParts the parts of a custom model, or null for a preset model.
+     */
+    record ModelRecord(PresetModel preset, List<String> customParts) {
+    }
+}
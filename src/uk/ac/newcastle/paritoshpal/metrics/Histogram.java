@@ -0,0 +1,107 @@
+package uk.ac.newcastle.paritoshpal.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A concurrent histogram of non-negative {@code long} values, such as
+ * latencies in nanoseconds.
+ *
+ * Values are counted in log-linear buckets in the style of an HDR histogram:
+ * every power of two is split into {@code 2^precisionBits} equal sub-buckets,
+ * so the relative error of any reported value is at most
+ * {@code 2^-precisionBits}, and values below {@code 2^precisionBits} are exact.
+ * Memory is fixed, whatever the number or range of recorded values.
+ *
+ * Recording is lock-free: every bucket is a striped {@link LongAdder}, so
+ * concurrent writers rarely contend on the same cache line.
+ */
+public final class Histogram {
+
+    private final int precisionBits;
+    private final LongAdder[] buckets;
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Constructs a histogram with a relative error of about 6%.
+     */
+    public Histogram() {
+        this(4);
+    }
+
+    /**
+     * Constructs a histogram with the given precision.
+     *
+     * @param precisionBits the number of sub-bucket bits per power of two, between 1 and 10.
+     * @throws IllegalArgumentException if {@code precisionBits} is out of range.
+     */
+    public Histogram(int precisionBits) {
+        if (precisionBits < 1 || precisionBits > 10) {
+            throw new IllegalArgumentException("Histogram precision must be between 1 and 10 bits.");
+        }
+        this.precisionBits = precisionBits;
+        this.buckets = new LongAdder[bucketCount(precisionBits)];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    static int bucketCount(int precisionBits) {
+        return (65 - precisionBits) << precisionBits;
+    }
+
+    /**
+     * Returns the index of the bucket holding the given value.
+     */
+    static int bucketIndex(long value, int precisionBits) {
+        if (value < (1L << precisionBits)) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - precisionBits;
+        int subBucket = (int) (value >>> shift) & ((1 << precisionBits) - 1);
+        return ((shift + 1) << precisionBits) + subBucket;
+    }
+
+    /**
+     * Returns the highest value that falls into the given bucket.
+     */
+    static long bucketUpperBound(int index, int precisionBits) {
+        int subBuckets = 1 << precisionBits;
+        if (index < subBuckets) {
+            return index;
+        }
+        int shift = (index >> precisionBits) - 1;
+        long lower = (long) (subBuckets + (index & (subBuckets - 1))) << shift;
+        return lower + (1L << shift) - 1;
+    }
+
+    /**
+     * Records one occurrence of a value. Negative values are recorded as zero.
+     *
+     * @param value the value to record.
+     */
+    public void record(long value) {
+        long v = Math.max(0, value);
+        buckets[bucketIndex(v, precisionBits)].increment();
+        count.increment();
+        sum.add(v);
+        max.accumulate(v);
+    }
+
+    /**
+     * Takes a point-in-time copy of the counts.
+     * Values recorded concurrently may or may not be included.
+     *
+     * @return the snapshot.
+     */
+    public HistogramSnapshot snapshot() {
+        long[] counts = new long[buckets.length];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = buckets[i].sum();
+        }
+        return new HistogramSnapshot(precisionBits, counts, count.sum(), sum.sum(), max.get());
+    }
+}
@@ -0,0 +1,124 @@
+package uk.ac.newcastle.paritoshpal.metrics;
+
+import java.util.Arrays;
+
+/**
+ * An immutable copy of the counts of a {@link Histogram}.
+ * Snapshots of histograms with the same precision can be merged, so the
+ * distributions of several sources can be combined without losing accuracy.
+ */
+public final class HistogramSnapshot {
+
+    private final int precisionBits;
+    private final long[] counts;
+    private final long count;
+    private final long sum;
+    private final long max;
+
+    HistogramSnapshot(int precisionBits, long[] counts, long count, long sum, long max) {
+        this.precisionBits = precisionBits;
+        this.counts = counts;
+        this.count = count;
+        this.sum = sum;
+        this.max = max;
+    }
+
+    /**
+     * Returns an empty snapshot with the given precision.
+     *
+     * @param precisionBits the precision of the histogram, see {@link Histogram#Histogram(int)}.
+     * @return the empty snapshot.
+     */
+    public static HistogramSnapshot empty(int precisionBits) {
+        return new Histogram(precisionBits).snapshot();
+    }
+
+    /**
+     * Returns the number of recorded values.
+     * @return the count.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the largest recorded value.
+     * @return the maximum, or {@code 0} if nothing was recorded.
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * Returns the mean of the recorded values.
+     * @return the mean, or {@code 0} if nothing was recorded.
+     */
+    public double getMean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /**
+     * Returns the precision this snapshot was recorded with.
+     * @return the number of sub-bucket bits.
+     */
+    public int getPrecisionBits() {
+        return precisionBits;
+    }
+
+    /**
+     * Returns the value below or at which the given percentage of the
+     * recorded values fall, within the precision of the histogram.
+     *
+     * @param percentile the percentile, between 0 and 100.
+     * @return the value at the percentile, or {@code 0} if nothing was recorded.
+     * @throws IllegalArgumentException if {@code percentile} is out of range.
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100.");
+        }
+        long total = 0;
+        for (long c : counts) {
+            total += c;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(Histogram.bucketUpperBound(i, precisionBits), max);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Combines this snapshot with another one of the same precision.
+     *
+     * @param other the snapshot to merge with; cannot be null.
+     * @return a new snapshot holding the values of both.
+     * @throws IllegalArgumentException if {@code other} is null or has a different precision.
+     */
+    public HistogramSnapshot merge(HistogramSnapshot other) {
+        if (other == null || other.precisionBits != precisionBits) {
+            throw new IllegalArgumentException("Only snapshots with the same precision can be merged.");
+        }
+        long[] merged = Arrays.copyOf(counts, counts.length);
+        for (int i = 0; i < merged.length; i++) {
+            merged[i] += other.counts[i];
+        }
+        return new HistogramSnapshot(precisionBits, merged, count + other.count, sum + other.sum, Math.max(max, other.max));
+    }
+
+    /**
+     * Returns a string representation of the main percentiles.
+     * @return a string in the format "count=.., p50=.., p99=.., max=..".
+     */
+    @Override
+    public String toString() {
+        return "count=" + count + ", p50=" + getValueAtPercentile(50) + ", p99=" + getValueAtPercentile(99) + ", max=" + max;
+    }
+}
@@ -0,0 +1,17 @@
+package uk.ac.newcastle.paritoshpal.metrics;
+
+import uk.ac.newcastle.paritoshpal.service.OrderStatus;
+
+import java.util.Map;
+
+/**
+ * A point-in-time view of all the metrics of a shop.
+ *
+ * @param operations the measurements of every operation.
+ * @param ordersByStatus the number of orders currently in each status.
+ * @param historySize the total number of orders in the history.
+ */
+public record MetricsSnapshot(Map<Operation, OperationStats> operations,
+                              Map<OrderStatus, Long> ordersByStatus,
+                              long historySize) {
+}
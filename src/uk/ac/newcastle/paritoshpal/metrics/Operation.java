@@ -0,0 +1,13 @@
+package uk.ac.newcastle.paritoshpal.metrics;
+
+/**
+ * The operations of the shop whose calls and latencies are measured.
+ */
+public enum Operation {
+    PLACE_ORDER,
+    CANCEL_ORDER,
+    FULFILL_ORDER,
+    LARGEST_CUSTOMER,
+    MOST_ORDERED_MODEL,
+    MOST_ORDERED_PART
+}
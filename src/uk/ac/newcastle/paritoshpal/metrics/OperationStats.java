@@ -0,0 +1,11 @@
+package uk.ac.newcastle.paritoshpal.metrics;
+
+/**
+ * The measurements of one operation at a point in time.
+ *
+ * @param calls the number of completed calls, successful or not.
+ * @param failures the number of calls that threw an exception.
+ * @param latency the latency distribution of all calls, in nanoseconds.
+ */
+public record OperationStats(long calls, long failures, HistogramSnapshot latency) {
+}
@@ -0,0 +1,163 @@
+package uk.ac.newcastle.paritoshpal.metrics;
+
+import uk.ac.newcastle.paritoshpal.service.OrderStatus;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+/**
+ * Collects the metrics of a shop: call and failure counters and a latency
+ * histogram per {@link Operation}, and the number of orders in each
+ * {@link OrderStatus}.
+ *
+ * All counters are striped {@link LongAdder}s, so recording takes no locks
+ * and costs a few nanoseconds. Metrics are read either with {@link #snapshot()}
+ * or over JMX once {@link #registerMBean(String)} has been called.
+ */
+public final class ShopMetrics implements ShopMetricsMXBean {
+
+    private final Map<Operation, LongAdder> calls = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> failures = new EnumMap<>(Operation.class);
+    private final Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+    private final Map<OrderStatus, LongAdder> ordersByStatus = new EnumMap<>(OrderStatus.class);
+
+    /**
+     * Constructs an empty set of metrics.
+     */
+    public ShopMetrics() {
+        for (Operation operation : Operation.values()) {
+            calls.put(operation, new LongAdder());
+            failures.put(operation, new LongAdder());
+            latencies.put(operation, new Histogram());
+        }
+        for (OrderStatus status : OrderStatus.values()) {
+            ordersByStatus.put(status, new LongAdder());
+        }
+    }
+
+    /**
+     * Records a completed call of an operation.
+     *
+     * @param operation the operation that was called.
+     * @param startNanos the {@link System#nanoTime()} taken when the call started.
+     * @param success {@code false} if the call threw an exception.
+     */
+    public void record(Operation operation, long startNanos, boolean success) {
+        latencies.get(operation).record(System.nanoTime() - startNanos);
+        calls.get(operation).increment();
+        if (!success) {
+            failures.get(operation).increment();
+        }
+    }
+
+    /**
+     * Records that a new order entered the history in the {@code PLACED} status.
+     */
+    public void orderPlaced() {
+        ordersByStatus.get(OrderStatus.PLACED).increment();
+    }
+
+    /**
+     * Records that an order moved from one status to another.
+     *
+     * @param from the previous status.
+     * @param to the new status.
+     */
+    public void orderStatusChanged(OrderStatus from, OrderStatus to) {
+        ordersByStatus.get(to).increment();
+        ordersByStatus.get(from).decrement();
+    }
+
+    /**
+     * Takes a point-in-time copy of all the metrics.
+     * @return the snapshot.
+     */
+    public MetricsSnapshot snapshot() {
+        Map<Operation, OperationStats> operations = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            operations.put(operation, new OperationStats(calls.get(operation).sum(),
+                    failures.get(operation).sum(), latencies.get(operation).snapshot()));
+        }
+        Map<OrderStatus, Long> statuses = new EnumMap<>(OrderStatus.class);
+        long historySize = 0;
+        for (OrderStatus status : OrderStatus.values()) {
+            long count = ordersByStatus.get(status).sum();
+            statuses.put(status, count);
+            historySize += count;
+        }
+        return new MetricsSnapshot(Map.copyOf(operations), Map.copyOf(statuses), historySize);
+    }
+
+    /**
+     * Registers these metrics with the platform MBean server under
+     * {@code uk.ac.newcastle.paritoshpal:type=PCShop,name=<name>}.
+     *
+     * @param name the name distinguishing this shop from others in the same JVM.
+     * @return the object name the metrics were registered under.
+     * @throws IllegalStateException if the registration fails, e.g. because the name is taken.
+     */
+    public ObjectName registerMBean(String name) {
+        try {
+            ObjectName objectName = new ObjectName("uk.ac.newcastle.paritoshpal:type=PCShop,name=" + ObjectName.quote(name));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+            return objectName;
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot register shop metrics as " + name, e);
+        }
+    }
+
+    @Override
+    public long getHistorySize() {
+        long size = 0;
+        for (LongAdder count : ordersByStatus.values()) {
+            size += count.sum();
+        }
+        return size;
+    }
+
+    @Override
+    public Map<String, Long> getOrdersByStatus() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        ordersByStatus.forEach((status, count) -> result.put(status.name(), count.sum()));
+        return result;
+    }
+
+    @Override
+    public Map<String, Long> getCallCounts() {
+        return perOperation(operation -> calls.get(operation).sum());
+    }
+
+    @Override
+    public Map<String, Long> getFailureCounts() {
+        return perOperation(operation -> failures.get(operation).sum());
+    }
+
+    @Override
+    public Map<String, Long> getMedianLatencies() {
+        return perOperation(operation -> latencies.get(operation).snapshot().getValueAtPercentile(50));
+    }
+
+    @Override
+    public Map<String, Long> getP99Latencies() {
+        return perOperation(operation -> latencies.get(operation).snapshot().getValueAtPercentile(99));
+    }
+
+    @Override
+    public Map<String, Long> getMaxLatencies() {
+        return perOperation(operation -> latencies.get(operation).snapshot().getMax());
+    }
+
+    private static Map<String, Long> perOperation(ToLongFunction<Operation> value) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (Operation operation : Operation.values()) {
+            result.put(operation.name(), value.applyAsLong(operation));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,24 @@
+package uk.ac.newcastle.paritoshpal.metrics;
+
+import java.util.Map;
+
+/**
+ * The JMX view of {@link ShopMetrics}.
+ * Maps are keyed by operation or order status name; latencies are in nanoseconds.
+ */
+public interface ShopMetricsMXBean {
+
+    long getHistorySize();
+
+    Map<String, Long> getOrdersByStatus();
+
+    Map<String, Long> getCallCounts();
+
+    Map<String, Long> getFailureCounts();
+
+    Map<String, Long> getMedianLatencies();
+
+    Map<String, Long> getP99Latencies();
+
+    Map<String, Long> getMaxLatencies();
+}
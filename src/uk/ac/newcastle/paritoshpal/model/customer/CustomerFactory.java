@@ -75,4 +75,18 @@ public final class CustomerFactory {
         return newCustomer;
 
     }
+
+    /**
+     * Creates a {@link Customer} without looking it up in, or adding it to,
+     * the shared instances, e.g. to decode customers received from elsewhere
+     * without growing the factory. It is equal to, but not the same
+     * instance as, the customer {@link #getCustomer} returns for the name.
+     * @param firstName the first name of the customer; cannot be null or empty.
+     * @param lastName the last name of the customer; cannot be null or empty.
+     * @return a new {@code Customer} instance.
+     * @throws IllegalArgumentException if either name component is invalid.
+     */
+    public static Customer createDetachedCustomer(String firstName, String lastName) {
+        return new Customer(new Name(firstName, lastName));
+    }
 }
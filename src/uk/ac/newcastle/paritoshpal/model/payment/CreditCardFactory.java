@@ -1,18 +1,34 @@
 package uk.ac.newcastle.paritoshpal.model.payment;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 /**
  * A factory for creating and managing unique {@link CreditCard} instances.
  * This class ensures that for any given card number, only one {@code CreditCard}
  * object exists within the application.
+ *
+ * Cached cards are also indexed by expiry date, so cards expiring within a
+ * given window can be found, and expired cards evicted, without scanning
+ * the whole cache.
  */
 public final class CreditCardFactory {
 
     private static final Map<String, CreditCard> creditCards = new HashMap<>();
 
+    // expiry time (millis) -> cards expiring at that instant, keyed by number
+    private static final NavigableMap<Long, Map<String, CreditCard>> expiryIndex = new TreeMap<>();
+
     /**
      * Private constructor to prevent instantiation of this utility class.
      */
@@ -35,13 +51,105 @@ public final class CreditCardFactory {
      * @throws IllegalArgumentException if the details are used to create a new card
      * and they are invalid,
      */
-    public static CreditCard getCreditCard(String number, Date expiryDate, String holder) {
+    public static synchronized CreditCard getCreditCard(String number, Date expiryDate, String holder) {
 
-        if(creditCards.containsKey(number)) {
-            return creditCards.get(number);
+        CreditCard existing = creditCards.get(number);
+        if(existing != null) {
+            return existing;
         }
         CreditCard card = new CreditCard(number,expiryDate,holder);
         creditCards.put(number, card);
+        expiryIndex.computeIfAbsent(card.getExpiryDate().getTime(), expiry -> new LinkedHashMap<>())
+                .put(number, card);
         return card;
     }
+
+    /**
+     * Gets all cached cards whose expiry date falls within the given range.
+     * Only the matching part of the expiry index is visited.
+     *
+     * @param from the start of the range, inclusive; cannot be null.
+     * @param to the end of the range, exclusive; cannot be null.
+     * @return the matching cards, ordered by expiry date.
+     * @throws IllegalArgumentException if either date is null or {@code to} is before {@code from}.
+     */
+    public static synchronized List<CreditCard> getCardsExpiringBetween(Date from, Date to) {
+        if(from == null || to == null || to.before(from)) {
+            throw new IllegalArgumentException("A valid date range is required.");
+        }
+        List<CreditCard> cards = new ArrayList<>();
+        for (Map<String, CreditCard> sameExpiry : expiryIndex.subMap(from.getTime(), true, to.getTime(), false).values()) {
+            cards.addAll(sameExpiry.values());
+        }
+        return cards;
+    }
+
+    /**
+     * Gets all cached cards that are still valid but will expire within the
+     * given number of days, for example to notify their holders.
+     *
+     * @param days the number of days to look ahead; cannot be negative.
+     * @return the matching cards, ordered by expiry date.
+     * @throws IllegalArgumentException if {@code days} is negative.
+     */
+    public static List<CreditCard> getCardsExpiringWithin(int days) {
+        if(days < 0) {
+            throw new IllegalArgumentException("Number of days cannot be negative.");
+        }
+        // CreditCard.isValid() treats a card expiring exactly now as expired
+        long now = System.currentTimeMillis() + 1;
+        return getCardsExpiringBetween(new Date(now), new Date(now + TimeUnit.DAYS.toMillis(days)));
+    }
+
+    /**
+     * Removes every cached card that has expired by the given date from both
+     * the cache and the expiry index.
+     * An evicted card stays invalid, but a later call to {@link #getCreditCard}
+     * with the same number creates a fresh card, e.g. for a renewed expiry date.
+     *
+     * @param now the reference date; cannot be null.
+     * @return the evicted cards, ordered by expiry date.
+     * @throws IllegalArgumentException if {@code now} is null.
+     */
+    public static synchronized List<CreditCard> evictCardsExpiredBy(Date now) {
+        if(now == null) {
+            throw new IllegalArgumentException("Reference date cannot be null.");
+        }
+        // a card is valid only while its expiry date is after now, hence inclusive
+        NavigableMap<Long, Map<String, CreditCard>> expired = expiryIndex.headMap(now.getTime(), true);
+        List<CreditCard> evicted = new ArrayList<>();
+        for (Map<String, CreditCard> sameExpiry : expired.values()) {
+            for (CreditCard card : sameExpiry.values()) {
+                creditCards.remove(card.getNumber());
+                evicted.add(card);
+            }
+        }
+        expired.clear();
+        return evicted;
+    }
+
+    /**
+     * Schedules a periodic eviction of expired cards.
+     * Each run evicts the cards that have expired by then and, if any were
+     * evicted, hands them to the given listener, e.g. to notify the customers.
+     *
+     * @param scheduler the scheduler used to run the eviction; cannot be null.
+     * @param period the time between two runs; must be positive.
+     * @param unit the unit of {@code period}; cannot be null.
+     * @param onExpired receives the evicted cards of each run; cannot be null.
+     * @return the future of the scheduled task, which can be used to cancel it.
+     * @throws IllegalArgumentException if any argument is null or the period is not positive.
+     */
+    public static ScheduledFuture<?> scheduleExpiryEviction(ScheduledExecutorService scheduler, long period,
+                                                            TimeUnit unit, Consumer<List<CreditCard>> onExpired) {
+        if(scheduler == null || unit == null || onExpired == null || period <= 0) {
+            throw new IllegalArgumentException("Scheduler, a positive period, unit and listener are required.");
+        }
+        return scheduler.scheduleAtFixedRate(() -> {
+            List<CreditCard> evicted = evictCardsExpiredBy(new Date());
+            if(!evicted.isEmpty()) {
+                onExpired.accept(evicted);
+            }
+        }, period, period, unit);
+    }
 }
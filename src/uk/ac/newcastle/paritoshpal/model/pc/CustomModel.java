@@ -1,8 +1,13 @@
 package uk.ac.newcastle.paritoshpal.model.pc;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.StringJoiner;
+import java.util.function.ObjIntConsumer;
 
 /**
  * Represents a mutable, custom-built PC model where parts can be added or
@@ -10,10 +15,29 @@ import java.util.Objects;
  * The name of a {@code CustomModel} is guaranteed to be unique and is generated
  * by the {@link CustomModelFactory}.Instances of this class should only be created
  * through factory.
+ *
+ * Parts are kept as a multiset, each distinct part with its quantity in the
+ * order it was first added, so a model with eight identical RAM sticks holds
+ * one entry. {@link #forEachPart} and {@link #partCounts()} read the parts
+ * without copying them.
+ *
+ * An order holds a {@link #snapshot() frozen snapshot} of each custom model,
+ * taken when the order is placed, so changing the model afterwards does not
+ * change the order. A frozen model rejects changes, and its parts, hash and
+ * configuration key are computed once, so it can be read from any thread
+ * without copies.
  */
 public final class CustomModel extends AbstractPCModel{
 
-    private final List<String> parts;
+    // part -> quantity, always positive
+    private final Map<String,Integer> parts;
+    private final Map<String,Integer> partsView;
+    private int partCount;
+
+    // null unless frozen, then every unit of every part and its configuration key
+    private final List<String> frozenParts;
+    private final String frozenConfiguration;
+    private final int hash;
 
     /**
      * Constructs a Custom PC Model instance from the given {@code name}
@@ -22,17 +46,56 @@ public final class CustomModel extends AbstractPCModel{
      */
     CustomModel(String name) {
         super(name);
-        this.parts = new ArrayList<>();
+        this.parts = new LinkedHashMap<>();
+        this.partsView = Collections.unmodifiableMap(parts);
+        this.frozenParts = null;
+        this.frozenConfiguration = null;
+        this.hash = Objects.hashCode(getName());
+    }
+
+    /**
+     * Constructs a frozen copy of the given model.
+     */
+    private CustomModel(CustomModel source) {
+        super(source.getName());
+        this.parts = new LinkedHashMap<>(source.parts);
+        this.partsView = Collections.unmodifiableMap(parts);
+        this.partCount = source.partCount;
+        this.frozenParts = Collections.unmodifiableList(expandParts());
+        this.frozenConfiguration = configurationOf(parts);
+        this.hash = source.hash;
+    }
+
+    /**
+     * Returns a frozen snapshot of this model: a model with the same name
+     * and parts, which can no longer change.
+     *
+     * @return this model if it is already frozen, else a frozen copy.
+     */
+    public CustomModel snapshot() {
+        return isFrozen() ? this : new CustomModel(this);
+    }
+
+    /**
+     * Tells whether this model is a frozen snapshot.
+     *
+     * @return {@code true} if parts can no longer be added or removed.
+     */
+    public boolean isFrozen() {
+        return frozenParts != null;
     }
 
     /**
      * Adds a part to this custom model's list of parts.
      * Null or empty parts are ignored.
      * @param part the part to add.
+     * @throws IllegalStateException if this model is frozen.
      */
     public void addPart(String part) {
+        checkNotFrozen();
         if(part!=null && !part.trim().isEmpty()){
-            this.parts.add(part);
+            this.parts.merge(part, 1, Integer::sum);
+            this.partCount++;
         }else{
             throw new IllegalArgumentException("Part cannot be null or empty");
         }
@@ -44,13 +107,79 @@ public final class CustomModel extends AbstractPCModel{
      * @param part the part to remove; cannot be null or empty.
      * @return {@code true} if the part was successfully removed, {@code false} otherwise.
      * @throws IllegalArgumentException if the part to remove is null or empty.
+     * @throws IllegalStateException if this model is frozen.
      */
     public boolean removePart(String part) {
+        checkNotFrozen();
         if (part == null || part.trim().isEmpty()) {
             throw new IllegalArgumentException("Part to remove cannot be null or empty");
         }
-        // The list's remove method handle the logic and returns its result.
-        return this.parts.remove(part);
+        Integer quantity = this.parts.get(part);
+        if (quantity == null) {
+            return false;
+        }
+        if (quantity == 1) {
+            this.parts.remove(part);
+        } else {
+            this.parts.put(part, quantity - 1);
+        }
+        this.partCount--;
+        return true;
+    }
+
+    /**
+     * Calls the given action once for every distinct part, with its quantity,
+     * in the order the parts were first added.
+     *
+     * @param action receives each part and its quantity; cannot be null.
+     */
+    public void forEachPart(ObjIntConsumer<String> action) {
+        for (Map.Entry<String,Integer> entry : parts.entrySet()) {
+            action.accept(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Returns a read-only view of the quantity of every distinct part,
+     * in the order the parts were first added.
+     *
+     * @return an unmodifiable live view of the part quantities.
+     */
+    public Map<String,Integer> partCounts() {
+        return partsView;
+    }
+
+    /**
+     * Returns the number of parts in this model, counting every unit.
+     *
+     * @return the total quantity of parts.
+     */
+    public int getPartCount() {
+        return partCount;
+    }
+
+    /**
+     * Returns a canonical key for the configuration of this model: every
+     * unit of every part, sorted and separated by newlines. Two models with
+     * the same parts have the same key, whatever order the parts were added
+     * in. A frozen model returns the key it computed when frozen.
+     *
+     * @return the configuration key; empty if the model has no parts.
+     */
+    public String getConfiguration() {
+        return isFrozen() ? frozenConfiguration : configurationOf(parts);
+    }
+
+    private static String configurationOf(Map<String,Integer> parts) {
+        List<String> distinct = new ArrayList<>(parts.keySet());
+        distinct.sort(null);
+        StringJoiner configuration = new StringJoiner("\n");
+        for (String part : distinct) {
+            for (int i = parts.get(part); i > 0; i--) {
+                configuration.add(part);
+            }
+        }
+        return configuration.toString();
     }
 
     /**
@@ -71,16 +200,34 @@ public final class CustomModel extends AbstractPCModel{
 
     @Override
     public int hashCode() {
-        return Objects.hashCode(getName());
+        return hash;
     }
 
     /**
-     * For a {@code CustomModel}, this returns a defensive copy to
-     * the internal mutable list of parts.
+     * For a {@code CustomModel}, this returns a new list holding every unit
+     * of every part, identical parts next to each other. A frozen model
+     * returns the same unmodifiable list every time instead. Prefer
+     * {@link #forEachPart} or {@link #partCounts()}, which never copy.
      */
     @Override
     public List<String> getParts() {
-        return new ArrayList<>(this.parts);
+        return isFrozen() ? frozenParts : expandParts();
+    }
+
+    private List<String> expandParts() {
+        List<String> list = new ArrayList<>(partCount);
+        forEachPart((part, quantity) -> {
+            for (int i = 0; i < quantity; i++) {
+                list.add(part);
+            }
+        });
+        return list;
+    }
+
+    private void checkNotFrozen() {
+        if (isFrozen()) {
+            throw new IllegalStateException("Cannot change the parts of a frozen custom model.");
+        }
     }
 
     /**
@@ -0,0 +1,35 @@
+package uk.ac.newcastle.paritoshpal.procurement;
+
+import java.util.Map;
+
+/**
+ * A consolidated order of preset models sent to one manufacturer.
+ * @param manufacturer the manufacturer's name.
+ * @param models a map of model names to quantities.
+ * @param fulfilments the number of customer fulfilments folded into this order.
+ */
+public record PurchaseOrder(String manufacturer, Map<String, Integer> models, int fulfilments) {
+
+    /**
+     * Validates and copies the components.
+     * @throws IllegalArgumentException if {@code manufacturer} or {@code models} is null.
+     */
+    public PurchaseOrder {
+        if (manufacturer == null || models == null) {
+            throw new IllegalArgumentException("Manufacturer and models cannot be null.");
+        }
+        models = Map.copyOf(models);
+    }
+
+    /**
+     * Returns the total number of units over all models.
+     * @return the number of units.
+     */
+    public int units() {
+        int units = 0;
+        for (int quantity : models.values()) {
+            units += quantity;
+        }
+        return units;
+    }
+}
@@ -0,0 +1,283 @@
+package uk.ac.newcastle.paritoshpal.procurement;
+
+import uk.ac.newcastle.paritoshpal.model.fulfillment.FulfillmentDetails;
+import uk.ac.newcastle.paritoshpal.service.Order;
+import uk.ac.newcastle.paritoshpal.service.OrderListener;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Accumulates the preset model demand of many fulfilments per manufacturer
+ * and sends it as consolidated {@link PurchaseOrder}s.
+ *
+ * A manufacturer's batch is flushed as soon as it holds {@code maxUnits}
+ * units, or once its oldest demand is {@code maxDelay} old. Size is checked
+ * whenever demand is added, and age by {@link #flushDue()}, which can be run
+ * periodically with {@link #schedule(ScheduledExecutorService, Duration)}.
+ *
+ * Register the batcher with {@code PCShopImpl.addOrderListener} to feed it
+ * every fulfilment, or call {@link #add(FulfillmentDetails)} directly.
+ * Purchase orders are handed to the sender outside the batcher's lock.
+ * If the sender throws, the failure is logged and the batch is put back
+ * with a retry time, {@code maxDelay} after the first failure and doubling
+ * with every further one, up to {@link #MAX_BACKOFF_FACTOR} times
+ * {@code maxDelay}. Until then, the batch keeps collecting demand but is
+ * only retried by {@link #flushDue()} or {@link #flushAll()}, so a
+ * manufacturer that is down does not slow down the fulfilments that feed
+ * it. A failure never reaches the shop that reported the fulfilment.
+ */
+public final class PurchaseOrderBatcher implements OrderListener {
+
+    /**
+     * The longest wait before retrying a failed batch, as a multiple of {@code maxDelay}.
+     */
+    public static final int MAX_BACKOFF_FACTOR = 32;
+
+    private static final System.Logger LOGGER = System.getLogger(PurchaseOrderBatcher.class.getName());
+
+    private static final class Batch {
+        final String manufacturer;
+        final Map<String, Integer> models = new HashMap<>();
+        long startedMillis;
+        int units;
+        int fulfilments;
+        // consecutive failed sends, and when to try again after the last one
+        int failures;
+        long retryAtMillis;
+
+        Batch(String manufacturer, long startedMillis) {
+            this.manufacturer = manufacturer;
+            this.startedMillis = startedMillis;
+        }
+
+        /**
+         * Adds the demand of another batch of the same manufacturer.
+         */
+        void merge(Batch other) {
+            other.models.forEach((model, quantity) -> models.merge(model, quantity, Integer::sum));
+            units += other.units;
+            fulfilments += other.fulfilments;
+            startedMillis = Math.min(startedMillis, other.startedMillis);
+            if (other.failures > failures) {
+                failures = other.failures;
+                retryAtMillis = other.retryAtMillis;
+            }
+        }
+
+        boolean isDue(long now, long maxDelayMillis) {
+            return failures > 0 ? now >= retryAtMillis : now - startedMillis >= maxDelayMillis;
+        }
+    }
+
+    private final PurchaseOrderSender sender;
+    private final int maxUnits;
+    private final long maxDelayMillis;
+    private final Clock clock;
+    private final Map<String, Batch> batches = new HashMap<>();
+    private final LongAdder fulfilmentsBatched = new LongAdder();
+    private final LongAdder purchaseOrdersSent = new LongAdder();
+    private final LongAdder sendFailures = new LongAdder();
+
+    /**
+     * Constructs a batcher using the system clock.
+     *
+     * @param sender receives the consolidated purchase orders; cannot be null.
+     * @param maxUnits the number of units at which a manufacturer's batch is flushed; must be positive.
+     * @param maxDelay the age at which a manufacturer's batch is flushed; must be positive.
+     * @throws IllegalArgumentException if any argument is null or not positive.
+     */
+    public PurchaseOrderBatcher(PurchaseOrderSender sender, int maxUnits, Duration maxDelay) {
+        this(sender, maxUnits, maxDelay, Clock.systemUTC());
+    }
+
+    /**
+     * Constructs a batcher.
+     *
+     * @param sender receives the consolidated purchase orders; cannot be null.
+     * @param maxUnits the number of units at which a manufacturer's batch is flushed; must be positive.
+     * @param maxDelay the age at which a manufacturer's batch is flushed; must be positive.
+     * @param clock the clock used to age batches; cannot be null.
+     * @throws IllegalArgumentException if any argument is null or not positive.
+     */
+    public PurchaseOrderBatcher(PurchaseOrderSender sender, int maxUnits, Duration maxDelay, Clock clock) {
+        if (sender == null || maxDelay == null || clock == null || maxUnits <= 0
+                || maxDelay.isNegative() || maxDelay.isZero()) {
+            throw new IllegalArgumentException("Sender, clock, a positive unit limit and a positive delay are required.");
+        }
+        this.sender = sender;
+        this.maxUnits = maxUnits;
+        this.maxDelayMillis = maxDelay.toMillis();
+        this.clock = clock;
+    }
+
+    /**
+     * Adds the preset demand of a fulfilment and sends every batch that
+     * has reached its size limit, unless it is waiting to be retried.
+     *
+     * @param details the fulfilment details; cannot be null.
+     * @throws IllegalArgumentException if {@code details} is null.
+     */
+    public void add(FulfillmentDetails details) {
+        if (details == null) {
+            throw new IllegalArgumentException("Fulfillment details cannot be null.");
+        }
+        if (details.getPresetOrders().isEmpty()) {
+            return;
+        }
+        List<Batch> ready = new ArrayList<>();
+        synchronized (this) {
+            long now = clock.millis();
+            details.getPresetOrders().forEach((manufacturer, models) -> {
+                Batch batch = batches.computeIfAbsent(manufacturer, m -> new Batch(m, now));
+                models.forEach((model, quantity) -> {
+                    batch.models.merge(model, quantity, Integer::sum);
+                    batch.units += quantity;
+                });
+                batch.fulfilments++;
+                if (batch.units >= maxUnits && batch.failures == 0) {
+                    batches.remove(manufacturer);
+                    ready.add(batch);
+                }
+            });
+        }
+        fulfilmentsBatched.increment();
+        send(ready);
+    }
+
+    /**
+     * Feeds the fulfilment into the batcher.
+     */
+    @Override
+    public void orderFulfilled(Order order, FulfillmentDetails details) {
+        add(details);
+    }
+
+    /**
+     * Sends every batch whose oldest demand has reached the age limit, and
+     * every failed batch whose retry time has come.
+     * @return the number of purchase orders sent.
+     */
+    public int flushDue() {
+        List<Batch> ready = new ArrayList<>();
+        synchronized (this) {
+            long now = clock.millis();
+            Iterator<Map.Entry<String, Batch>> it = batches.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<String, Batch> entry = it.next();
+                if (entry.getValue().isDue(now, maxDelayMillis)) {
+                    it.remove();
+                    ready.add(entry.getValue());
+                }
+            }
+        }
+        return send(ready);
+    }
+
+    /**
+     * Sends every pending batch regardless of its size or age, e.g. on shutdown.
+     * @return the number of purchase orders sent.
+     */
+    public int flushAll() {
+        List<Batch> ready;
+        synchronized (this) {
+            ready = new ArrayList<>(batches.values());
+            batches.clear();
+        }
+        return send(ready);
+    }
+
+    /**
+     * Runs {@link #flushDue()} periodically.
+     *
+     * @param scheduler the scheduler to run on; cannot be null.
+     * @param period the time between two checks; must be positive.
+     * @return the future of the scheduled task, which can be used to cancel it.
+     * @throws IllegalArgumentException if an argument is null or the period is not positive.
+     */
+    public ScheduledFuture<?> schedule(ScheduledExecutorService scheduler, Duration period) {
+        if (scheduler == null || period == null || period.isNegative() || period.isZero()) {
+            throw new IllegalArgumentException("Scheduler and a positive period are required.");
+        }
+        return scheduler.scheduleAtFixedRate(this::flushDue, period.toMillis(), period.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Returns the number of manufacturers with pending demand.
+     * @return the number of open batches.
+     */
+    public synchronized int getPendingBatches() {
+        return batches.size();
+    }
+
+    /**
+     * Returns the number of fulfilments with preset demand added so far.
+     * @return the number of fulfilments.
+     */
+    public long getFulfilmentsBatched() {
+        return fulfilmentsBatched.sum();
+    }
+
+    /**
+     * Returns the number of purchase orders sent so far.
+     * @return the number of purchase orders.
+     */
+    public long getPurchaseOrdersSent() {
+        return purchaseOrdersSent.sum();
+    }
+
+    /**
+     * Returns the number of purchase orders the sender failed to send,
+     * each of which was put back to be retried.
+     * @return the number of failed sends.
+     */
+    public long getSendFailures() {
+        return sendFailures.sum();
+    }
+
+    /**
+     * Sends the given batches, putting back every batch that fails.
+     * @return the number of purchase orders sent.
+     */
+    private int send(List<Batch> ready) {
+        int sent = 0;
+        for (Batch batch : ready) {
+            try {
+                sender.send(new PurchaseOrder(batch.manufacturer, batch.models, batch.fulfilments));
+                purchaseOrdersSent.increment();
+                sent++;
+            } catch (RuntimeException e) {
+                sendFailures.increment();
+                int attempt = batch.failures + 1;
+                long retryIn = requeue(batch);
+                LOGGER.log(System.Logger.Level.WARNING, "Failed to send the purchase order for " + batch.manufacturer
+                        + " (attempt " + attempt + "); retrying in " + retryIn + " ms.", e);
+            }
+        }
+        return sent;
+    }
+
+    /**
+     * Puts back a batch that failed to send, to be retried after a backoff.
+     * @return the backoff in milliseconds.
+     */
+    private synchronized long requeue(Batch batch) {
+        long backoff = maxDelayMillis << Math.min(batch.failures, Integer.numberOfTrailingZeros(MAX_BACKOFF_FACTOR));
+        batch.failures++;
+        batch.retryAtMillis = clock.millis() + backoff;
+        Batch pending = batches.putIfAbsent(batch.manufacturer, batch);
+        if (pending != null) {
+            pending.merge(batch);
+        }
+        return backoff;
+    }
+}
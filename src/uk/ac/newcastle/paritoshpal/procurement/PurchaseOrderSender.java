@@ -0,0 +1,16 @@
+package uk.ac.newcastle.paritoshpal.procurement;
+
+/**
+ * Sends purchase orders to manufacturers.
+ * Implementations are responsible for delivery and retries; a stub can
+ * simply collect the orders for local runs and tests.
+ */
+@FunctionalInterface
+public interface PurchaseOrderSender {
+
+    /**
+     * Sends one purchase order.
+     * @param order the order to send.
+     */
+    void send(PurchaseOrder order);
+}
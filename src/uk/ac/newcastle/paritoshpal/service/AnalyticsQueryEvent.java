@@ -0,0 +1,33 @@
+package uk.ac.newcastle.paritoshpal.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * JDK Flight Recorder event emitted by the analytics queries of {@link PCShopImpl}.
+ * Only queries slower than the threshold are recorded by default.
+ */
+@Name("uk.ac.newcastle.paritoshpal.AnalyticsQuery")
+@Label("Analytics Query")
+@Category({"PC Shop", "Analytics"})
+@Description("An analytics query over the order history.")
+@Threshold("10 ms")
+final class AnalyticsQueryEvent extends jdk.jfr.Event {
+
+    @Label("Query")
+    String query;
+
+    @Label("Cache Hit")
+    @Description("Whether the result was reused from the cache, without scanning any order.")
+    boolean cacheHit = true;
+
+    @Label("Orders Scanned")
+    @Description("Number of fulfilled orders scanned, the only ones the query looks at; zero on a cache hit.")
+    long ordersScanned;
+
+    @Label("Result Found")
+    boolean resultFound;
+}
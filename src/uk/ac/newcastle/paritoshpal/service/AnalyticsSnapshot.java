@@ -0,0 +1,269 @@
+package uk.ac.newcastle.paritoshpal.service;
+
+import uk.ac.newcastle.paritoshpal.analytics.HyperLogLog;
+import uk.ac.newcastle.paritoshpal.dto.CustomerStats;
+import uk.ac.newcastle.paritoshpal.dto.ModelStats;
+import uk.ac.newcastle.paritoshpal.dto.PartsStats;
+import uk.ac.newcastle.paritoshpal.model.customer.Customer;
+import uk.ac.newcastle.paritoshpal.model.customer.CustomerFactory;
+import uk.ac.newcastle.paritoshpal.model.pc.PresetModel;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * An immutable, mergeable summary of the analytic state of a shop: the
+ * fulfilled order counts per customer, the fulfilled units per preset model
+ * and per part, the number of fulfilled orders, and a {@link HyperLogLog}
+ * sketch of the credit cards used to place orders.
+ *
+ * Snapshots of several shop nodes can be exchanged as byte arrays and merged
+ * by a coordinator, which then answers the analytics queries with the same
+ * tie-breaking rules as {@link PCShopImpl}, without any order history.
+ * Merging is associative and commutative, so snapshots can be combined in
+ * any grouping and order. The byte format is deterministic: equal snapshots
+ * serialise to equal bytes.
+ */
+public final class AnalyticsSnapshot {
+
+    private static final int MAGIC = 0x50435341; // "PCSA"
+    private static final byte FORMAT_VERSION = 1;
+
+    private static final Comparator<Customer> CUSTOMER_ORDER = Comparator
+            .comparing(Customer::getFirstName)
+            .thenComparing(Customer::getLastName);
+    private static final Comparator<PresetModel> MODEL_ORDER = Comparator
+            .comparing(PresetModel::getManufacturer)
+            .thenComparing(PresetModel::getName)
+            .thenComparing(model -> String.join("\n", model.getParts()));
+
+    private final long fulfilledOrders;
+    private final Map<Customer,Long> customerOrders;
+    private final Map<PresetModel,Long> modelUnits;
+    private final Map<String,Long> partUnits;
+    private final HyperLogLog cards;
+
+    AnalyticsSnapshot(long fulfilledOrders, Map<Customer,Long> customerOrders, Map<PresetModel,Long> modelUnits,
+                      Map<String,Long> partUnits, HyperLogLog cards) {
+        this.fulfilledOrders = fulfilledOrders;
+        this.customerOrders = Collections.unmodifiableMap(customerOrders);
+        this.modelUnits = Collections.unmodifiableMap(modelUnits);
+        this.partUnits = Collections.unmodifiableMap(partUnits);
+        this.cards = cards;
+    }
+
+    /**
+     * Creates a snapshot with no orders.
+     *
+     * @return the empty snapshot, the identity of {@link #merge}.
+     */
+    public static AnalyticsSnapshot empty() {
+        return new AnalyticsSnapshot(0, new HashMap<>(), new HashMap<>(), new HashMap<>(), new HyperLogLog());
+    }
+
+    /**
+     * Merges this snapshot with another.
+     *
+     * @param other the snapshot to merge; cannot be null.
+     * @return a new snapshot covering the orders of both.
+     * @throws IllegalArgumentException if {@code other} is null.
+     */
+    public AnalyticsSnapshot merge(AnalyticsSnapshot other) {
+        if(other == null){
+            throw new IllegalArgumentException("Snapshot to merge cannot be null.");
+        }
+        return new AnalyticsSnapshot(fulfilledOrders + other.fulfilledOrders,
+                sum(customerOrders, other.customerOrders), sum(modelUnits, other.modelUnits),
+                sum(partUnits, other.partUnits), cards.copy().merge(other.cards));
+    }
+
+    /**
+     * Gets the customer with the most fulfilled orders, as {@link PCShop#getLargestCustomer()}.
+     *
+     * @return the customer statistics, or {@code null} if no order was fulfilled.
+     */
+    public CustomerStats getLargestCustomer() {
+        return PCShopImpl.largestCustomer(customerOrders);
+    }
+
+    /**
+     * Gets the most ordered preset model, as {@link PCShop#getMostOrderedModel()}.
+     *
+     * @return the model statistics, or {@code null} if no preset model was fulfilled.
+     */
+    public ModelStats getMostOrderedModel() {
+        return PCShopImpl.mostOrderedModel(modelUnits);
+    }
+
+    /**
+     * Gets the most ordered part, as {@link PCShop#getMostOrderedPart()}.
+     *
+     * @return the part statistics, or {@code null} if no custom model was fulfilled.
+     */
+    public PartsStats getMostOrderedPart() {
+        return PCShopImpl.mostOrderedPart(partUnits);
+    }
+
+    /**
+     * Gets the number of fulfilled orders.
+     *
+     * @return the count.
+     */
+    public long getFulfilledOrders() {
+        return fulfilledOrders;
+    }
+
+    /**
+     * Estimates the number of distinct credit cards used to place orders.
+     *
+     * @return the estimate.
+     */
+    public long getDistinctCards() {
+        return cards.estimate();
+    }
+
+    /**
+     * Serialises the snapshot.
+     *
+     * @return the serialised snapshot.
+     */
+    public byte[] toBytes() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeByte(FORMAT_VERSION);
+            out.writeLong(fulfilledOrders);
+
+            out.writeInt(customerOrders.size());
+            for (Customer customer : sorted(customerOrders, CUSTOMER_ORDER)) {
+                out.writeUTF(customer.getFirstName());
+                out.writeUTF(customer.getLastName());
+                out.writeLong(customerOrders.get(customer));
+            }
+
+            out.writeInt(modelUnits.size());
+            for (PresetModel model : sorted(modelUnits, MODEL_ORDER)) {
+                out.writeUTF(model.getName());
+                out.writeUTF(model.getManufacturer());
+                out.writeInt(model.getParts().size());
+                for (String part : model.getParts()) {
+                    out.writeUTF(part);
+                }
+                out.writeLong(modelUnits.get(model));
+            }
+
+            out.writeInt(partUnits.size());
+            for (String part : sorted(partUnits, Comparator.naturalOrder())) {
+                out.writeUTF(part);
+                out.writeLong(partUnits.get(part));
+            }
+
+            byte[] sketch = cards.toBytes();
+            out.writeInt(sketch.length);
+            out.write(sketch);
+        } catch (IOException e) {
+            // not thrown by an in-memory stream
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Restores a snapshot serialised by {@link #toBytes()}, possibly on another node.
+     *
+     * @param bytes the serialised snapshot; cannot be null.
+     * @return the snapshot.
+     * @throws IllegalArgumentException if the bytes are not a valid snapshot.
+     */
+    public static AnalyticsSnapshot fromBytes(byte[] bytes) {
+        if(bytes == null){
+            throw new IllegalArgumentException("Serialised snapshot cannot be null.");
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            if (in.readInt() != MAGIC || in.readByte() != FORMAT_VERSION) {
+                throw new IllegalArgumentException("Not a serialised analytics snapshot.");
+            }
+            long fulfilledOrders = in.readLong();
+
+            Map<Customer,Long> customerOrders = new HashMap<>();
+            for (int i = readSize(in); i > 0; i--) {
+                // customers are compared by name, so need not be the shared instances
+                Customer customer = CustomerFactory.createDetachedCustomer(in.readUTF(), in.readUTF());
+                customerOrders.put(customer, in.readLong());
+            }
+
+            Map<PresetModel,Long> modelUnits = new HashMap<>();
+            for (int i = readSize(in); i > 0; i--) {
+                String name = in.readUTF();
+                String manufacturer = in.readUTF();
+                List<String> parts = new ArrayList<>();
+                for (int j = readSize(in); j > 0; j--) {
+                    parts.add(in.readUTF());
+                }
+                modelUnits.put(new PresetModel(name, manufacturer, parts), in.readLong());
+            }
+
+            Map<String,Long> partUnits = new HashMap<>();
+            for (int i = readSize(in); i > 0; i--) {
+                partUnits.put(in.readUTF(), in.readLong());
+            }
+
+            byte[] sketch = new byte[readSize(in)];
+            in.readFully(sketch);
+            if (in.read() != -1) {
+                throw new IllegalArgumentException("Trailing bytes after analytics snapshot.");
+            }
+            return new AnalyticsSnapshot(fulfilledOrders, customerOrders, modelUnits, partUnits,
+                    HyperLogLog.fromBytes(sketch));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Truncated analytics snapshot.", e);
+        }
+    }
+
+    private static int readSize(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        if (size < 0 || size > in.available()) {
+            throw new IllegalArgumentException("Invalid size in analytics snapshot: " + size);
+        }
+        return size;
+    }
+
+    private static <K> Map<K,Long> sum(Map<K,Long> a, Map<K,Long> b) {
+        Map<K,Long> sum = new HashMap<>(a);
+        b.forEach((key, count) -> sum.merge(key, count, Long::sum));
+        return sum;
+    }
+
+    private static <K> List<K> sorted(Map<K,Long> counts, Comparator<? super K> order) {
+        List<K> keys = new ArrayList<>(counts.keySet());
+        keys.sort(order);
+        return keys;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof AnalyticsSnapshot that)) return false;
+        return fulfilledOrders == that.fulfilledOrders
+                && customerOrders.equals(that.customerOrders)
+                && modelUnits.equals(that.modelUnits)
+                && partUnits.equals(that.partUnits)
+                && cards.equals(that.cards);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(fulfilledOrders, customerOrders, modelUnits, partUnits, cards);
+    }
+}
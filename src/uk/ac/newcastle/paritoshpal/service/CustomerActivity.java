@@ -0,0 +1,62 @@
+package uk.ac.newcastle.paritoshpal.service;
+
+import uk.ac.newcastle.paritoshpal.dto.CustomerSummary;
+import uk.ac.newcastle.paritoshpal.model.customer.Customer;
+import uk.ac.newcastle.paritoshpal.model.pc.CustomModel;
+import uk.ac.newcastle.paritoshpal.model.pc.PCModel;
+import uk.ac.newcastle.paritoshpal.model.pc.PresetModel;
+
+import java.util.Date;
+
+/**
+ * The running totals behind a {@link CustomerSummary}.
+ * Updated incrementally by the shop on every state change of one of the
+ * customer's orders, so a summary can be produced without scanning the history.
+ */
+final class CustomerActivity {
+
+    private final Customer customer;
+    private int ordersPlaced;
+    private int ordersFulfilled;
+    private int ordersCancelled;
+    private long presetUnits;
+    private long customParts;
+    private long firstOrderTime = Long.MAX_VALUE;
+    private long lastOrderTime = Long.MIN_VALUE;
+
+    CustomerActivity(Customer customer) {
+        this.customer = customer;
+    }
+
+    void orderPlaced(Order order) {
+        ordersPlaced++;
+        addUnits(order, 1);
+        long time = order.getOrderDate().getTime();
+        firstOrderTime = Math.min(firstOrderTime, time);
+        lastOrderTime = Math.max(lastOrderTime, time);
+    }
+
+    void orderFulfilled() {
+        ordersFulfilled++;
+    }
+
+    void orderCancelled(Order order) {
+        ordersCancelled++;
+        addUnits(order, -1);
+    }
+
+    private void addUnits(Order order, int sign) {
+        for (PCModel model : order.getModels()) {
+            if (model instanceof PresetModel) {
+                presetUnits += sign;
+            } else if (model instanceof CustomModel customModel) {
+                customParts += (long) sign * customModel.getPartCount();
+            }
+        }
+    }
+
+    CustomerSummary toSummary() {
+        return new CustomerSummary(customer, ordersPlaced, ordersFulfilled, ordersCancelled,
+                presetUnits, customParts, new Date(firstOrderTime), new Date(lastOrderTime));
+    }
+}
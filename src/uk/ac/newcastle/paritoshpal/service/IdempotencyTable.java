@@ -0,0 +1,228 @@
+package uk.ac.newcastle.paritoshpal.service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * A thread-safe table remembering which order was placed for each
+ * idempotency key, for a limited time and a limited number of keys.
+ *
+ * Keys are stored in two generations of {@link ConcurrentHashMap}. New keys
+ * go into the current generation; once it is a window old, or holds half of
+ * {@code maxEntries} keys, it becomes the previous generation and the old
+ * previous generation is dropped as a whole. Lookups check both, so a key
+ * is remembered for at least one window unless more than {@code maxEntries / 2}
+ * keys arrive within that window, in which case the oldest are forgotten
+ * early. Memory is therefore bounded by {@code maxEntries} keys, and
+ * expiry costs nothing per key.
+ *
+ * A key is reserved atomically before its order is placed: concurrent
+ * requests with the same key find the reservation and wait for the one
+ * placement to finish, rather than each placing an order. Reservations
+ * take a shared lock that only a generation rotation takes exclusively,
+ * so a key can never be reserved in both generations at once.
+ */
+public final class IdempotencyTable {
+
+    /**
+     * The default deduplication window.
+     */
+    public static final Duration DEFAULT_WINDOW = Duration.ofMinutes(10);
+
+    /**
+     * The default maximum number of remembered keys.
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 100_000;
+
+    private final long windowMillis;
+    private final int generationCapacity;
+    private final Clock clock;
+
+    private volatile Generation current;
+    private volatile Generation previous;
+    private final ReadWriteLock rotationLock = new ReentrantReadWriteLock();
+
+    /**
+     * Constructs a table with the default window and size.
+     */
+    public IdempotencyTable() {
+        this(DEFAULT_WINDOW, DEFAULT_MAX_ENTRIES, Clock.systemUTC());
+    }
+
+    /**
+     * Constructs a table.
+     *
+     * @param window how long a key is remembered; must be positive.
+     * @param maxEntries the maximum number of remembered keys; must be at least 2.
+     * @param clock the clock that dates keys; cannot be null.
+     * @throws IllegalArgumentException if an argument is null or out of range.
+     */
+    public IdempotencyTable(Duration window, int maxEntries, Clock clock) {
+        if (window == null || clock == null || window.toMillis() <= 0 || maxEntries < 2) {
+            throw new IllegalArgumentException("Invalid idempotency table configuration.");
+        }
+        this.windowMillis = window.toMillis();
+        this.generationCapacity = maxEntries / 2;
+        this.clock = clock;
+        long now = clock.millis();
+        this.current = new Generation(now);
+        this.previous = new Generation(now);
+    }
+
+    /**
+     * Gets the order placed for a key within the window.
+     *
+     * @param key the idempotency key.
+     * @return the order, or {@code null} if the key is unknown or expired.
+     */
+    public Order get(String key) {
+        long now = clock.millis();
+        rotateIfNeeded(now);
+        Order order = current.get(key, now - windowMillis);
+        return order != null ? order : previous.get(key, now - windowMillis);
+    }
+
+    /**
+     * Places an order at most once per key. The first caller with a key
+     * runs the placement; any caller arriving while it runs, or afterwards
+     * within the window, gets its order instead. If the placement fails,
+     * the key is released and the exception rethrown, and a waiting caller
+     * runs its own placement.
+     *
+     * @param key the idempotency key; cannot be null.
+     * @param placement places the order; must not return null.
+     * @return the order placed for the key, by this or an earlier call.
+     */
+    public Order placeOnce(String key, Supplier<Order> placement) {
+        while (true) {
+            CompletableFuture<Order> pending = new CompletableFuture<>();
+            CompletableFuture<Order> existing = reserve(key, pending);
+            if (existing == null) {
+                try {
+                    Order order = placement.get();
+                    pending.complete(order);
+                    return order;
+                } catch (RuntimeException | Error e) {
+                    release(key, pending);
+                    pending.completeExceptionally(e);
+                    throw e;
+                }
+            }
+            Order original = await(existing);
+            if (original != null) {
+                return original;
+            }
+        }
+    }
+
+    /**
+     * Reserves a key for an order, unless it is already reserved.
+     *
+     * @return the order, possibly still pending, already reserved for the
+     *         key, or {@code null} if the key was reserved for {@code order}.
+     */
+    private CompletableFuture<Order> reserve(String key, CompletableFuture<Order> order) {
+        long now = clock.millis();
+        rotateIfNeeded(now);
+        long oldest = now - windowMillis;
+        rotationLock.readLock().lock();
+        try {
+            // previous cannot change while the read lock is held
+            Entry earlier = previous.entries.get(key);
+            if (earlier != null && earlier.createdMillis() > oldest) {
+                return earlier.order();
+            }
+            Entry fresh = new Entry(order, now);
+            Entry winner = current.entries.compute(key,
+                    (k, entry) -> entry == null || entry.createdMillis() <= oldest ? fresh : entry);
+            return winner == fresh ? null : winner.order();
+        } finally {
+            rotationLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Drops the reservation of a key whose placement failed.
+     */
+    private void release(String key, CompletableFuture<Order> order) {
+        rotationLock.readLock().lock();
+        try {
+            current.entries.computeIfPresent(key, (k, entry) -> entry.order() == order ? null : entry);
+            previous.entries.computeIfPresent(key, (k, entry) -> entry.order() == order ? null : entry);
+        } finally {
+            rotationLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Waits for a reserved order.
+     *
+     * @return the order, or {@code null} if its placement failed.
+     */
+    private static Order await(CompletableFuture<Order> order) {
+        try {
+            return order.join();
+        } catch (CompletionException | CancellationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Gets the number of keys currently held, including expired keys not yet dropped.
+     *
+     * @return the number of keys.
+     */
+    public int size() {
+        return current.entries.size() + previous.entries.size();
+    }
+
+    private void rotateIfNeeded(long now) {
+        Generation generation = current;
+        if (now - generation.start < windowMillis && generation.entries.size() < generationCapacity) {
+            return;
+        }
+        rotationLock.writeLock().lock();
+        try {
+            if (current == generation) {
+                previous = generation;
+                current = new Generation(now);
+            }
+        } finally {
+            rotationLock.writeLock().unlock();
+        }
+    }
+
+    private record Entry(CompletableFuture<Order> order, long createdMillis) {
+    }
+
+    /**
+     * The keys added during one generation.
+     */
+    private static final class Generation {
+        private final long start;
+        private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+        Generation(long start) {
+            this.start = start;
+        }
+
+        /**
+         * Gets the order placed for a key, or null if it is unknown,
+         * expired, still being placed or failed.
+         */
+        Order get(String key, long oldest) {
+            Entry entry = entries.get(key);
+            if (entry == null || entry.createdMillis() <= oldest || entry.order().isCompletedExceptionally()) {
+                return null;
+            }
+            return entry.order().getNow(null);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package uk.ac.newcastle.paritoshpal.service;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * A lazy k-way merge of iterators that are each sorted in the same order.
+ *
+ * Only the head of every source is held, in a heap, so the merge costs
+ * {@code O(log k)} per element and takes nothing from a source until its
+ * head is needed. Elements that compare equal come in source order. The
+ * sources are first read on the first call to {@link #hasNext()} or
+ * {@link #next()}.
+ *
+ * @param <T> the type of the elements.
+ */
+final class MergingIterator<T> implements Iterator<T> {
+
+    /**
+     * The next element of a source.
+     */
+    private static final class Head<T> {
+        final int source;
+        T value;
+
+        Head(int source, T value) {
+            this.source = source;
+            this.value = value;
+        }
+    }
+
+    private final List<? extends Iterator<T>> sources;
+    private final Comparator<? super T> order;
+    private final boolean skipEqual;
+    private PriorityQueue<Head<T>> heads;
+    private int lastSource = -1;
+    private T last;
+
+    /**
+     * @param sources the sorted iterators to merge.
+     * @param order the order every source is sorted in.
+     * @param skipEqual whether to skip an element equal, in {@code order},
+     *                  to the one returned before it.
+     */
+    MergingIterator(List<? extends Iterator<T>> sources, Comparator<? super T> order, boolean skipEqual) {
+        this.sources = sources;
+        this.order = order;
+        this.skipEqual = skipEqual;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (heads == null) {
+            heads = new PriorityQueue<>(Math.max(1, sources.size()), Comparator
+                    .<Head<T>, T>comparing(head -> head.value, order)
+                    .thenComparingInt(head -> head.source));
+            for (int i = 0; i < sources.size(); i++) {
+                if (sources.get(i).hasNext()) {
+                    heads.add(new Head<>(i, sources.get(i).next()));
+                }
+            }
+        }
+        while (skipEqual && lastSource >= 0 && !heads.isEmpty()
+                && order.compare(heads.peek().value, last) == 0) {
+            advance(heads.poll());
+        }
+        return !heads.isEmpty();
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Head<T> head = heads.poll();
+        T value = head.value;
+        lastSource = head.source;
+        last = value;
+        advance(head);
+        return value;
+    }
+
+    /**
+     * Gets the source the element last returned by {@link #next()} came from.
+     *
+     * @return the index of the source, or {@code -1} before the first element.
+     */
+    int lastSource() {
+        return lastSource;
+    }
+
+    private void advance(Head<T> head) {
+        Iterator<T> source = sources.get(head.source);
+        if (source.hasNext()) {
+            head.value = source.next();
+            heads.add(head);
+        }
+    }
+}
@@ -4,16 +4,25 @@ package uk.ac.newcastle.paritoshpal.service;
 
 import uk.ac.newcastle.paritoshpal.model.customer.Customer;
 import uk.ac.newcastle.paritoshpal.model.payment.CreditCard;
+import uk.ac.newcastle.paritoshpal.model.pc.CustomModel;
 import uk.ac.newcastle.paritoshpal.model.pc.PCModel;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Represents a customer's order in the system.
  * An order is an object containing the customer, the PC models they
  * ordered, and the payment details. Its state ( placed, cancelled, fulfilled)
  * is managed internally.
+ *
+ * The status and a version number, starting at 1 and incremented by every
+ * state change, are packed into a single {@link AtomicLong}, so a transition
+ * is one compare-and-set. A client can therefore make a change conditional
+ * on the version it last read, and learn without any lock whether another
+ * client changed the order first.
  */
 public final class Order {
 
@@ -21,13 +30,28 @@ public final class Order {
     private final List<PCModel> models;
     private final CreditCard creditCard;
     private final Date orderDate;
-    private OrderStatus status;
+
+    /**
+     * Passed as the expected version of an unconditional transition.
+     */
+    static final long ANY_VERSION = -1;
+
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+    private static final int STATUS_BITS = 2;
+    private static final long STATUS_MASK = (1L << STATUS_BITS) - 1;
+
+    // version << STATUS_BITS | status ordinal
+    private final AtomicLong state;
+
+    // position in the history of the shop that placed it, -1 until then
+    private int sequence = -1;
 
     /**
      * Constructs a new {@code Order} instance.
      *
      * Upon creation, the order's date is set to the current time and stats
-     * is set to {@code PLACED}.
+     * is set to {@code PLACED}. Custom models are replaced by
+     * {@link CustomModel#snapshot() frozen snapshots} of their current parts.
      * @param creditCard the credit card used for the purchase; cannot be null.
      * @param models the list of pc models intended being ordered; cannot be null or empty.
      * @param customer the information of customer making the purchase; cannot be null or empty.
@@ -42,10 +66,15 @@ public final class Order {
         this.customer = customer;
         this.creditCard = creditCard;
 
-        this.models =  List.copyOf(models);
+        // freezes custom models, so that changing them later leaves the order as placed
+        List<PCModel> placed = new ArrayList<>(models.size());
+        for (PCModel model : models) {
+            placed.add(model instanceof CustomModel customModel ? customModel.snapshot() : model);
+        }
+        this.models = List.copyOf(placed);
         this.orderDate = new Date();
 
-        this.status = OrderStatus.PLACED;
+        this.state = new AtomicLong(pack(1, OrderStatus.PLACED));
     }
 
     /**
@@ -62,7 +91,7 @@ public final class Order {
      */
 
     public List<PCModel> getModels() {
-        // since list.copyof used, this is already immutable.
+        // since list.copyof used and custom models are frozen, this is already immutable.
         return models;
     }
 
@@ -83,24 +112,67 @@ public final class Order {
         return new Date(orderDate.getTime());
     }
 
+    /**
+     * Gets the time the order was placed, without copying the date.
+     */
+    long getOrderTime() {
+        return orderDate.getTime();
+    }
+
+    /**
+     * Gets the position of the order in the history of its shop.
+     */
+    int getSequence() {
+        return sequence;
+    }
+
+    void setSequence(int sequence) {
+        this.sequence = sequence;
+    }
+
     /**
      * Gets the current status of the order.
      * @return the current {@code OrderStatus}.
      */
 
     public OrderStatus getOrderStatus() {
-        return status;
+        return STATUSES[(int) (state.get() & STATUS_MASK)];
+    }
+
+    /**
+     * Gets the version of the order, incremented by every state change.
+     * @return the current version, starting at 1 when the order is placed.
+     */
+    public long getVersion() {
+        return state.get() >>> STATUS_BITS;
+    }
+
+    /**
+     * Gets the status and version of the order in a single read, so that,
+     * unlike separate calls to {@link #getOrderStatus()} and
+     * {@link #getVersion()}, they cannot straddle a concurrent state change.
+     * @return the current state.
+     */
+    public OrderState getState() {
+        long current = state.get();
+        return new OrderState(STATUSES[(int) (current & STATUS_MASK)], current >>> STATUS_BITS);
     }
     /**
      * Cancels the order if it is currently in the {@code PLACED} state.
      * @throws IllegalStateException if the order has already been fulfilled or cancelled.
      */
      void cancel() {
-        if (this.status == OrderStatus.PLACED) {
-            this.status = OrderStatus.CANCELLED;
-        } else {
-            throw new IllegalStateException("Cannot cancel an order that is already " + this.status);
-        }
+        cancel(ANY_VERSION);
+    }
+
+    /**
+     * Cancels the order if it is still at the expected version.
+     * @param expectedVersion the version the caller last read, or {@link #ANY_VERSION}.
+     * @throws StaleOrderException if the order has changed since that version.
+     * @throws IllegalStateException if the order has already been fulfilled or cancelled.
+     */
+     void cancel(long expectedVersion) {
+        transition(OrderStatus.CANCELLED, expectedVersion);
     }
 
     /**
@@ -108,10 +180,42 @@ public final class Order {
      * @throws IllegalStateException if the order has been cancelled or already fulfilled.
      */
      void fulfill() {
-        if (this.status == OrderStatus.PLACED) {
-            this.status = OrderStatus.FULFILLED;
-        } else {
-            throw new IllegalStateException("Cannot fulfill an order that is " + this.status);
+        fulfill(ANY_VERSION);
+    }
+
+    /**
+     * Fulfills the order if it is still at the expected version.
+     * @param expectedVersion the version the caller last read, or {@link #ANY_VERSION}.
+     * @throws StaleOrderException if the order has changed since that version.
+     * @throws IllegalStateException if the order has been cancelled or already fulfilled.
+     */
+     void fulfill(long expectedVersion) {
+        transition(OrderStatus.FULFILLED, expectedVersion);
+    }
+
+    /**
+     * Moves a {@code PLACED} order to the target status and bumps its version.
+     */
+    private void transition(OrderStatus target, long expectedVersion) {
+        while (true) {
+            long current = state.get();
+            long version = current >>> STATUS_BITS;
+            OrderStatus status = STATUSES[(int) (current & STATUS_MASK)];
+            if (expectedVersion != ANY_VERSION && version != expectedVersion) {
+                throw new StaleOrderException(expectedVersion, version);
+            }
+            if (status != OrderStatus.PLACED) {
+                throw new IllegalStateException(target == OrderStatus.CANCELLED
+                        ? "Cannot cancel an order that is already " + status
+                        : "Cannot fulfill an order that is " + status);
+            }
+            if (state.compareAndSet(current, pack(version + 1, target))) {
+                return;
+            }
         }
     }
+
+    private static long pack(long version, OrderStatus status) {
+        return version << STATUS_BITS | status.ordinal();
+    }
 }
@@ -0,0 +1,29 @@
+package uk.ac.newcastle.paritoshpal.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * JDK Flight Recorder event emitted by {@link PCShopImpl#cancelOrder}.
+ * Only cancellations slower than the threshold are recorded by default.
+ */
+@Name("uk.ac.newcastle.paritoshpal.OrderCancelled")
+@Label("Order Cancelled")
+@Category({"PC Shop", "Orders"})
+@Description("An order was cancelled, or failed to be cancelled.")
+@Threshold("1 ms")
+final class OrderCancelledEvent extends jdk.jfr.Event {
+
+    @Label("Customer")
+    String customer;
+
+    @Label("Models")
+    @Description("Number of models in the order.")
+    int models;
+
+    @Label("Success")
+    boolean success;
+}
@@ -0,0 +1,67 @@
+package uk.ac.newcastle.paritoshpal.service;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Base64;
+
+/**
+ * Encodes the position of a walk over an order history as an opaque,
+ * URL-safe cursor.
+ *
+ * A cursor holds one position per order log: the number of orders of
+ * that log already returned. As logs are append-only, a position stays
+ * valid however many orders are placed afterwards.
+ */
+final class OrderCursor {
+
+    private static final byte VERSION = 1;
+
+    private OrderCursor() {
+        // Empty by design.
+    }
+
+    /**
+     * Encodes the positions in each log.
+     */
+    static String encode(int[] positions) {
+        ByteBuffer buffer = ByteBuffer.allocate(1 + Integer.BYTES * (positions.length + 1));
+        buffer.put(VERSION).putInt(positions.length);
+        for (int position : positions) {
+            buffer.putInt(position);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    /**
+     * Decodes a cursor, or returns the start positions if it is null.
+     *
+     * @param cursor the cursor, or null to start from the first order.
+     * @param logs the number of logs the cursor must cover.
+     * @throws IllegalArgumentException if the cursor is malformed or was
+     * issued for a different number of logs.
+     */
+    static int[] decode(String cursor, int logs) {
+        int[] positions = new int[logs];
+        if (cursor == null) {
+            return positions;
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(Base64.getUrlDecoder().decode(cursor));
+            if (buffer.get() != VERSION || buffer.getInt() != logs) {
+                throw new IllegalArgumentException("Cursor was not issued by this shop.");
+            }
+            for (int i = 0; i < logs; i++) {
+                positions[i] = buffer.getInt();
+                if (positions[i] < 0) {
+                    throw new IllegalArgumentException("Invalid cursor.");
+                }
+            }
+            if (buffer.hasRemaining()) {
+                throw new IllegalArgumentException("Invalid cursor.");
+            }
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Invalid cursor.", e);
+        }
+        return positions;
+    }
+}
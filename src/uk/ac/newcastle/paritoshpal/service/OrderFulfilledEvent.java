@@ -0,0 +1,37 @@
+package uk.ac.newcastle.paritoshpal.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * JDK Flight Recorder event emitted by {@link PCShopImpl#fulfillOrder}.
+ * Only fulfilments slower than the threshold are recorded by default.
+ */
+@Name("uk.ac.newcastle.paritoshpal.OrderFulfilled")
+@Label("Order Fulfilled")
+@Category({"PC Shop", "Orders"})
+@Description("An order was fulfilled, or failed to be fulfilled.")
+@Threshold("1 ms")
+final class OrderFulfilledEvent extends jdk.jfr.Event {
+
+    @Label("Customer")
+    String customer;
+
+    @Label("Models")
+    @Description("Number of models in the order.")
+    int models;
+
+    @Label("Manufacturers")
+    @Description("Number of manufacturers that preset models are ordered from.")
+    int manufacturers;
+
+    @Label("Warehouse Parts")
+    @Description("Number of distinct parts collected from the warehouse.")
+    int parts;
+
+    @Label("Success")
+    boolean success;
+}
@@ -0,0 +1,220 @@
+package uk.ac.newcastle.paritoshpal.service;
+
+import uk.ac.newcastle.paritoshpal.model.customer.Customer;
+import uk.ac.newcastle.paritoshpal.model.pc.CustomModel;
+import uk.ac.newcastle.paritoshpal.model.pc.PCModel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * The secondary indexes over the order history of a {@link PCShopImpl},
+ * and the planner running {@link OrderQuery queries} against them.
+ *
+ * Every index maps a key to the sequence numbers of the matching orders,
+ * in ascending order, so any of them can drive a query that returns
+ * orders in the order they were placed:
+ * <ul>
+ *     <li>status: the {@link OrderPartitions status partitions} of the shop;</li>
+ *     <li>customer and part: append-only lists, as neither ever changes;</li>
+ *     <li>time: the order dates by sequence number, binary searched while
+ *     they are in ascending order. If the clock ever steps back, the dates
+ *     are no longer sorted and the time index is no longer used.</li>
+ * </ul>
+ * The planner estimates how many candidates each applicable index yields,
+ * drives the query with the smallest, and filters those candidates with
+ * the full query.
+ *
+ * Like the shop, this class is not thread-safe.
+ */
+final class OrderIndex implements OrderQuery.Engine {
+
+    private final OrderLog orders;
+    private final OrderPartitions byStatus;
+
+    private final Map<Customer, SequenceList> byCustomer = new HashMap<>();
+    private final Map<String, SequenceList> byPart = new HashMap<>();
+    private long[] dates = new long[16];
+    private boolean datesSorted = true;
+
+    /**
+     * @param orders the history whose sequence numbers the indexes refer to.
+     * @param byStatus the status partitions of the same history.
+     */
+    OrderIndex(OrderLog orders, OrderPartitions byStatus) {
+        this.orders = orders;
+        this.byStatus = byStatus;
+    }
+
+    /**
+     * Indexes an order just appended to the history.
+     */
+    void orderPlaced(Order order) {
+        int sequence = order.getSequence();
+        byCustomer.computeIfAbsent(order.getCustomer(), customer -> new SequenceList()).add(sequence);
+        for (PCModel model : order.getModels()) {
+            Collection<String> parts = model instanceof CustomModel customModel
+                    ? customModel.partCounts().keySet()
+                    : model.getParts();
+            for (String part : parts) {
+                byPart.computeIfAbsent(part, key -> new SequenceList()).add(sequence);
+            }
+        }
+        if (sequence == dates.length) {
+            dates = Arrays.copyOf(dates, sequence * 2);
+        }
+        long time = order.getOrderTime();
+        if (sequence > 0 && time < dates[sequence - 1]) {
+            datesSorted = false;
+        }
+        dates[sequence] = time;
+    }
+
+    @Override
+    public Stream<Order> execute(OrderQuery query) {
+        List<Order> snapshot = orders.snapshot();
+        return plan(query, snapshot.size()).sequences().get()
+                .mapToObj(snapshot::get)
+                .filter(query::matches)
+                .limit(query.limit());
+    }
+
+    @Override
+    public String explain(OrderQuery query) {
+        int n = orders.size();
+        Plan plan = plan(query, n);
+        return plan.index() + " (" + plan.candidates() + " of " + n + " orders)";
+    }
+
+    /**
+     * Picks the index yielding the fewest candidates among the first
+     * {@code n} orders.
+     */
+    private Plan plan(OrderQuery query, int n) {
+        Plan best = new Plan("full scan", n, () -> IntStream.range(0, n));
+        if (query.statuses() != null) {
+            best = cheaper(best, statusPlan(query.statuses(), n));
+        }
+        if (query.customer() != null) {
+            best = cheaper(best, listPlan("customer index", byCustomer.get(query.customer()), n));
+        }
+        if (query.part() != null) {
+            best = cheaper(best, listPlan("part index", byPart.get(query.part()), n));
+        }
+        if ((query.from() != null || query.to() != null) && datesSorted) {
+            int low = query.from() == null ? 0 : firstAtOrAfter(query.from(), n);
+            int high = query.to() == null ? n : firstAtOrAfter(query.to(), n);
+            best = cheaper(best, new Plan("time index", Math.max(0, high - low), () -> IntStream.range(low, high)));
+        }
+        return best;
+    }
+
+    private static Plan cheaper(Plan best, Plan candidate) {
+        return candidate.candidates() < best.candidates() ? candidate : best;
+    }
+
+    private Plan statusPlan(Set<OrderStatus> statuses, int n) {
+        int count = 0;
+        for (OrderStatus status : statuses) {
+            count += byStatus.size(status);
+        }
+        if (statuses.size() == 1) {
+            // walks the live partition, so orders changing status meanwhile are re-checked by the filter
+            NavigableSet<Integer> sequences = byStatus.sequences(statuses.iterator().next()).headSet(n, false);
+            return new Plan("status index", Math.min(count, n),
+                    () -> sequences.stream().mapToInt(Integer::intValue));
+        }
+        // merges the partitions as they are walked; an order migrating meanwhile may be met in two of them
+        return new Plan("status index", Math.min(count, n), () -> {
+            List<Iterator<Integer>> partitions = new ArrayList<>();
+            for (OrderStatus status : statuses) {
+                partitions.add(byStatus.sequences(status).headSet(n, false).iterator());
+            }
+            Iterator<Integer> merged = new MergingIterator<>(partitions, Comparator.naturalOrder(), true);
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(merged,
+                            Spliterator.ORDERED | Spliterator.SORTED | Spliterator.DISTINCT | Spliterator.NONNULL), false)
+                    .mapToInt(Integer::intValue);
+        });
+    }
+
+    private static Plan listPlan(String index, SequenceList list, int n) {
+        if (list == null) {
+            return new Plan(index, 0, IntStream::empty);
+        }
+        int count = list.countBelow(n);
+        return new Plan(index, count, () -> IntStream.range(0, count).map(list::get));
+    }
+
+    /**
+     * Finds the first of the first {@code n} orders placed at or after a time.
+     */
+    private int firstAtOrAfter(long time, int n) {
+        int low = 0;
+        int high = n;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (dates[mid] < time) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * A way of running a query: the index used, how many candidates it
+     * yields and how to produce their sequence numbers, in ascending order.
+     */
+    private record Plan(String index, int candidates, Supplier<IntStream> sequences) {
+    }
+
+    /**
+     * A growable list of ascending sequence numbers, holding each number once.
+     */
+    private static final class SequenceList {
+        private int[] sequences = new int[4];
+        private int size;
+
+        void add(int sequence) {
+            // an order with the same part in several models is listed once
+            if (size > 0 && sequences[size - 1] == sequence) {
+                return;
+            }
+            if (size == sequences.length) {
+                sequences = Arrays.copyOf(sequences, size * 2);
+            }
+            sequences[size++] = sequence;
+        }
+
+        int get(int index) {
+            return sequences[index];
+        }
+
+        /**
+         * Counts the sequence numbers below {@code n}; all of them unless
+         * the list grew since the snapshot was taken.
+         */
+        int countBelow(int n) {
+            int count = size;
+            while (count > 0 && sequences[count - 1] >= n) {
+                count--;
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package uk.ac.newcastle.paritoshpal.service;
+
+import uk.ac.newcastle.paritoshpal.model.fulfillment.FulfillmentDetails;
+
+/**
+ * Receives the state changes of orders in a shop.
+ * Listeners are called synchronously, after the change has been applied,
+ * on the thread that made it, so they should be quick. An exception thrown
+ * by a listener is logged by the shop and otherwise ignored.
+ * All methods do nothing by default.
+ */
+public interface OrderListener {
+
+    /**
+     * Called after an order has been placed.
+     * @param order the new order.
+     */
+    default void orderPlaced(Order order) {
+    }
+
+    /**
+     * Called after an order has been cancelled.
+     * @param order the cancelled order.
+     */
+    default void orderCancelled(Order order) {
+    }
+
+    /**
+     * Called after an order has been fulfilled.
+     * @param order the fulfilled order.
+     * @param details the fulfillment details returned to the caller.
+     */
+    default void orderFulfilled(Order order, FulfillmentDetails details) {
+    }
+}
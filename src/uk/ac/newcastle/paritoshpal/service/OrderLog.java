@@ -0,0 +1,89 @@
+package uk.ac.newcastle.paritoshpal.service;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * The append-only history of the orders placed in a shop.
+ *
+ * A single writer appends orders; any number of readers, on any thread, can
+ * take a snapshot at any time without locking. A snapshot is the prefix of
+ * the log that was published when it was taken: later appends never show
+ * up in it, so it can be read for as long as needed while intake continues.
+ * The backing array only ever grows by copying, so a snapshot keeps
+ * reading the array it was taken from.
+ */
+final class OrderLog {
+
+    private volatile Order[] orders = new Order[16];
+    private volatile int size;
+
+    /**
+     * Appends an order. Must only be called by the single writer.
+     *
+     * @return the position of the order in the log.
+     */
+    int append(Order order) {
+        Order[] current = orders;
+        int n = size;
+        if (n == current.length) {
+            current = Arrays.copyOf(current, n * 2);
+            orders = current;
+        }
+        current[n] = order;
+        // publishes the element to readers that see the new size
+        size = n + 1;
+        return n;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Tells whether the given order is the one appended at the given position.
+     */
+    boolean contains(int position, Order order) {
+        int n = size;
+        return position >= 0 && position < n && orders[position] == order;
+    }
+
+    /**
+     * Takes a snapshot of the orders appended so far.
+     *
+     * @return an unmodifiable list of the orders, in append order.
+     */
+    List<Order> snapshot() {
+        // size first: any array read afterwards holds at least that many orders
+        int n = size;
+        return new Prefix(orders, n);
+    }
+
+    /**
+     * An unmodifiable view of the first {@code size} elements of an array.
+     */
+    private static final class Prefix extends AbstractList<Order> implements RandomAccess {
+        private final Order[] orders;
+        private final int size;
+
+        Prefix(Order[] orders, int size) {
+            this.orders = orders;
+            this.size = size;
+        }
+
+        @Override
+        public Order get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+            }
+            return orders[index];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package uk.ac.newcastle.paritoshpal.service;
+
+import java.util.List;
+
+/**
+ * One page of a walk over the order history of a shop, returned by
+ * {@link PCShop#pageOrders(String, int)}.
+ *
+ * @param orders the orders of the page; an unmodifiable view, not a copy.
+ * @param nextCursor the opaque cursor to pass to get the next page. It is
+ *                   never null: once the history is exhausted, it yields
+ *                   the orders placed afterwards.
+ * @param hasMore whether more orders had been placed when the page was taken.
+ */
+public record OrderPage(List<Order> orders, String nextCursor, boolean hasMore) {
+}
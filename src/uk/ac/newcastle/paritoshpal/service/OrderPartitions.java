@@ -0,0 +1,90 @@
+package uk.ac.newcastle.paritoshpal.service;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * The orders of a shop partitioned by status, so that a scan of, say, the
+ * fulfilled orders never touches a placed or cancelled one.
+ *
+ * Each partition maps the sequence numbers of its orders to the orders, in
+ * ascending order, and an order migrates to another partition when its
+ * status changes. The partitions are skip lists, so iterating one is
+ * weakly consistent: it never fails while orders are added or migrated,
+ * and never returns an order twice.
+ *
+ * A single writer adds and migrates orders; the counts are atomic, so any
+ * thread can read them. While an order migrates it is briefly in both its
+ * old and its new partition, so a reader walking the old partition before
+ * the new one never misses it, but may find it in a partition it has just
+ * left, or twice when walking several partitions. Readers that care
+ * therefore re-check the status of the orders they find, as
+ * {@link OrderIndex} does with the full query, and remove duplicates when
+ * merging partitions. Orders only ever leave the {@code PLACED} partition,
+ * so the cancelled and fulfilled partitions never hold an order in another
+ * status.
+ */
+final class OrderPartitions {
+
+    private final Map<OrderStatus, ConcurrentNavigableMap<Integer, Order>> partitions = new EnumMap<>(OrderStatus.class);
+    private final AtomicIntegerArray sizes = new AtomicIntegerArray(OrderStatus.values().length);
+
+    OrderPartitions() {
+        for (OrderStatus status : OrderStatus.values()) {
+            partitions.put(status, new ConcurrentSkipListMap<>());
+        }
+    }
+
+    /**
+     * Adds an order just appended to the history to its status' partition.
+     */
+    void add(Order order) {
+        OrderStatus status = order.getOrderStatus();
+        partitions.get(status).put(order.getSequence(), order);
+        sizes.incrementAndGet(status.ordinal());
+    }
+
+    /**
+     * Moves an order whose status just changed to its new partition.
+     * The order is added to the new partition before being removed from
+     * the old one, so a concurrent reader walking the old partition, then
+     * the new one, never misses it.
+     */
+    void migrate(Order order, OrderStatus from, OrderStatus to) {
+        partitions.get(to).put(order.getSequence(), order);
+        sizes.incrementAndGet(to.ordinal());
+        partitions.get(from).remove(order.getSequence());
+        sizes.decrementAndGet(from.ordinal());
+    }
+
+    /**
+     * Gets the orders in a status.
+     *
+     * @return an unmodifiable live view, in the order they were placed.
+     */
+    Collection<Order> orders(OrderStatus status) {
+        return Collections.unmodifiableCollection(partitions.get(status).values());
+    }
+
+    /**
+     * Gets the sequence numbers of the orders in a status.
+     *
+     * @return an unmodifiable live view, in ascending order.
+     */
+    NavigableSet<Integer> sequences(OrderStatus status) {
+        return Collections.unmodifiableNavigableSet(partitions.get(status).keySet());
+    }
+
+    /**
+     * Counts the orders in a status, in constant time.
+     */
+    int size(OrderStatus status) {
+        return sizes.get(status.ordinal());
+    }
+}
@@ -0,0 +1,29 @@
+package uk.ac.newcastle.paritoshpal.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * JDK Flight Recorder event emitted by {@link PCShopImpl#placeOrder}.
+ * Only placements slower than the threshold are recorded by default.
+ */
+@Name("uk.ac.newcastle.paritoshpal.OrderPlaced")
+@Label("Order Placed")
+@Category({"PC Shop", "Orders"})
+@Description("An order was placed, or failed to be placed.")
+@Threshold("1 ms")
+final class OrderPlacedEvent extends jdk.jfr.Event {
+
+    @Label("Customer")
+    String customer;
+
+    @Label("Models")
+    @Description("Number of models in the order.")
+    int models;
+
+    @Label("Success")
+    boolean success;
+}
@@ -0,0 +1,242 @@
+package uk.ac.newcastle.paritoshpal.service;
+
+import uk.ac.newcastle.paritoshpal.model.customer.Customer;
+import uk.ac.newcastle.paritoshpal.model.pc.CustomModel;
+import uk.ac.newcastle.paritoshpal.model.pc.PCModel;
+
+import java.util.Date;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * A composable query over the orders of a shop, obtained from
+ * {@link PCShop#orders()}, for example
+ * {@code shop.orders().status(FULFILLED).customer(c).between(from, to).containsPart("ssd").limit(10)}.
+ *
+ * A query is immutable: every criterion method returns a new query, so a
+ * partial query can be kept and refined. Criteria combine with a logical
+ * and; setting the same criterion twice replaces it.
+ *
+ * When the query runs, the shop picks the most selective of its order
+ * indexes (by status, customer, order date or part) to find the candidate
+ * orders, and only checks the remaining criteria against those candidates.
+ * {@link #explain()} tells which index would be used.
+ */
+public final class OrderQuery {
+
+    /**
+     * Runs queries against the orders of a shop.
+     */
+    interface Engine {
+
+        /**
+         * Streams the orders matching the query, in the order they were placed.
+         */
+        Stream<Order> execute(OrderQuery query);
+
+        /**
+         * Describes how the query would be run.
+         */
+        String explain(OrderQuery query);
+    }
+
+    private final Engine engine;
+    // null when a criterion is not set
+    private final Set<OrderStatus> statuses;
+    private final Customer customer;
+    private final Long from;
+    private final Long to;
+    private final String part;
+    private final long limit;
+
+    OrderQuery(Engine engine) {
+        this(engine, null, null, null, null, null, Long.MAX_VALUE);
+    }
+
+    private OrderQuery(Engine engine, Set<OrderStatus> statuses, Customer customer,
+                       Long from, Long to, String part, long limit) {
+        this.engine = engine;
+        this.statuses = statuses;
+        this.customer = customer;
+        this.from = from;
+        this.to = to;
+        this.part = part;
+        this.limit = limit;
+    }
+
+    /**
+     * Restricts the query to orders in one of the given statuses.
+     *
+     * @param first a status to match; cannot be null.
+     * @param rest more statuses to match.
+     * @return the refined query.
+     * @throws IllegalArgumentException if a status is null.
+     */
+    public OrderQuery status(OrderStatus first, OrderStatus... rest) {
+        if (first == null || rest == null) {
+            throw new IllegalArgumentException("Status cannot be null.");
+        }
+        for (OrderStatus status : rest) {
+            if (status == null) {
+                throw new IllegalArgumentException("Status cannot be null.");
+            }
+        }
+        return new OrderQuery(engine, EnumSet.of(first, rest), customer, from, to, part, limit);
+    }
+
+    /**
+     * Restricts the query to the orders of a customer.
+     *
+     * @param customer the customer; cannot be null.
+     * @return the refined query.
+     * @throws IllegalArgumentException if {@code customer} is null.
+     */
+    public OrderQuery customer(Customer customer) {
+        if (customer == null) {
+            throw new IllegalArgumentException("Customer cannot be null.");
+        }
+        return new OrderQuery(engine, statuses, customer, from, to, part, limit);
+    }
+
+    /**
+     * Restricts the query to orders placed in a date range.
+     *
+     * @param from the earliest order date, inclusive, or null for no lower bound.
+     * @param to the latest order date, exclusive, or null for no upper bound.
+     * @return the refined query.
+     * @throws IllegalArgumentException if both dates are given and {@code to} is before {@code from}.
+     */
+    public OrderQuery between(Date from, Date to) {
+        if (from != null && to != null && to.before(from)) {
+            throw new IllegalArgumentException("A valid date range is required.");
+        }
+        return new OrderQuery(engine, statuses, customer,
+                from == null ? null : from.getTime(), to == null ? null : to.getTime(), part, limit);
+    }
+
+    /**
+     * Restricts the query to orders with a model containing the given part,
+     * whether a part of a preset model or of a custom model.
+     *
+     * @param part the part; cannot be null or blank.
+     * @return the refined query.
+     * @throws IllegalArgumentException if {@code part} is null or blank.
+     */
+    public OrderQuery containsPart(String part) {
+        if (part == null || part.isBlank()) {
+            throw new IllegalArgumentException("Part cannot be null or blank.");
+        }
+        return new OrderQuery(engine, statuses, customer, from, to, part, limit);
+    }
+
+    /**
+     * Caps the number of orders the query returns.
+     *
+     * @param limit the maximum number of orders; cannot be negative.
+     * @return the refined query.
+     * @throws IllegalArgumentException if {@code limit} is negative.
+     */
+    public OrderQuery limit(long limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit cannot be negative.");
+        }
+        return new OrderQuery(engine, statuses, customer, from, to, part, limit);
+    }
+
+    /**
+     * Runs the query. Candidate orders are checked as the stream is consumed,
+     * so a short-circuiting stream only visits the candidates it needs.
+     *
+     * The stream reads the shop's indexes as it goes, so it must be
+     * consumed before the shop is modified again, unless the shop says otherwise.
+     *
+     * @return the matching orders, in the order they were placed.
+     */
+    public Stream<Order> stream() {
+        return engine.execute(this);
+    }
+
+    /**
+     * Runs the query and collects the result.
+     *
+     * @return an unmodifiable list of the matching orders, in the order they were placed.
+     */
+    public List<Order> toList() {
+        return stream().toList();
+    }
+
+    /**
+     * Runs the query and counts the result.
+     *
+     * @return the number of matching orders.
+     */
+    public long count() {
+        return stream().count();
+    }
+
+    /**
+     * Describes how the query would be run, naming the index it would use
+     * and how many candidate orders that index yields.
+     *
+     * @return a human-readable plan.
+     */
+    public String explain() {
+        return engine.explain(this);
+    }
+
+    /**
+     * Checks an order against every criterion of this query.
+     */
+    boolean matches(Order order) {
+        if (statuses != null && !statuses.contains(order.getOrderStatus())) {
+            return false;
+        }
+        if (customer != null && !customer.equals(order.getCustomer())) {
+            return false;
+        }
+        if (from != null || to != null) {
+            long time = order.getOrderTime();
+            if ((from != null && time < from) || (to != null && time >= to)) {
+                return false;
+            }
+        }
+        if (part != null) {
+            for (PCModel model : order.getModels()) {
+                boolean found = model instanceof CustomModel customModel
+                        ? customModel.partCounts().containsKey(part)
+                        : model.getParts().contains(part);
+                if (found) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return true;
+    }
+
+    Set<OrderStatus> statuses() {
+        return statuses;
+    }
+
+    Customer customer() {
+        return customer;
+    }
+
+    Long from() {
+        return from;
+    }
+
+    Long to() {
+        return to;
+    }
+
+    String part() {
+        return part;
+    }
+
+    long limit() {
+        return limit;
+    }
+}
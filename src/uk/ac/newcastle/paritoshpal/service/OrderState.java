@@ -0,0 +1,11 @@
+package uk.ac.newcastle.paritoshpal.service;
+
+/**
+ * The status and version of an order, read together at one instant by
+ * {@link Order#getState()}, so that they always belong to the same state.
+ *
+ * @param status the status of the order.
+ * @param version the version of the order, starting at 1 when it is placed.
+ */
+public record OrderState(OrderStatus status, long version) {
+}
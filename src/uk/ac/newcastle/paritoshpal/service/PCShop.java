@@ -2,6 +2,7 @@ package uk.ac.newcastle.paritoshpal.service;
 
 
 import uk.ac.newcastle.paritoshpal.dto.CustomerStats;
+import uk.ac.newcastle.paritoshpal.dto.CustomerSummary;
 import uk.ac.newcastle.paritoshpal.dto.ModelStats;
 import uk.ac.newcastle.paritoshpal.dto.PartsStats;
 import uk.ac.newcastle.paritoshpal.model.customer.Customer;
@@ -27,14 +28,34 @@ public interface PCShop {
      * @return the newly created {@code Order} object, which is added to the order history.
      * @throws IllegalArgumentException if any of the parameters are null, the models list is empty,
      * or the credit card is invalid.
+     * @throws IllegalStateException if the shop tracks warehouse stock and a part
+     * of a custom model is not in stock.
      */
     Order placeOrder(List<PCModel> models, Customer customer, CreditCard creditCard);
 
+    /**
+     * Places a new order at most once per idempotency key, so that a client
+     * can safely retry a request whose response it did not receive.
+     * If an order was already placed with the same key within the shop's
+     * deduplication window, that original order is returned and nothing is placed.
+     *
+     * @param idempotencyKey the client-chosen key of the request; cannot be null or blank.
+     * @param models     the list of PC models being ordered; cannot be null or empty.
+     * @param customer   the customer placing the order; cannot be null.
+     * @param creditCard the credit card used for payment; cannot be null and must be valid.
+     * @return the newly created {@code Order}, or the original order placed with this key.
+     * @throws IllegalArgumentException if any of the parameters are null, the models list is empty,
+     * the credit card is invalid, or the key was already used by a different customer.
+     * @throws IllegalStateException if the shop tracks warehouse stock and a part
+     * of a custom model is not in stock.
+     */
+    Order placeOrder(String idempotencyKey, List<PCModel> models, Customer customer, CreditCard creditCard);
+
     /**
      * Cancels an existing order.
      *
      * @param order the order to be cancelled; cannot be null.
-     * @throws IllegalArgumentException if the provided {@code order} is null.
+     * @throws IllegalArgumentException if the provided {@code order} is null or was not placed in this shop.
      * @throws IllegalStateException    if the order is not in a state that can be cancelled
      */
     void cancelOrder(Order order);
@@ -44,11 +65,36 @@ public interface PCShop {
      *
      * @param order the order to be fulfilled; cannot be null.
      * @return the {@code FulfillmentDetails} required to process the order.
-     * @throws IllegalArgumentException if the provided {@code order} is null.
+     * @throws IllegalArgumentException if the provided {@code order} is null or was not placed in this shop.
      * @throws IllegalStateException    if the order is not in a state that can be fulfilled
      */
      FulfillmentDetails fulfillOrder(Order order);
 
+    /**
+     * Cancels an order only if it has not changed since the caller read it.
+     *
+     * @param order the order to be cancelled; cannot be null.
+     * @param expectedVersion the {@link Order#getVersion() version} the caller last read; at least 1.
+     * @throws IllegalArgumentException if the provided {@code order} is null or was not placed in this shop,
+     *                                  or if {@code expectedVersion} is less than 1.
+     * @throws StaleOrderException      if the order's version is no longer {@code expectedVersion}.
+     * @throws IllegalStateException    if the order is not in a state that can be cancelled
+     */
+    void cancelIfVersion(Order order, long expectedVersion);
+
+    /**
+     * Fulfills an order only if it has not changed since the caller read it.
+     *
+     * @param order the order to be fulfilled; cannot be null.
+     * @param expectedVersion the {@link Order#getVersion() version} the caller last read; at least 1.
+     * @return the {@code FulfillmentDetails} required to process the order.
+     * @throws IllegalArgumentException if the provided {@code order} is null or was not placed in this shop,
+     *                                  or if {@code expectedVersion} is less than 1.
+     * @throws StaleOrderException      if the order's version is no longer {@code expectedVersion}.
+     * @throws IllegalStateException    if the order is not in a state that can be fulfilled
+     */
+    FulfillmentDetails fulfillIfVersion(Order order, long expectedVersion);
+
     /**
      * Gets the customer with the most fulfilled orders.
      * In case of a tie, the customer whose name comes first alphabetically is returned.
@@ -76,4 +122,40 @@ public interface PCShop {
      * or {@code null} if no custom parts have been ordered.
      */
      PartsStats getMostOrderedPart();
+
+    /**
+     * Starts a query over the orders of this shop. The returned query
+     * matches every order; refine it with its criterion methods, e.g.
+     * {@code orders().status(OrderStatus.FULFILLED).customer(customer).limit(10).toList()}.
+     *
+     * @return a query matching every order.
+     */
+     OrderQuery orders();
+
+    /**
+     * Gets a page of the order history, to walk it incrementally without
+     * copying it. Pass a null cursor to get the first page, then the
+     * {@link OrderPage#nextCursor() next cursor} of each page to get the next.
+     * A cursor stays valid while new orders are placed: a walk returns every
+     * order exactly once, including those placed after the walk started.
+     *
+     * @param cursor the cursor returned with the previous page, or null to start.
+     * @param pageSize the maximum number of orders in the page; must be positive.
+     * @return the page, empty if no order was placed since the cursor.
+     * @throws IllegalArgumentException if {@code pageSize} is not positive or
+     * the cursor was not issued by this shop.
+     */
+     OrderPage pageOrders(String cursor, int pageSize);
+
+    /**
+     * Gets a summary of a customer's order activity: how many orders they
+     * placed, fulfilled and cancelled, how many preset units and custom parts
+     * they ordered, and when they first and last ordered.
+     *
+     * @param customer the customer to summarise; cannot be null.
+     * @return a {@code CustomerSummary} for the customer,
+     * or {@code null} if the customer has never placed an order.
+     * @throws IllegalArgumentException if the provided {@code customer} is null.
+     */
+     CustomerSummary getCustomerSummary(Customer customer);
 }
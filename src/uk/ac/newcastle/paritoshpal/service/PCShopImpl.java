@@ -2,9 +2,16 @@ package uk.ac.newcastle.paritoshpal.service;
 
 
 
+import uk.ac.newcastle.paritoshpal.analytics.HyperLogLog;
+import uk.ac.newcastle.paritoshpal.dto.CacheStats;
 import uk.ac.newcastle.paritoshpal.dto.CustomerStats;
+import uk.ac.newcastle.paritoshpal.dto.CustomerSummary;
 import uk.ac.newcastle.paritoshpal.dto.ModelStats;
 import uk.ac.newcastle.paritoshpal.dto.PartsStats;
+import uk.ac.newcastle.paritoshpal.inventory.Inventory;
+import uk.ac.newcastle.paritoshpal.inventory.Reservation;
+import uk.ac.newcastle.paritoshpal.metrics.Operation;
+import uk.ac.newcastle.paritoshpal.metrics.ShopMetrics;
 import uk.ac.newcastle.paritoshpal.model.customer.Customer;
 import uk.ac.newcastle.paritoshpal.model.fulfillment.FulfillmentDetails;
 import uk.ac.newcastle.paritoshpal.model.payment.CreditCard;
@@ -13,17 +20,205 @@ import uk.ac.newcastle.paritoshpal.model.pc.PCModel;
 import uk.ac.newcastle.paritoshpal.model.pc.PresetModel;
 
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * The concrete implementation of the {@link PCShop} service interface.
  * This class manages the history of all orders and provides the business logic
  * for placing, cancelling, and fulfilling orders, as well as for generating
  * analytics about the order history.
+ *
+ * Every operation is measured by a {@link ShopMetrics} instance, available
+ * through {@link #getMetrics()}, and emits a JDK Flight Recorder event when
+ * recording is enabled and the call is slower than the event's threshold.
+ *
+ * Analytics results are cached against a modification version that every
+ * successful place, cancel or fulfil bumps, so repeated queries between two
+ * writes are answered without rescanning the history.
+ * A per-customer summary is likewise maintained incrementally.
+ *
+ * When constructed with an {@link Inventory}, the parts of custom models are
+ * reserved when an order is placed, and the reservation is committed when
+ * the order is fulfilled or released when it is cancelled.
+ *
+ * Components such as procurement or analytics can follow every state change
+ * by registering an {@link OrderListener}.
+ *
+ * Conditional cancels and fulfils compare-and-set the order's version, so
+ * a client acting on a stale read fails with a {@link StaleOrderException}.
+ *
+ * Orders placed with an idempotency key are remembered in an
+ * {@link IdempotencyTable}, so a retried request returns the original order.
+ *
+ * Orders are also partitioned by status, migrating between partitions
+ * as they are cancelled or fulfilled, so the analytics only scan the
+ * fulfilled orders. The history is further indexed by customer, order date
+ * and part, and {@link #orders() queries} are driven by the most selective
+ * index.
  */
 public final class PCShopImpl implements PCShop {
 
-    private final List<Order> orderHistory = new ArrayList<>();
+    private static final System.Logger LOGGER = System.getLogger(PCShopImpl.class.getName());
+
+    private final OrderLog orderHistory = new OrderLog();
+    private final OrderPartitions ordersByStatus = new OrderPartitions();
+    private final OrderIndex orderIndex = new OrderIndex(orderHistory, ordersByStatus);
+    private final ShopMetrics metrics = new ShopMetrics();
+
+    // bumped after every state change; cached analytics are valid for one version
+    private final AtomicLong modificationVersion = new AtomicLong();
+    private final VersionedCache<CustomerStats> largestCustomerCache = new VersionedCache<>();
+    private final VersionedCache<ModelStats> mostOrderedModelCache = new VersionedCache<>();
+    private final VersionedCache<PartsStats> mostOrderedPartCache = new VersionedCache<>();
+
+    private final Map<Customer, CustomerActivity> customerActivity = new HashMap<>();
+    // the credit cards of every order placed, copied into analytics snapshots
+    private final HyperLogLog cardSketch = new HyperLogLog();
+
+    // null when stock is not tracked
+    private final Inventory inventory;
+    private final Map<Order, Reservation> reservations = new HashMap<>();
+
+    private final List<OrderListener> listeners = new CopyOnWriteArrayList<>();
+
+    private final IdempotencyTable idempotencyTable;
+
+    /**
+     * Constructs a shop that does not track warehouse stock.
+     */
+    public PCShopImpl() {
+        this.inventory = null;
+        this.idempotencyTable = new IdempotencyTable();
+    }
+
+    /**
+     * Constructs a shop that reserves the parts of custom models in the
+     * given inventory.
+     *
+     * @param inventory the warehouse inventory; cannot be null.
+     * @throws IllegalArgumentException if {@code inventory} is null.
+     */
+    public PCShopImpl(Inventory inventory) {
+        if(inventory == null){
+            throw new IllegalArgumentException("Inventory cannot be null.");
+        }
+        this.inventory = inventory;
+        this.idempotencyTable = new IdempotencyTable();
+    }
+
+    /**
+     * Constructs a shop that deduplicates keyed orders with the given table.
+     *
+     * @param inventory the warehouse inventory, or null not to track stock.
+     * @param idempotencyTable the table remembering idempotency keys; cannot be null.
+     * @throws IllegalArgumentException if {@code idempotencyTable} is null.
+     */
+    public PCShopImpl(Inventory inventory, IdempotencyTable idempotencyTable) {
+        if(idempotencyTable == null){
+            throw new IllegalArgumentException("Idempotency table cannot be null.");
+        }
+        this.inventory = inventory;
+        this.idempotencyTable = idempotencyTable;
+    }
+
+    /**
+     * Returns the metrics of this shop: per-operation call counts and
+     * latencies, and the number of orders in each status.
+     *
+     * @return the live metrics of this shop.
+     */
+    public ShopMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Registers a listener that is notified after every successful place,
+     * cancel and fulfil. An exception thrown by a listener is logged and
+     * does not affect the operation or the other listeners.
+     *
+     * @param listener the listener to add; cannot be null.
+     * @throws IllegalArgumentException if {@code listener} is null.
+     */
+    public void addOrderListener(OrderListener listener) {
+        if(listener == null){
+            throw new IllegalArgumentException("Listener cannot be null.");
+        }
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes a previously registered listener.
+     *
+     * @param listener the listener to remove.
+     * @return {@code true} if the listener was registered.
+     */
+    public boolean removeOrderListener(OrderListener listener) {
+        return listeners.remove(listener);
+    }
+
+    /**
+     * Returns the hit and miss counts of the analytics result cache,
+     * summed over the three analytics queries.
+     *
+     * @return the cache statistics.
+     */
+    public CacheStats getAnalyticsCacheStats() {
+        return new CacheStats(
+                largestCustomerCache.hits() + mostOrderedModelCache.hits() + mostOrderedPartCache.hits(),
+                largestCustomerCache.misses() + mostOrderedModelCache.misses() + mostOrderedPartCache.misses());
+    }
+
+    /**
+     * Takes a snapshot of the order history, e.g. to export it.
+     * Unlike the rest of this class, this method may be called from any
+     * thread while orders keep being placed: the snapshot is the history as
+     * it was when taken, and never changes. The statuses of its orders do
+     * still change as they are cancelled or fulfilled.
+     *
+     * @return an unmodifiable list of the orders, in the order they were placed.
+     */
+    public List<Order> getOrderSnapshot() {
+        return orderHistory.snapshot();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * Orders are paged in the order they were placed, and a page is a view
+     * of the history, not a copy. Like {@link #getOrderSnapshot()}, this
+     * method may be called from any thread.
+     */
+
+    @Override
+    public OrderPage pageOrders(String cursor, int pageSize) {
+        if(pageSize <= 0){
+            throw new IllegalArgumentException("Page size must be positive.");
+        }
+        int position = OrderCursor.decode(cursor, 1)[0];
+        List<Order> history = orderHistory.snapshot();
+        if(position > history.size()){
+            throw new IllegalArgumentException("Cursor was not issued by this shop.");
+        }
+        int end = (int) Math.min((long) position + pageSize, history.size());
+        return new OrderPage(history.subList(position, end), OrderCursor.encode(new int[]{end}),
+                end < history.size());
+    }
+
+    /**
+     * Takes a mergeable snapshot of the analytic state of this shop, to be
+     * combined with the snapshots of other shop nodes.
+     *
+     * @return the snapshot.
+     */
+    public AnalyticsSnapshot getAnalyticsSnapshot() {
+        return new AnalyticsSnapshot(ordersByStatus.size(OrderStatus.FULFILLED), countFulfilledOrdersByCustomer(), countFulfilledPresetModels(),
+                countFulfilledParts(), cardSketch.copy());
+    }
 
     /**
      * {@inheritDoc}
@@ -31,6 +226,47 @@ public final class PCShopImpl implements PCShop {
 
     @Override
     public Order placeOrder(List<PCModel> models, Customer customer, CreditCard creditCard) {
+        OrderPlacedEvent event = new OrderPlacedEvent();
+        event.begin();
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            Order order = doPlaceOrder(models, customer, creditCard);
+            modificationVersion.incrementAndGet();
+            metrics.orderPlaced();
+            notifyListeners(listener -> listener.orderPlaced(order));
+            success = true;
+            return order;
+        } finally {
+            metrics.record(Operation.PLACE_ORDER, start, success);
+            event.end();
+            if (event.shouldCommit()) {
+                event.customer = String.valueOf(customer);
+                event.models = models == null ? 0 : models.size();
+                event.success = success;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+
+    @Override
+    public Order placeOrder(String idempotencyKey, List<PCModel> models, Customer customer, CreditCard creditCard) {
+        if(idempotencyKey == null || idempotencyKey.isBlank()){
+            throw new IllegalArgumentException("Idempotency key cannot be null or blank.");
+        }
+        // reserves the key first, so concurrent retries cannot both place an order
+        Order order = idempotencyTable.placeOnce(idempotencyKey, () -> placeOrder(models, customer, creditCard));
+        if(!order.getCustomer().equals(customer)){
+            throw new IllegalArgumentException("Idempotency key was already used by another customer.");
+        }
+        return order;
+    }
+
+    private Order doPlaceOrder(List<PCModel> models, Customer customer, CreditCard creditCard) {
         // 1. Validate all inputs first
         if (models == null || models.isEmpty() || customer == null || creditCard == null) {
             throw new IllegalArgumentException("Models, customer, and credit card cannot be null.");
@@ -44,7 +280,19 @@ public final class PCShopImpl implements PCShop {
         // 3. If everything is valid, create the order
         Order newOrder = new Order(creditCard,models,customer);
 
-        this.orderHistory.add(newOrder);
+        // 4. Reserve the warehouse parts; throws if any part is out of stock
+        if (inventory != null) {
+            Map<String,Integer> parts = customPartsOf(newOrder.getModels());
+            if (!parts.isEmpty()) {
+                reservations.put(newOrder, inventory.reserve(parts));
+            }
+        }
+
+        newOrder.setSequence(this.orderHistory.append(newOrder));
+        ordersByStatus.add(newOrder);
+        orderIndex.orderPlaced(newOrder);
+        customerActivity.computeIfAbsent(customer, CustomerActivity::new).orderPlaced(newOrder);
+        cardSketch.offer(creditCard.getNumber());
 
         return newOrder;
     }
@@ -55,10 +303,50 @@ public final class PCShopImpl implements PCShop {
 
     @Override
     public void cancelOrder(Order order) {
-        if(order == null){
-            throw new IllegalArgumentException("Order to be cancelled cannot be null.");
+        cancel(order, Order.ANY_VERSION);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+
+    @Override
+    public void cancelIfVersion(Order order, long expectedVersion) {
+        checkExpectedVersion(expectedVersion);
+        cancel(order, expectedVersion);
+    }
+
+    private void cancel(Order order, long expectedVersion) {
+        OrderCancelledEvent event = new OrderCancelledEvent();
+        event.begin();
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            if(order == null){
+                throw new IllegalArgumentException("Order to be cancelled cannot be null.");
+            }
+            checkPlacedHere(order);
+            order.cancel(expectedVersion);
+            modificationVersion.incrementAndGet();
+            ordersByStatus.migrate(order, OrderStatus.PLACED, OrderStatus.CANCELLED);
+            Reservation reservation = reservations.remove(order);
+            if (reservation != null) {
+                inventory.release(reservation);
+            }
+            customerActivity.get(order.getCustomer()).orderCancelled(order);
+            metrics.orderStatusChanged(OrderStatus.PLACED, OrderStatus.CANCELLED);
+            notifyListeners(listener -> listener.orderCancelled(order));
+            success = true;
+        } finally {
+            metrics.record(Operation.CANCEL_ORDER, start, success);
+            event.end();
+            if (event.shouldCommit() && order != null) {
+                event.customer = order.getCustomer().toString();
+                event.models = order.getModels().size();
+                event.success = success;
+                event.commit();
+            }
         }
-        order.cancel();
     }
 
     /**
@@ -67,11 +355,70 @@ public final class PCShopImpl implements PCShop {
 
     @Override
     public FulfillmentDetails fulfillOrder(Order order) {
+        return fulfill(order, Order.ANY_VERSION);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+
+    @Override
+    public FulfillmentDetails fulfillIfVersion(Order order, long expectedVersion) {
+        checkExpectedVersion(expectedVersion);
+        return fulfill(order, expectedVersion);
+    }
+
+    /**
+     * Rejects a version no order can have. Versions start at 1, and the
+     * negative {@link Order#ANY_VERSION} would silently skip the check.
+     */
+    static void checkExpectedVersion(long expectedVersion) {
+        if(expectedVersion < 1){
+            throw new IllegalArgumentException("Expected version must be at least 1.");
+        }
+    }
+
+    private FulfillmentDetails fulfill(Order order, long expectedVersion) {
+        OrderFulfilledEvent event = new OrderFulfilledEvent();
+        event.begin();
+        long start = System.nanoTime();
+        FulfillmentDetails details = null;
+        try {
+            details = doFulfillOrder(order, expectedVersion);
+            FulfillmentDetails fulfilled = details;
+            notifyListeners(listener -> listener.orderFulfilled(order, fulfilled));
+            return details;
+        } finally {
+            metrics.record(Operation.FULFILL_ORDER, start, details != null);
+            event.end();
+            if (event.shouldCommit() && order != null) {
+                event.customer = order.getCustomer().toString();
+                event.models = order.getModels().size();
+                if (details != null) {
+                    event.manufacturers = details.getPresetOrders().size();
+                    event.parts = details.getWarehouseParts().size();
+                    event.success = true;
+                }
+                event.commit();
+            }
+        }
+    }
+
+    private FulfillmentDetails doFulfillOrder(Order order, long expectedVersion) {
         if (order == null){
             throw new IllegalArgumentException("Order to be fulfillment cannot be null.");
         }
-
-        order.fulfill(); // will throw error if order is not PLACED
+        checkPlacedHere(order);
+
+        order.fulfill(expectedVersion); // will throw error if order is not PLACED or has changed
+        modificationVersion.incrementAndGet();
+        ordersByStatus.migrate(order, OrderStatus.PLACED, OrderStatus.FULFILLED);
+        Reservation reservation = reservations.remove(order);
+        if (reservation != null) {
+            inventory.commit(reservation);
+        }
+        customerActivity.get(order.getCustomer()).orderFulfilled();
+        metrics.orderStatusChanged(OrderStatus.PLACED, OrderStatus.FULFILLED);
 
         Map<String, Map<String,Integer>> presetOrders = new HashMap<>();
         Map<String,Integer> warehouseParts = new HashMap<>();
@@ -106,26 +453,96 @@ public final class PCShopImpl implements PCShop {
                 }
             }
             else if(model instanceof CustomModel customModel){
-                // Custom Model contains list of parts
-                // Loop through the list, get unique parts
-                for (String part : customModel.getParts()){
-                    // Get Current count for this part
-                    Integer currentPartCount = warehouseParts.get(part);
-
-                    // If we have never seen this part, set count to 1
-                    if(currentPartCount == null){
-                        warehouseParts.put(part,1);
-                    }
-                    // else increment the counter
-                    else {
-                        warehouseParts.put(part,currentPartCount+1);
-                    }
+                // Custom Model holds each distinct part with its quantity
+                // add every quantity to the count of its part
+                customModel.forEachPart((part, quantity) -> warehouseParts.merge(part, quantity, Integer::sum));
+            }
+        }
+        return new FulfillmentDetails(presetOrders,warehouseParts);
+    }
 
-                }
+    /**
+     * Notifies every listener of a state change that has already happened.
+     * A failing listener is logged and skipped: it cannot undo the change,
+     * so it must neither stop the other listeners nor fail the operation.
+     */
+    private void notifyListeners(Consumer<OrderListener> notification) {
+        for (OrderListener listener : listeners) {
+            try {
+                notification.accept(listener);
+            } catch (RuntimeException e) {
+                LOGGER.log(System.Logger.Level.WARNING, "Order listener " + listener + " failed.", e);
+            }
+        }
+    }
+
+    /**
+     * Rejects an order placed in another shop, before anything about it changes.
+     */
+    private void checkPlacedHere(Order order) {
+        if(!orderHistory.contains(order.getSequence(), order)){
+            throw new IllegalArgumentException("Order was not placed in this shop.");
+        }
+    }
 
+    /**
+     * Counts the parts needed by the custom models among the given models.
+     */
+    private static Map<String,Integer> customPartsOf(List<PCModel> models) {
+        Map<String,Integer> parts = new HashMap<>();
+        for (PCModel model : models) {
+            if (model instanceof CustomModel customModel) {
+                customModel.forEachPart((part, quantity) -> parts.merge(part, quantity, Integer::sum));
             }
         }
-        return new FulfillmentDetails(presetOrders,warehouseParts);
+        return parts;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The query stream must be consumed before this shop is modified again.
+     */
+
+    @Override
+    public OrderQuery orders() {
+        return new OrderQuery(orderIndex);
+    }
+
+    /**
+     * Runs a query, possibly built by another shop, against this shop's indexes.
+     */
+    Stream<Order> executeQuery(OrderQuery query) {
+        return orderIndex.execute(query);
+    }
+
+    /**
+     * Describes how this shop would run a query.
+     */
+    String explainQuery(OrderQuery query) {
+        return orderIndex.explain(query);
+    }
+
+    /**
+     * Computes an analytics result on a cache miss, recording on the event
+     * the fulfilled orders the computation scans.
+     */
+    private <T> T scan(AnalyticsQueryEvent event, Supplier<T> compute) {
+        event.cacheHit = false;
+        event.ordersScanned = ordersByStatus.size(OrderStatus.FULFILLED);
+        return compute.get();
+    }
+
+    /**
+     * Emits the given analytics event if it is enabled and over its threshold.
+     */
+    private void commitAnalyticsEvent(AnalyticsQueryEvent event, String query, Object result) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.query = query;
+            event.resultFound = result != null;
+            event.commit();
+        }
     }
 
     /**
@@ -134,14 +551,40 @@ public final class PCShopImpl implements PCShop {
 
     @Override
     public CustomerStats getLargestCustomer() {
+        AnalyticsQueryEvent event = new AnalyticsQueryEvent();
+        event.begin();
+        long start = System.nanoTime();
+        boolean success = false;
+        CustomerStats stats = null;
+        try {
+            stats = largestCustomerCache.get(modificationVersion.get(), () -> scan(event, this::computeLargestCustomer));
+            success = true;
+            return stats;
+        } finally {
+            metrics.record(Operation.LARGEST_CUSTOMER, start, success);
+            commitAnalyticsEvent(event, "getLargestCustomer", stats);
+        }
+    }
 
-        // Get all the orders
-        Map<Customer,Long> customerOrderCounts = this.orderHistory.stream()
-                // get only the fulfilled orders
-                .filter(order -> order.getOrderStatus()==OrderStatus.FULFILLED)
+    private CustomerStats computeLargestCustomer() {
+        return largestCustomer(countFulfilledOrdersByCustomer());
+    }
+
+    /**
+     * Counts the fulfilled orders of every customer.
+     */
+    Map<Customer,Long> countFulfilledOrdersByCustomer() {
+        // Get only the fulfilled orders
+        return this.ordersByStatus.orders(OrderStatus.FULFILLED).stream()
                 // group by customer and count
                 .collect(Collectors.groupingBy(Order::getCustomer,Collectors.counting()));
+    }
 
+    /**
+     * Picks the customer with the most fulfilled orders, ties going to the
+     * customer whose name comes first alphabetically.
+     */
+    static CustomerStats largestCustomer(Map<Customer,Long> customerOrderCounts) {
         if(customerOrderCounts.isEmpty()){
             return null;
         }
@@ -165,10 +608,31 @@ public final class PCShopImpl implements PCShop {
 
     @Override
     public ModelStats getMostOrderedModel() {
-       // Get all the models
-        Map<PresetModel,Long> presetModelCounts = this.orderHistory.stream()
-                // filter out only fulfilled
-                .filter(order-> order.getOrderStatus()==OrderStatus.FULFILLED)
+        AnalyticsQueryEvent event = new AnalyticsQueryEvent();
+        event.begin();
+        long start = System.nanoTime();
+        boolean success = false;
+        ModelStats stats = null;
+        try {
+            stats = mostOrderedModelCache.get(modificationVersion.get(), () -> scan(event, this::computeMostOrderedModel));
+            success = true;
+            return stats;
+        } finally {
+            metrics.record(Operation.MOST_ORDERED_MODEL, start, success);
+            commitAnalyticsEvent(event, "getMostOrderedModel", stats);
+        }
+    }
+
+    private ModelStats computeMostOrderedModel() {
+        return mostOrderedModel(countFulfilledPresetModels());
+    }
+
+    /**
+     * Counts the fulfilled units of every preset model.
+     */
+    Map<PresetModel,Long> countFulfilledPresetModels() {
+       // Get only the fulfilled orders
+        return this.ordersByStatus.orders(OrderStatus.FULFILLED).stream()
                 // open the List<PCModel> and make a stream
                 .flatMap(order -> order.getModels().stream())
                 // filter out only Preset Models
@@ -177,7 +641,13 @@ public final class PCShopImpl implements PCShop {
                 .map(model -> (PresetModel)model)
                 // Group by PresetModel and count
                 .collect(Collectors.groupingBy(model-> model,Collectors.counting()));
+    }
 
+    /**
+     * Picks the preset model with the most fulfilled units, ties going to the
+     * model whose manufacturer and name come first alphabetically.
+     */
+    static ModelStats mostOrderedModel(Map<PresetModel,Long> presetModelCounts) {
         if(presetModelCounts.isEmpty()){
             return null;
         }
@@ -204,15 +674,45 @@ public final class PCShopImpl implements PCShop {
 
     @Override
     public PartsStats getMostOrderedPart() {
+        AnalyticsQueryEvent event = new AnalyticsQueryEvent();
+        event.begin();
+        long start = System.nanoTime();
+        boolean success = false;
+        PartsStats stats = null;
+        try {
+            stats = mostOrderedPartCache.get(modificationVersion.get(), () -> scan(event, this::computeMostOrderedPart));
+            success = true;
+            return stats;
+        } finally {
+            metrics.record(Operation.MOST_ORDERED_PART, start, success);
+            commitAnalyticsEvent(event, "getMostOrderedPart", stats);
+        }
+    }
 
-        Map<String,Long> partsCounts = this.orderHistory.stream()
-                .filter(order->order.getOrderStatus()==OrderStatus.FULFILLED)
-                .flatMap(order-> order.getModels().stream())
-                .filter(model -> model instanceof CustomModel)
-                .map(model -> (CustomModel) model)
-                .flatMap(model -> model.getParts().stream())
-                .collect(Collectors.groupingBy(part-> part,Collectors.counting()));
+    private PartsStats computeMostOrderedPart() {
+        return mostOrderedPart(countFulfilledParts());
+    }
 
+    /**
+     * Counts the fulfilled units of every custom model part.
+     */
+    Map<String,Long> countFulfilledParts() {
+        Map<String,Long> partsCounts = new HashMap<>();
+        for (Order order : this.ordersByStatus.orders(OrderStatus.FULFILLED)) {
+            for (PCModel model : order.getModels()) {
+                if (model instanceof CustomModel customModel) {
+                    customModel.forEachPart((part, quantity) -> partsCounts.merge(part, (long) quantity, Long::sum));
+                }
+            }
+        }
+        return partsCounts;
+    }
+
+    /**
+     * Picks the part with the most fulfilled units, ties going to the part
+     * whose name comes first alphabetically.
+     */
+    static PartsStats mostOrderedPart(Map<String,Long> partsCounts) {
         if(partsCounts.isEmpty()){
             return null;
         }
@@ -224,4 +724,17 @@ public final class PCShopImpl implements PCShop {
                 .orElse(null);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+
+    @Override
+    public CustomerSummary getCustomerSummary(Customer customer) {
+        if(customer == null){
+            throw new IllegalArgumentException("Customer cannot be null.");
+        }
+        CustomerActivity activity = customerActivity.get(customer);
+        return activity == null ? null : activity.toSummary();
+    }
+
 }
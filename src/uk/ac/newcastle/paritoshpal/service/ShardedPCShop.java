@@ -0,0 +1,465 @@
+package uk.ac.newcastle.paritoshpal.service;
+
+import uk.ac.newcastle.paritoshpal.dto.CustomerStats;
+import uk.ac.newcastle.paritoshpal.dto.CustomerSummary;
+import uk.ac.newcastle.paritoshpal.dto.ModelStats;
+import uk.ac.newcastle.paritoshpal.dto.PartsStats;
+import uk.ac.newcastle.paritoshpal.inventory.Inventory;
+import uk.ac.newcastle.paritoshpal.model.customer.Customer;
+import uk.ac.newcastle.paritoshpal.model.fulfillment.FulfillmentDetails;
+import uk.ac.newcastle.paritoshpal.model.payment.CreditCard;
+import uk.ac.newcastle.paritoshpal.model.pc.PCModel;
+import uk.ac.newcastle.paritoshpal.model.pc.PresetModel;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.StringJoiner;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A thread-safe {@link PCShop} that spreads its orders over several
+ * {@link PCShopImpl} shards.
+ *
+ * Every customer is routed to one shard by the hash of their name, so all
+ * of a customer's orders live on the same shard. Each shard has its own
+ * order history and its own lock, so orders of customers on different
+ * shards are placed, cancelled and fulfilled in parallel.
+ *
+ * The analytics queries collect the partial counts of every shard, one
+ * shard lock at a time, merge them and pick the winner with the same
+ * tie-breaking rules as {@link PCShopImpl}. The result is exact, but shards
+ * are read one after another rather than at a single point in time.
+ */
+public final class ShardedPCShop implements PCShop {
+
+    private final PCShopImpl[] shards;
+    private final ReentrantLock[] locks;
+
+    /**
+     * Constructs a shop with one shard per available processor, not tracking
+     * warehouse stock.
+     */
+    public ShardedPCShop() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructs a shop that does not track warehouse stock.
+     *
+     * @param shardCount the number of shards; must be positive.
+     * @throws IllegalArgumentException if {@code shardCount} is not positive.
+     */
+    public ShardedPCShop(int shardCount) {
+        this(shardCount, null);
+    }
+
+    /**
+     * Constructs a shop whose shards all reserve parts in the given inventory.
+     *
+     * @param shardCount the number of shards; must be positive.
+     * @param inventory the shared warehouse inventory, or null not to track stock.
+     * @throws IllegalArgumentException if {@code shardCount} is not positive.
+     */
+    public ShardedPCShop(int shardCount, Inventory inventory) {
+        this(shardCount, inventory, new IdempotencyTable());
+    }
+
+    /**
+     * Constructs a shop whose shards share an inventory and an idempotency table.
+     *
+     * @param shardCount the number of shards; must be positive.
+     * @param inventory the shared warehouse inventory, or null not to track stock.
+     * @param idempotencyTable the shared table remembering idempotency keys; cannot be null.
+     * @throws IllegalArgumentException if {@code shardCount} is not positive or
+     * {@code idempotencyTable} is null.
+     */
+    public ShardedPCShop(int shardCount, Inventory inventory, IdempotencyTable idempotencyTable) {
+        if(shardCount <= 0 || idempotencyTable == null){
+            throw new IllegalArgumentException("A positive shard count and an idempotency table are required.");
+        }
+        this.shards = new PCShopImpl[shardCount];
+        this.locks = new ReentrantLock[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new PCShopImpl(inventory, idempotencyTable);
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Gets the number of shards.
+     *
+     * @return the shard count.
+     */
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    /**
+     * Registers a listener on every shard. The listener may be called from
+     * several threads at once, so it must be thread-safe.
+     *
+     * @param listener the listener to add; cannot be null.
+     * @throws IllegalArgumentException if {@code listener} is null.
+     */
+    public void addOrderListener(OrderListener listener) {
+        if(listener == null){
+            throw new IllegalArgumentException("Listener cannot be null.");
+        }
+        for (PCShopImpl shard : shards) {
+            shard.addOrderListener(listener);
+        }
+    }
+
+    /**
+     * Removes a listener from every shard.
+     *
+     * @param listener the listener to remove.
+     * @return {@code true} if the listener was registered.
+     */
+    public boolean removeOrderListener(OrderListener listener) {
+        boolean removed = false;
+        for (PCShopImpl shard : shards) {
+            removed |= shard.removeOrderListener(listener);
+        }
+        return removed;
+    }
+
+    /**
+     * Takes a snapshot of the order history of all shards, without locking.
+     * The shards' histories are merged by order date, as in
+     * {@link #pageOrders(String, int)}: orders placed at the same time on
+     * different shards come in shard order.
+     *
+     * Nothing is copied: each iteration merges the shards' snapshots as it
+     * goes, so exporting the snapshot needs no memory per order.
+     *
+     * @return the orders, which can be iterated any number of times.
+     * @see PCShopImpl#getOrderSnapshot()
+     */
+    public Iterable<Order> getOrderSnapshot() {
+        List<List<Order>> histories = new ArrayList<>(shards.length);
+        for (PCShopImpl shard : shards) {
+            histories.add(shard.getOrderSnapshot());
+        }
+        return () -> mergeByTime(histories, new int[histories.size()]);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The shards are walked together, without locking: each page is a
+     * k-way merge of the shards' histories by order date, and the cursor
+     * holds the position reached in every shard. Orders placed at the same
+     * time on different shards come in shard order.
+     */
+    @Override
+    public OrderPage pageOrders(String cursor, int pageSize) {
+        if(pageSize <= 0){
+            throw new IllegalArgumentException("Page size must be positive.");
+        }
+        int[] positions = OrderCursor.decode(cursor, shards.length);
+        List<List<Order>> histories = new ArrayList<>(shards.length);
+        for (int i = 0; i < shards.length; i++) {
+            histories.add(shards[i].getOrderSnapshot());
+            if(positions[i] > histories.get(i).size()){
+                throw new IllegalArgumentException("Cursor was not issued by this shop.");
+            }
+        }
+        Iterator<Order> merged = mergeByTime(histories, positions);
+        List<Order> page = new ArrayList<>(Math.min(pageSize, 1024));
+        while (page.size() < pageSize && merged.hasNext()) {
+            page.add(merged.next());
+        }
+        return new OrderPage(Collections.unmodifiableList(page), OrderCursor.encode(positions), merged.hasNext());
+    }
+
+    /**
+     * Lazily merges the shards' histories by order date, from the given
+     * position in each. Orders placed at the same time come in shard order.
+     *
+     * @param positions where to start in each history; advanced past every
+     *                  order the iterator returns.
+     * @return the merged orders.
+     */
+    private static Iterator<Order> mergeByTime(List<List<Order>> histories, int[] positions) {
+        List<Iterator<Order>> sources = new ArrayList<>(histories.size());
+        for (int i = 0; i < histories.size(); i++) {
+            sources.add(histories.get(i).listIterator(positions[i]));
+        }
+        MergingIterator<Order> merged = new MergingIterator<>(sources, Comparator.comparingLong(Order::getOrderTime), false);
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return merged.hasNext();
+            }
+
+            @Override
+            public Order next() {
+                Order order = merged.next();
+                positions[merged.lastSource()]++;
+                return order;
+            }
+        };
+    }
+
+    /**
+     * Takes a mergeable snapshot of the analytic state of all shards.
+     *
+     * @return the snapshot.
+     */
+    public AnalyticsSnapshot getAnalyticsSnapshot() {
+        AnalyticsSnapshot snapshot = AnalyticsSnapshot.empty();
+        for (int i = 0; i < shards.length; i++) {
+            snapshot = snapshot.merge(withShard(i, PCShopImpl::getAnalyticsSnapshot));
+        }
+        return snapshot;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Order placeOrder(List<PCModel> models, Customer customer, CreditCard creditCard) {
+        if(customer == null){
+            throw new IllegalArgumentException("Models, customer, and credit card cannot be null.");
+        }
+        return withShard(shardOf(customer), shop -> shop.placeOrder(models, customer, creditCard));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * The shards share one idempotency table, which reserves a key before
+     * its order is placed, so concurrent requests with the same key place
+     * a single order even when they reach different shards.
+     */
+    @Override
+    public Order placeOrder(String idempotencyKey, List<PCModel> models, Customer customer, CreditCard creditCard) {
+        if(customer == null){
+            throw new IllegalArgumentException("Models, customer, and credit card cannot be null.");
+        }
+        return withShard(shardOf(customer), shop -> shop.placeOrder(idempotencyKey, models, customer, creditCard));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void cancelOrder(Order order) {
+        if(order == null){
+            throw new IllegalArgumentException("Order to be cancelled cannot be null.");
+        }
+        withShard(shardOf(order.getCustomer()), shop -> {
+            shop.cancelOrder(order);
+            return null;
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public FulfillmentDetails fulfillOrder(Order order) {
+        if(order == null){
+            throw new IllegalArgumentException("Order to be fulfillment cannot be null.");
+        }
+        return withShard(shardOf(order.getCustomer()), shop -> shop.fulfillOrder(order));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void cancelIfVersion(Order order, long expectedVersion) {
+        if(order == null){
+            throw new IllegalArgumentException("Order to be cancelled cannot be null.");
+        }
+        PCShopImpl.checkExpectedVersion(expectedVersion);
+        withShard(shardOf(order.getCustomer()), shop -> {
+            shop.cancelIfVersion(order, expectedVersion);
+            return null;
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public FulfillmentDetails fulfillIfVersion(Order order, long expectedVersion) {
+        if(order == null){
+            throw new IllegalArgumentException("Order to be fulfillment cannot be null.");
+        }
+        PCShopImpl.checkExpectedVersion(expectedVersion);
+        return withShard(shardOf(order.getCustomer()), shop -> shop.fulfillIfVersion(order, expectedVersion));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CustomerStats getLargestCustomer() {
+        return PCShopImpl.largestCustomer(mergeCounts(PCShopImpl::countFulfilledOrdersByCustomer));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ModelStats getMostOrderedModel() {
+        Map<PresetModel,Long> counts = mergeCounts(PCShopImpl::countFulfilledPresetModels);
+        return PCShopImpl.mostOrderedModel(counts);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public PartsStats getMostOrderedPart() {
+        return PCShopImpl.mostOrderedPart(mergeCounts(PCShopImpl::countFulfilledParts));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CustomerSummary getCustomerSummary(Customer customer) {
+        if(customer == null){
+            throw new IllegalArgumentException("Customer cannot be null.");
+        }
+        return withShard(shardOf(customer), shop -> shop.getCustomerSummary(customer));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * A query on a single customer runs on that customer's shard only;
+     * any other query runs on every shard. The results of the shards are
+     * merged lazily by order date, each shard being read a chunk at a time
+     * under its lock, so the stream may be consumed at leisure while orders
+     * keep being placed, and a query with a small limit reads little more
+     * than the first chunk of every shard.
+     */
+    @Override
+    public OrderQuery orders() {
+        return new OrderQuery(new ShardedQueryEngine());
+    }
+
+    private int shardOf(Customer customer) {
+        int h = customer.hashCode();
+        return Math.floorMod(h ^ (h >>> 16), shards.length);
+    }
+
+    private <T> T withShard(int index, Function<PCShopImpl, T> action) {
+        locks[index].lock();
+        try {
+            return action.apply(shards[index]);
+        } finally {
+            locks[index].unlock();
+        }
+    }
+
+    /**
+     * Runs queries on the relevant shards and merges their results.
+     */
+    private final class ShardedQueryEngine implements OrderQuery.Engine {
+
+        @Override
+        public Stream<Order> execute(OrderQuery query) {
+            List<ShardCursor> cursors = new ArrayList<>();
+            for (int i : shardsFor(query)) {
+                cursors.add(new ShardCursor(i, query));
+            }
+            // ties go to the lower shard, so orders placed in the same millisecond keep their shard order
+            Iterator<Order> merged = new MergingIterator<>(cursors, Comparator.comparingLong(Order::getOrderTime), false);
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(merged,
+                            Spliterator.ORDERED | Spliterator.NONNULL), false)
+                    .limit(query.limit());
+        }
+
+        @Override
+        public String explain(OrderQuery query) {
+            StringJoiner plans = new StringJoiner("; ");
+            for (int i : shardsFor(query)) {
+                plans.add("shard " + i + ": " + withShard(i, shop -> shop.explainQuery(query)));
+            }
+            return plans.toString();
+        }
+
+        private int[] shardsFor(OrderQuery query) {
+            return query.customer() != null
+                    ? new int[]{shardOf(query.customer())}
+                    : IntStream.range(0, shards.length).toArray();
+        }
+    }
+
+    /**
+     * Reads the results of a query on one shard, in the order they were
+     * placed, a chunk at a time under the shard's lock.
+     */
+    private final class ShardCursor implements Iterator<Order> {
+
+        private static final int CHUNK = 256;
+
+        private final int shard;
+        private final OrderQuery query;
+        private final ArrayDeque<Order> buffer = new ArrayDeque<>();
+        // the shard's lazy results, only ever advanced under its lock
+        private Iterator<Order> matches;
+        private boolean exhausted;
+
+        ShardCursor(int shard, OrderQuery query) {
+            this.shard = shard;
+            this.query = query;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (buffer.isEmpty() && !exhausted) {
+                withShard(shard, shop -> {
+                    if (matches == null) {
+                        matches = shop.executeQuery(query).iterator();
+                    }
+                    for (int i = 0; i < CHUNK && matches.hasNext(); i++) {
+                        buffer.add(matches.next());
+                    }
+                    exhausted = !matches.hasNext();
+                    return null;
+                });
+            }
+            return !buffer.isEmpty();
+        }
+
+        @Override
+        public Order next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return buffer.poll();
+        }
+    }
+
+    /**
+     * Sums the per-key counts of every shard.
+     */
+    private <K> Map<K,Long> mergeCounts(Function<PCShopImpl, Map<K,Long>> counter) {
+        Map<K,Long> merged = new HashMap<>();
+        for (int i = 0; i < shards.length; i++) {
+            Map<K,Long> counts = withShard(i, counter);
+            counts.forEach((key, count) -> merged.merge(key, count, Long::sum));
+        }
+        return merged;
+    }
+}
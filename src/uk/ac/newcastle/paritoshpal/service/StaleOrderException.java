@@ -0,0 +1,44 @@
+package uk.ac.newcastle.paritoshpal.service;
+
+/**
+ * Thrown when a conditional operation finds that the order has changed
+ * since the version the caller expected, e.g. because another client
+ * cancelled or fulfilled it first. The operation had no effect.
+ */
+public class StaleOrderException extends IllegalStateException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long expectedVersion;
+    private final long actualVersion;
+
+    /**
+     * Constructs the exception.
+     *
+     * @param expectedVersion the version the caller expected.
+     * @param actualVersion the current version of the order.
+     */
+    public StaleOrderException(long expectedVersion, long actualVersion) {
+        super("Order was modified: expected version " + expectedVersion + " but was " + actualVersion);
+        this.expectedVersion = expectedVersion;
+        this.actualVersion = actualVersion;
+    }
+
+    /**
+     * Gets the version the caller expected.
+     *
+     * @return the expected version.
+     */
+    public long getExpectedVersion() {
+        return expectedVersion;
+    }
+
+    /**
+     * Gets the current version of the order.
+     *
+     * @return the actual version.
+     */
+    public long getActualVersion() {
+        return actualVersion;
+    }
+}
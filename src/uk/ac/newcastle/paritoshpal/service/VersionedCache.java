@@ -0,0 +1,49 @@
+package uk.ac.newcastle.paritoshpal.service;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Caches the result of one query together with the shop version it was
+ * computed at. The result is reused for as long as the shop version has
+ * not changed, so a stale result is never returned.
+ *
+ * @param <T> the type of the cached result; {@code null} results are cached too.
+ */
+final class VersionedCache<T> {
+
+    private record Entry<T>(long version, T value) {
+    }
+
+    private volatile Entry<T> entry;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Returns the cached result if it was computed at the given version,
+     * otherwise computes, caches and returns a fresh one.
+     *
+     * @param version the current shop version, read before computing.
+     * @param compute computes the result from the current state.
+     * @return the result valid at {@code version}.
+     */
+    T get(long version, Supplier<T> compute) {
+        Entry<T> current = entry;
+        if (current != null && current.version() == version) {
+            hits.increment();
+            return current.value();
+        }
+        misses.increment();
+        T value = compute.get();
+        entry = new Entry<>(version, value);
+        return value;
+    }
+
+    long hits() {
+        return hits.sum();
+    }
+
+    long misses() {
+        return misses.sum();
+    }
+}
@@ -0,0 +1,144 @@
+package uk.ac.newcastle.paritoshpal.admission;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import uk.ac.newcastle.paritoshpal.admission.AdmissionRejectedException.Reason;
+import uk.ac.newcastle.paritoshpal.model.customer.Customer;
+import uk.ac.newcastle.paritoshpal.model.customer.CustomerFactory;
+import uk.ac.newcastle.paritoshpal.model.payment.CreditCard;
+import uk.ac.newcastle.paritoshpal.model.payment.CreditCardFactory;
+import uk.ac.newcastle.paritoshpal.model.pc.PCModel;
+import uk.ac.newcastle.paritoshpal.model.pc.PresetModel;
+import uk.ac.newcastle.paritoshpal.service.Order;
+import uk.ac.newcastle.paritoshpal.service.OrderListener;
+import uk.ac.newcastle.paritoshpal.service.PCShopImpl;
+import uk.ac.newcastle.paritoshpal.service.ShardedPCShop;
+
+import java.time.Duration;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("AdmissionControlledPCShop Unit Tests")
+class AdmissionControlledPCShopTest {
+
+    private AtomicLong now;
+    private Customer alice, bob;
+    private CreditCard aliceCard, sharedCard;
+    private List<PCModel> models;
+
+    @BeforeEach
+    void setUp() {
+        now = new AtomicLong(1_000_000_000L);
+        alice = CustomerFactory.getCustomer("Alice", "Admission");
+        bob = CustomerFactory.getCustomer("Bob", "Admission");
+        Calendar cal = Calendar.getInstance();
+        cal.set(2033, Calendar.JUNE, 6);
+        Date expiry = cal.getTime();
+        aliceCard = CreditCardFactory.getCreditCard("80000001", expiry, "Alice Admission");
+        sharedCard = CreditCardFactory.getCreditCard("80000002", expiry, "Bob Admission");
+        models = List.of(new PresetModel("inspiron", "dell", List.of("i9")));
+    }
+
+    @Test
+    @DisplayName("Test per-customer rate limit")
+    void testCustomerRate() {
+        AdmissionPolicy policy = AdmissionPolicy.defaults().withCustomerRate(1, 2);
+        AdmissionControlledPCShop shop = new AdmissionControlledPCShop(new PCShopImpl(), policy, now::get);
+        shop.placeOrder(models, alice, aliceCard);
+        shop.placeOrder(models, alice, aliceCard);
+
+        AdmissionRejectedException e = assertThrows(AdmissionRejectedException.class,
+                () -> shop.placeOrder(models, alice, aliceCard));
+        assertEquals(Reason.CUSTOMER_RATE, e.getReason());
+        assertEquals(Duration.ofSeconds(1), e.getRetryAfter());
+        // other customers are unaffected, and the rejected request had no effect
+        shop.placeOrder(models, bob, sharedCard);
+        assertEquals(2, shop.getCustomerSummary(alice).ordersPlaced());
+        assertEquals(3, shop.getAdmitted());
+        assertEquals(1, shop.getRejected(Reason.CUSTOMER_RATE));
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        shop.placeOrder(models, alice, aliceCard);
+    }
+
+    @Test
+    @DisplayName("Test per-card rate limit")
+    void testCardRate() {
+        AdmissionPolicy policy = AdmissionPolicy.defaults().withCardRate(1, 1);
+        AdmissionControlledPCShop shop = new AdmissionControlledPCShop(new PCShopImpl(), policy, now::get);
+        shop.placeOrder(models, alice, sharedCard);
+        AdmissionRejectedException e = assertThrows(AdmissionRejectedException.class,
+                () -> shop.placeOrder(models, bob, sharedCard));
+        assertEquals(Reason.CARD_RATE, e.getReason());
+        assertInstanceOf(IllegalStateException.class, e);
+        assertEquals(0, shop.getInFlight());
+    }
+
+    @Test
+    @DisplayName("Test a card rejection does not use up the customer's rate")
+    void testCardRejectionRefundsCustomer() {
+        AdmissionPolicy policy = AdmissionPolicy.defaults().withCustomerRate(1, 1).withCardRate(1, 1);
+        AdmissionControlledPCShop shop = new AdmissionControlledPCShop(new PCShopImpl(), policy, now::get);
+        shop.placeOrder(models, bob, sharedCard);
+        AdmissionRejectedException e = assertThrows(AdmissionRejectedException.class,
+                () -> shop.placeOrder(models, alice, sharedCard));
+        assertEquals(Reason.CARD_RATE, e.getReason());
+
+        shop.placeOrder(models, alice, aliceCard);
+        assertEquals(1, shop.getCustomerSummary(alice).ordersPlaced());
+    }
+
+    @Test
+    @DisplayName("Test concurrency limit")
+    void testConcurrencyLimit() throws Exception {
+        ShardedPCShop sharded = new ShardedPCShop(4);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        sharded.addOrderListener(new OrderListener() {
+            @Override
+            public void orderPlaced(Order order) {
+                if (order.getCustomer().equals(alice)) {
+                    entered.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+        });
+        AdmissionControlledPCShop shop = new AdmissionControlledPCShop(sharded,
+                AdmissionPolicy.defaults().withMaxConcurrentRequests(1));
+
+        Thread slow = new Thread(() -> shop.placeOrder(models, alice, aliceCard));
+        slow.start();
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        AdmissionRejectedException e = assertThrows(AdmissionRejectedException.class,
+                () -> shop.placeOrder(models, bob, sharedCard));
+        assertEquals(Reason.CONCURRENCY, e.getReason());
+        assertFalse(e.getRetryAfter().isNegative() || e.getRetryAfter().isZero());
+
+        release.countDown();
+        slow.join();
+        assertEquals(0, shop.getInFlight());
+        shop.placeOrder(models, bob, sharedCard);
+    }
+
+    @Test
+    @DisplayName("Test invalid arguments")
+    void testInvalid() {
+        AdmissionControlledPCShop shop = new AdmissionControlledPCShop(new PCShopImpl(), AdmissionPolicy.defaults());
+        assertThrows(IllegalArgumentException.class, () -> shop.placeOrder(models, null, aliceCard));
+        assertThrows(IllegalArgumentException.class, () -> shop.placeOrder(null, alice, aliceCard));
+        assertEquals(0, shop.getInFlight());
+        assertThrows(IllegalArgumentException.class, () -> new AdmissionControlledPCShop(null, AdmissionPolicy.defaults()));
+        assertThrows(IllegalArgumentException.class, () -> AdmissionPolicy.defaults().withCardRate(0, 1));
+    }
+}
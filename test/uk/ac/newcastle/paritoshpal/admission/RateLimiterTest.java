@@ -0,0 +1,109 @@
+package uk.ac.newcastle.paritoshpal.admission;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("RateLimiter Unit Tests")
+class RateLimiterTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    @DisplayName("Test burst then sustained rate")
+    void testBurstAndRate() {
+        AtomicLong now = new AtomicLong(SECOND);
+        RateLimiter<String> limiter = new RateLimiter<>(2, 3, now::get);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("a"));
+        }
+        // the bucket is empty: the next token arrives in half a second
+        assertEquals(SECOND / 2, limiter.tryAcquire("a"));
+        assertEquals(0, limiter.tryAcquire("b"));
+
+        now.addAndGet(SECOND / 2);
+        assertEquals(0, limiter.tryAcquire("a"));
+        assertTrue(limiter.tryAcquire("a") > 0);
+
+        // after a long pause only the burst is available again
+        now.addAndGet(60 * SECOND);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("a"));
+        }
+        assertTrue(limiter.tryAcquire("a") > 0);
+    }
+
+    @Test
+    @DisplayName("Test concurrent acquisitions never exceed the burst")
+    void testConcurrent() throws InterruptedException {
+        AtomicLong now = new AtomicLong(SECOND);
+        RateLimiter<String> limiter = new RateLimiter<>(1, 100, now::get);
+        AtomicLong admitted = new AtomicLong();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    if (limiter.tryAcquire("hot") == 0) {
+                        admitted.incrementAndGet();
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(100, admitted.get());
+    }
+
+    @Test
+    @DisplayName("Test a refunded token can be acquired again")
+    void testRefund() {
+        AtomicLong now = new AtomicLong(SECOND);
+        RateLimiter<String> limiter = new RateLimiter<>(1, 2, now::get);
+        assertEquals(0, limiter.tryAcquire("a"));
+        assertEquals(0, limiter.tryAcquire("a"));
+        assertTrue(limiter.tryAcquire("a") > 0);
+
+        limiter.refund("a");
+        assertEquals(0, limiter.tryAcquire("a"));
+        assertTrue(limiter.tryAcquire("a") > 0);
+        // a key that is not tracked has nothing to refund
+        limiter.refund("b");
+        assertEquals(0, limiter.tryAcquire("b"));
+    }
+
+    @Test
+    @DisplayName("Test a table of active keys is not swept for every new key")
+    void testSweepAmortised() {
+        AtomicLong now = new AtomicLong(SECOND);
+        RateLimiter<Integer> limiter = new RateLimiter<>(1, 1, now::get);
+        for (int key = 0; key < RateLimiter.SWEEP_THRESHOLD + 1000; key++) {
+            assertEquals(0, limiter.tryAcquire(key));
+        }
+        // every bucket is still empty, so the single sweep freed nothing
+        assertEquals(1, limiter.sweeps());
+        assertEquals(RateLimiter.SWEEP_THRESHOLD + 1000, limiter.size());
+
+        // the next sweep waits for the table to double, then frees the refilled buckets
+        now.addAndGet(2 * SECOND);
+        int added = 0;
+        while (limiter.sweeps() == 1) {
+            assertEquals(0, limiter.tryAcquire(-1 - added++));
+        }
+        assertEquals(2 * RateLimiter.SWEEP_THRESHOLD, RateLimiter.SWEEP_THRESHOLD + 1000 + added - 1);
+        assertEquals(added, limiter.size());
+    }
+
+    @Test
+    @DisplayName("Test invalid configuration")
+    void testInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> new RateLimiter<String>(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new RateLimiter<String>(1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new RateLimiter<String>(Double.NaN, 1));
+    }
+}
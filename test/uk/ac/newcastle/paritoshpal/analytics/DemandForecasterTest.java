@@ -0,0 +1,130 @@
+package uk.ac.newcastle.paritoshpal.analytics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import uk.ac.newcastle.paritoshpal.dto.DemandForecast;
+import uk.ac.newcastle.paritoshpal.model.customer.Customer;
+import uk.ac.newcastle.paritoshpal.model.customer.CustomerFactory;
+import uk.ac.newcastle.paritoshpal.model.payment.CreditCard;
+import uk.ac.newcastle.paritoshpal.model.payment.CreditCardFactory;
+import uk.ac.newcastle.paritoshpal.model.pc.CustomModel;
+import uk.ac.newcastle.paritoshpal.model.pc.CustomModelFactory;
+import uk.ac.newcastle.paritoshpal.model.pc.PresetModel;
+import uk.ac.newcastle.paritoshpal.service.PCShopImpl;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Calendar;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("DemandForecaster Unit Tests")
+class DemandForecasterTest {
+
+    /**
+     * A clock that only moves when told to.
+     */
+    private static final class ManualClock extends Clock {
+        private Instant now = Instant.parse("2030-01-07T12:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+
+    private ManualClock clock;
+    private PCShopImpl shop;
+    private Customer customer;
+    private CreditCard card;
+    private PresetModel preset;
+
+    @BeforeEach
+    void setUp() {
+        clock = new ManualClock();
+        shop = new PCShopImpl();
+        customer = CustomerFactory.getCustomer("Tony", "Padilla");
+        Calendar cal = Calendar.getInstance();
+        cal.set(2033, Calendar.MARCH, 3);
+        card = CreditCardFactory.getCreditCard("76543210", cal.getTime(), "Tony Padilla");
+        preset = new PresetModel("inspiron", "dell", List.of("i9", "RTX4090"));
+    }
+
+    private void fulfil(int presets, String part, int parts) {
+        CustomModel custom = CustomModelFactory.createCustomModel();
+        for (int i = 0; i < parts; i++) {
+            custom.addPart(part);
+        }
+        for (int i = 0; i < presets; i++) {
+            shop.fulfillOrder(shop.placeOrder(List.of(preset), customer, card));
+        }
+        if (parts > 0) {
+            shop.fulfillOrder(shop.placeOrder(List.of(custom), customer, card));
+        }
+    }
+
+    @Test
+    @DisplayName("Test moving average over periods")
+    void testMovingAverage() {
+        DemandForecaster forecaster = new DemandForecaster(Duration.ofDays(1), 1, 0.5, 0.5, clock);
+        shop.addOrderListener(forecaster);
+
+        fulfil(2, "RAM 16 GB", 10);
+        // nothing completed yet
+        assertEquals(0, forecaster.forecastPart("RAM 16 GB").level());
+
+        clock.advance(Duration.ofDays(1));
+        assertEquals(10, forecaster.forecastPart("RAM 16 GB").level(), 1e-9);
+        assertEquals(2, forecaster.forecastModel(preset).level(), 1e-9);
+
+        fulfil(0, "RAM 16 GB", 20);
+        clock.advance(Duration.ofDays(1));
+        DemandForecast forecast = forecaster.forecastPart("RAM 16 GB");
+        assertEquals(15, forecast.level(), 1e-9);
+        assertEquals(15, forecast.nextPeriod(), 1e-9);
+
+        // three days without demand decay the average
+        clock.advance(Duration.ofDays(3));
+        assertEquals(15 * 0.125, forecaster.forecastPart("RAM 16 GB").level(), 1e-9);
+
+        assertNull(forecaster.forecastPart("PSU"));
+    }
+
+    @Test
+    @DisplayName("Test seasonal profile")
+    void testSeasonalProfile() {
+        DemandForecaster forecaster = new DemandForecaster(Duration.ofDays(1), 2, 0.5, 1.0, clock);
+        shop.addOrderListener(forecaster);
+
+        // alternating busy and quiet days
+        for (int day = 0; day < 4; day++) {
+            fulfil(0, "Case", day % 2 == 0 ? 9 : 3);
+            clock.advance(Duration.ofDays(1));
+        }
+        DemandForecast busy = forecaster.forecastPart("Case");
+        clock.advance(Duration.ofDays(1));
+        DemandForecast quiet = forecaster.forecastPart("Case");
+
+        assertTrue(busy.nextPeriod() > busy.level());
+        assertTrue(quiet.nextPeriod() < busy.nextPeriod());
+    }
+}
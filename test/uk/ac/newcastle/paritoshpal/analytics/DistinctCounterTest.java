@@ -0,0 +1,143 @@
+package uk.ac.newcastle.paritoshpal.analytics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import uk.ac.newcastle.paritoshpal.dto.DistinctCounts;
+import uk.ac.newcastle.paritoshpal.model.customer.CustomerFactory;
+import uk.ac.newcastle.paritoshpal.model.payment.CreditCard;
+import uk.ac.newcastle.paritoshpal.model.payment.CreditCardFactory;
+import uk.ac.newcastle.paritoshpal.model.pc.CustomModel;
+import uk.ac.newcastle.paritoshpal.model.pc.CustomModelFactory;
+import uk.ac.newcastle.paritoshpal.model.pc.PresetModel;
+import uk.ac.newcastle.paritoshpal.service.Order;
+import uk.ac.newcastle.paritoshpal.service.PCShopImpl;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("DistinctCounter Unit Tests")
+class DistinctCounterTest {
+
+    /**
+     * A clock that only moves when told to.
+     */
+    private static final class ManualClock extends Clock {
+        private Instant now = Instant.parse("2030-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+
+    private ManualClock clock;
+    private Date expiry;
+    private PresetModel preset;
+
+    @BeforeEach
+    void setUp() {
+        clock = new ManualClock();
+        Calendar cal = Calendar.getInstance();
+        cal.set(2033, Calendar.JUNE, 6);
+        expiry = cal.getTime();
+        preset = new PresetModel("inspiron", "dell", List.of("i9"));
+    }
+
+    private DistinctCounter newCounter(PCShopImpl shop) {
+        DistinctCounter counter = new DistinctCounter(Duration.ofDays(1), 3, HyperLogLog.DEFAULT_PRECISION, clock);
+        shop.addOrderListener(counter);
+        return counter;
+    }
+
+    private Order place(PCShopImpl shop, int customer, int card) {
+        CreditCard creditCard = CreditCardFactory.getCreditCard(String.format("7%07d", card), expiry, "Holder Name");
+        return shop.placeOrder(List.of(preset), CustomerFactory.getCustomer("Customer" + (char) ('a' + customer), "Distinct"),
+                creditCard);
+    }
+
+    @Test
+    @DisplayName("Test totals and windows")
+    void testWindows() {
+        PCShopImpl shop = new PCShopImpl();
+        DistinctCounter counter = newCounter(shop);
+        Instant day1 = clock.instant();
+        for (int i = 0; i < 20; i++) {
+            place(shop, i % 5, i % 8);
+        }
+        clock.advance(Duration.ofDays(1));
+        for (int i = 0; i < 20; i++) {
+            place(shop, 3 + i % 5, i % 2);
+        }
+
+        assertEquals(new DistinctCounts(8, 8, 0), counter.getTotals());
+        assertEquals(new DistinctCounts(5, 2, 0), counter.getCurrentWindow());
+        assertEquals(new DistinctCounts(5, 8, 0), counter.getCounts(day1, day1.plus(Duration.ofDays(1))));
+        assertEquals(new DistinctCounts(8, 8, 0), counter.getCounts(day1, clock.instant().plusMillis(1)));
+
+        // only the last three days of windows are kept
+        clock.advance(Duration.ofDays(3));
+        place(shop, 0, 0);
+        assertEquals(new DistinctCounts(0, 0, 0), counter.getCounts(day1, day1.plus(Duration.ofDays(1))));
+        assertEquals(new DistinctCounts(8, 8, 0), counter.getTotals());
+    }
+
+    @Test
+    @DisplayName("Test configurations ignore part order")
+    void testConfigurations() {
+        PCShopImpl shop = new PCShopImpl();
+        DistinctCounter counter = newCounter(shop);
+        CreditCard creditCard = CreditCardFactory.getCreditCard("70000000", expiry, "Holder Name");
+        String[][] configurations = {{"CPU", "RAM"}, {"RAM", "CPU"}, {"CPU", "SSD"}};
+        for (String[] parts : configurations) {
+            CustomModel model = CustomModelFactory.createCustomModel();
+            for (String part : parts) {
+                model.addPart(part);
+            }
+            shop.fulfillOrder(shop.placeOrder(List.of(model),
+                    CustomerFactory.getCustomer("Customera", "Distinct"), creditCard));
+        }
+        assertEquals(2, counter.getTotals().configurations());
+        assertEquals(2, counter.getCurrentWindow().configurations());
+    }
+
+    @Test
+    @DisplayName("Test counters merge across shops")
+    void testMerge() {
+        PCShopImpl shopA = new PCShopImpl();
+        PCShopImpl shopB = new PCShopImpl();
+        DistinctCounter a = newCounter(shopA);
+        DistinctCounter b = newCounter(shopB);
+        for (int i = 0; i < 10; i++) {
+            place(shopA, i, i);
+            place(shopB, i + 5, i);
+        }
+        a.merge(b);
+        assertEquals(new DistinctCounts(15, 10, 0), a.getTotals());
+        assertEquals(new DistinctCounts(15, 10, 0), a.getCurrentWindow());
+        assertThrows(IllegalArgumentException.class,
+                () -> a.merge(new DistinctCounter(Duration.ofHours(1), 3, HyperLogLog.DEFAULT_PRECISION, clock)));
+    }
+}
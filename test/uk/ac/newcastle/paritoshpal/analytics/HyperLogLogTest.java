@@ -0,0 +1,71 @@
+package uk.ac.newcastle.paritoshpal.analytics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("HyperLogLog Unit Tests")
+class HyperLogLogTest {
+
+    @Test
+    @DisplayName("Test small cardinalities are near exact")
+    void testSmallCardinality() {
+        HyperLogLog sketch = new HyperLogLog();
+        assertEquals(0, sketch.estimate());
+        for (int i = 0; i < 100; i++) {
+            sketch.offer("customer-" + (i % 10));
+        }
+        assertEquals(10, sketch.estimate());
+    }
+
+    @Test
+    @DisplayName("Test large cardinality is within the expected error")
+    void testLargeCardinality() {
+        HyperLogLog sketch = new HyperLogLog(12);
+        int n = 200_000;
+        for (int i = 0; i < n; i++) {
+            sketch.offer("card-" + i);
+        }
+        // four standard errors of 1.04 / sqrt(4096)
+        assertEquals(n, sketch.estimate(), n * 0.065);
+    }
+
+    @Test
+    @DisplayName("Test merge estimates the union")
+    void testMerge() {
+        HyperLogLog a = new HyperLogLog();
+        HyperLogLog b = new HyperLogLog();
+        for (int i = 0; i < 600; i++) {
+            a.offer("x" + i);
+            b.offer("x" + (i + 300));
+        }
+        HyperLogLog union = a.copy().merge(b);
+        assertEquals(900, union.estimate(), 900 * 0.07);
+        assertEquals(union, b.copy().merge(a));
+        assertThrows(IllegalArgumentException.class, () -> a.merge(new HyperLogLog(10)));
+    }
+
+    @Test
+    @DisplayName("Test serialisation round trip")
+    void testBytes() {
+        HyperLogLog sketch = new HyperLogLog(8);
+        for (int i = 0; i < 1000; i++) {
+            sketch.offer(Integer.toString(i));
+        }
+        byte[] bytes = sketch.toBytes();
+        assertEquals(257, bytes.length);
+        HyperLogLog restored = HyperLogLog.fromBytes(bytes);
+        assertEquals(sketch, restored);
+        assertEquals(sketch.estimate(), restored.estimate());
+        assertThrows(IllegalArgumentException.class, () -> HyperLogLog.fromBytes(new byte[]{8, 1}));
+    }
+
+    @Test
+    @DisplayName("Test invalid arguments")
+    void testInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(3));
+        assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(17));
+        assertThrows(IllegalArgumentException.class, () -> new HyperLogLog().offer(null));
+    }
+}
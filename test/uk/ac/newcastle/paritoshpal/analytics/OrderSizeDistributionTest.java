@@ -0,0 +1,100 @@
+package uk.ac.newcastle.paritoshpal.analytics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import uk.ac.newcastle.paritoshpal.dto.DistributionStats;
+import uk.ac.newcastle.paritoshpal.model.customer.Customer;
+import uk.ac.newcastle.paritoshpal.model.customer.CustomerFactory;
+import uk.ac.newcastle.paritoshpal.model.payment.CreditCard;
+import uk.ac.newcastle.paritoshpal.model.payment.CreditCardFactory;
+import uk.ac.newcastle.paritoshpal.model.pc.CustomModel;
+import uk.ac.newcastle.paritoshpal.model.pc.CustomModelFactory;
+import uk.ac.newcastle.paritoshpal.model.pc.PCModel;
+import uk.ac.newcastle.paritoshpal.model.pc.PresetModel;
+import uk.ac.newcastle.paritoshpal.service.PCShopImpl;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("OrderSizeDistribution Unit Tests")
+class OrderSizeDistributionTest {
+
+    private Customer customer;
+    private CreditCard card;
+    private PresetModel dell;
+    private PresetModel apple;
+
+    @BeforeEach
+    void setUp() {
+        customer = CustomerFactory.getCustomer("Alex", "Standall");
+        Calendar cal = Calendar.getInstance();
+        cal.set(2033, Calendar.JUNE, 6);
+        card = CreditCardFactory.getCreditCard("54321098", cal.getTime(), "Alex Standall");
+        dell = new PresetModel("inspiron", "dell", List.of("i9"));
+        apple = new PresetModel("air-m4", "apple", List.of("M4"));
+    }
+
+    private void fulfil(PCShopImpl shop, int presets, int customParts) {
+        List<PCModel> models = new ArrayList<>();
+        for (int i = 0; i < presets; i++) {
+            models.add(i % 2 == 0 ? dell : apple);
+        }
+        if (customParts > 0) {
+            CustomModel custom = CustomModelFactory.createCustomModel();
+            for (int i = 0; i < customParts; i++) {
+                custom.addPart("RAM 16 GB");
+            }
+            models.add(custom);
+        }
+        shop.fulfillOrder(shop.placeOrder(models, customer, card));
+    }
+
+    @Test
+    @DisplayName("Test size percentiles")
+    void testPercentiles() {
+        PCShopImpl shop = new PCShopImpl();
+        OrderSizeDistribution distribution = new OrderSizeDistribution();
+        shop.addOrderListener(distribution);
+        for (int i = 0; i < 99; i++) {
+            fulfil(shop, 1, 0);
+        }
+        // one large order: 20 presets and a custom model of 8 parts
+        fulfil(shop, 20, 8);
+        // placed only, ignored
+        shop.placeOrder(List.of(dell), customer, card);
+
+        DistributionStats models = distribution.getModelsPerOrder();
+        assertEquals(100, models.count());
+        assertEquals(1, models.p50());
+        assertEquals(1, models.p99());
+        assertEquals(21, models.max());
+
+        assertEquals(new DistributionStats(1, 8, 8, 8, 8), distribution.getPartsPerCustomModel());
+
+        DistributionStats units = distribution.getUnitsPerManufacturer();
+        assertEquals(101, units.count());
+        assertEquals(10, units.max());
+    }
+
+    @Test
+    @DisplayName("Test snapshots merge across shops")
+    void testMerge() {
+        PCShopImpl shopA = new PCShopImpl();
+        PCShopImpl shopB = new PCShopImpl();
+        OrderSizeDistribution a = new OrderSizeDistribution();
+        OrderSizeDistribution b = new OrderSizeDistribution();
+        shopA.addOrderListener(a);
+        shopB.addOrderListener(b);
+        fulfil(shopA, 2, 0);
+        fulfil(shopB, 4, 0);
+        fulfil(shopB, 6, 0);
+
+        DistributionStats merged = OrderSizeDistribution.toStats(
+                a.snapshotModelsPerOrder().merge(b.snapshotModelsPerOrder()));
+        assertEquals(new DistributionStats(3, 4, 6, 6, 6), merged);
+    }
+}
@@ -0,0 +1,95 @@
+package uk.ac.newcastle.paritoshpal.analytics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import uk.ac.newcastle.paritoshpal.dto.PartSetStats;
+import uk.ac.newcastle.paritoshpal.model.customer.Customer;
+import uk.ac.newcastle.paritoshpal.model.customer.CustomerFactory;
+import uk.ac.newcastle.paritoshpal.model.payment.CreditCard;
+import uk.ac.newcastle.paritoshpal.model.payment.CreditCardFactory;
+import uk.ac.newcastle.paritoshpal.model.pc.CustomModel;
+import uk.ac.newcastle.paritoshpal.model.pc.CustomModelFactory;
+import uk.ac.newcastle.paritoshpal.model.pc.PCModel;
+import uk.ac.newcastle.paritoshpal.model.pc.PresetModel;
+import uk.ac.newcastle.paritoshpal.service.PCShopImpl;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("PartCooccurrence Unit Tests")
+class PartCooccurrenceTest {
+
+    private PCShopImpl shop;
+    private PartCooccurrence cooccurrence;
+    private Customer customer;
+    private CreditCard card;
+
+    @BeforeEach
+    void setUp() {
+        shop = new PCShopImpl();
+        cooccurrence = new PartCooccurrence();
+        shop.addOrderListener(cooccurrence);
+        customer = CustomerFactory.getCustomer("Zach", "Dempsey");
+        Calendar cal = Calendar.getInstance();
+        cal.set(2033, Calendar.MAY, 5);
+        card = CreditCardFactory.getCreditCard("65432109", cal.getTime(), "Zach Dempsey");
+
+        fulfil("Case", "CPU", "GPU", "RAM");
+        fulfil("Case", "CPU", "GPU", "RAM", "RAM");
+        fulfil("Case", "CPU", "GPU");
+        fulfil("Case", "PSU");
+        // placed but never fulfilled, must be ignored
+        shop.placeOrder(List.of(custom("CPU", "PSU")), customer, card);
+    }
+
+    private CustomModel custom(String... parts) {
+        CustomModel model = CustomModelFactory.createCustomModel();
+        for (String part : parts) {
+            model.addPart(part);
+        }
+        return model;
+    }
+
+    private void fulfil(String... parts) {
+        List<PCModel> models = new ArrayList<>();
+        models.add(custom(parts));
+        models.add(new PresetModel("yoga", "lenovo", List.of("i5")));
+        shop.fulfillOrder(shop.placeOrder(models, customer, card));
+    }
+
+    @Test
+    @DisplayName("Test getTopPairs()")
+    void testTopPairs() {
+        List<PartSetStats> pairs = cooccurrence.getTopPairs(4);
+        assertEquals(List.of(
+                new PartSetStats(List.of("CPU", "Case"), 3),
+                new PartSetStats(List.of("CPU", "GPU"), 3),
+                new PartSetStats(List.of("Case", "GPU"), 3),
+                new PartSetStats(List.of("CPU", "RAM"), 2)), pairs);
+    }
+
+    @Test
+    @DisplayName("Test getTopTriples()")
+    void testTopTriples() {
+        List<PartSetStats> triples = cooccurrence.getTopTriples(2);
+        assertEquals(List.of(
+                new PartSetStats(List.of("CPU", "Case", "GPU"), 3),
+                new PartSetStats(List.of("CPU", "Case", "RAM"), 2)), triples);
+    }
+
+    @Test
+    @DisplayName("Test getTopConfigurations()")
+    void testTopConfigurations() {
+        List<PartSetStats> configurations = cooccurrence.getTopConfigurations(10);
+        // quantities are ignored, so the first two models share a configuration
+        assertEquals(3, configurations.size());
+        assertEquals(new PartSetStats(List.of("CPU", "Case", "GPU", "RAM"), 2), configurations.get(0));
+        assertEquals(new PartSetStats(List.of("CPU", "Case", "GPU"), 1), configurations.get(1));
+        assertEquals(new PartSetStats(List.of("Case", "PSU"), 1), configurations.get(2));
+        assertThrowsExactly(IllegalArgumentException.class, () -> cooccurrence.getTopConfigurations(0));
+    }
+}
@@ -0,0 +1,100 @@
+package uk.ac.newcastle.paritoshpal.inventory;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Inventory Unit Tests")
+class InventoryTest {
+
+    private Inventory inventory;
+
+    @BeforeEach
+    void setUp() {
+        inventory = new Inventory(4);
+        inventory.addStock("RAM 16 GB", 10);
+        inventory.addStock("Case", 2);
+    }
+
+    @Test
+    @DisplayName("Test addStock()")
+    void testAddStock() {
+        inventory.addStock("RAM 16 GB", 5);
+        assertEquals(15, inventory.getAvailable("RAM 16 GB"));
+        assertEquals(0, inventory.getAvailable("PSU"));
+        assertThrowsExactly(IllegalArgumentException.class, () -> inventory.addStock("PSU", 0));
+        assertThrowsExactly(IllegalArgumentException.class, () -> inventory.addStock(null, 1));
+    }
+
+    @Test
+    @DisplayName("Test reserve() and commit()")
+    void testReserveAndCommit() {
+        Reservation reservation = inventory.reserve(Map.of("RAM 16 GB", 8, "Case", 1));
+        assertEquals(2, inventory.getAvailable("RAM 16 GB"));
+        assertEquals(8, inventory.getReserved("RAM 16 GB"));
+
+        inventory.commit(reservation);
+        assertEquals(2, inventory.getAvailable("RAM 16 GB"));
+        assertEquals(0, inventory.getReserved("RAM 16 GB"));
+        assertTrue(reservation.isSettled());
+        assertThrowsExactly(IllegalStateException.class, () -> inventory.release(reservation));
+    }
+
+    @Test
+    @DisplayName("Test release()")
+    void testRelease() {
+        Reservation reservation = inventory.reserve(Map.of("Case", 2));
+        assertEquals(0, inventory.getAvailable("Case"));
+
+        inventory.release(reservation);
+        assertEquals(2, inventory.getAvailable("Case"));
+        assertEquals(0, inventory.getReserved("Case"));
+    }
+
+    @Test
+    @DisplayName("Test reserve() is all or nothing")
+    void testReserveAllOrNothing() {
+        assertThrowsExactly(IllegalStateException.class,
+                () -> inventory.reserve(Map.of("RAM 16 GB", 4, "Case", 3)));
+        assertThrowsExactly(IllegalStateException.class,
+                () -> inventory.reserve(Map.of("RAM 16 GB", 4, "PSU", 1)));
+        assertEquals(10, inventory.getAvailable("RAM 16 GB"));
+        assertEquals(2, inventory.getAvailable("Case"));
+        assertEquals(0, inventory.getReserved("RAM 16 GB"));
+    }
+
+    @Test
+    @DisplayName("Test concurrent reservations never oversell")
+    void testConcurrentReservations() throws InterruptedException {
+        inventory.addStock("GPU", 1000);
+        AtomicInteger reserved = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 500; i++) {
+                    try {
+                        inventory.reserve(Map.of("GPU", 1));
+                        reserved.incrementAndGet();
+                    } catch (IllegalStateException e) {
+                        // out of stock
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(1000, reserved.get() + inventory.getAvailable("GPU"));
+        assertEquals(reserved.get(), inventory.getReserved("GPU"));
+        assertTrue(inventory.getAvailable("GPU") >= 0);
+    }
+}
@@ -0,0 +1,179 @@
+package uk.ac.newcastle.paritoshpal.io;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import uk.ac.newcastle.paritoshpal.model.customer.Customer;
+import uk.ac.newcastle.paritoshpal.model.customer.CustomerFactory;
+import uk.ac.newcastle.paritoshpal.model.payment.CreditCard;
+import uk.ac.newcastle.paritoshpal.model.payment.CreditCardFactory;
+import uk.ac.newcastle.paritoshpal.model.pc.CustomModel;
+import uk.ac.newcastle.paritoshpal.model.pc.CustomModelFactory;
+import uk.ac.newcastle.paritoshpal.model.pc.PresetModel;
+import uk.ac.newcastle.paritoshpal.service.Order;
+import uk.ac.newcastle.paritoshpal.service.OrderStatus;
+import uk.ac.newcastle.paritoshpal.service.PCShopImpl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("OrderExporter Unit Tests")
+class OrderExporterTest {
+
+    private PCShopImpl shop;
+    private Customer customer;
+    private CreditCard card;
+    private PresetModel preset;
+    private CustomModel custom;
+    // a tiny pool, so that every order spans several flushes
+    private final OrderExporter exporter = new OrderExporter(new BufferPool(64, 1));
+
+    @BeforeEach
+    void setUp() {
+        shop = new PCShopImpl();
+        customer = CustomerFactory.getCustomer("Hannah", "Baker");
+        Calendar cal = Calendar.getInstance();
+        cal.set(2032, Calendar.OCTOBER, 22, 0, 0, 0);
+        card = CreditCardFactory.getCreditCard("11111111", cal.getTime(), "Hannah");
+        preset = new PresetModel("inspiron", "dell", List.of("i9", "RTX4090"));
+        custom = CustomModelFactory.createCustomModel();
+        custom.addPart("Café \"quiet\" fan, 120mm");
+        custom.addPart("RGB ✓ 😀");
+    }
+
+    private String export(List<Order> orders, ExportFormat format, ExportFilter filter) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        exporter.export(orders, format, filter, Channels.newChannel(bytes));
+        return bytes.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("Test JSON lines round trip")
+    void testJsonLines() throws IOException {
+        Order order = shop.placeOrder(List.of(preset, custom), customer, card);
+        shop.fulfillOrder(order);
+        String json = export(shop.getOrderSnapshot(), ExportFormat.JSON_LINES, ExportFilter.all());
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> parsed = (Map<String, Object>) new JsonParser(json.strip()).parse();
+        assertEquals("FULFILLED", parsed.get("status"));
+        assertEquals(2.0, parsed.get("version"));
+        assertEquals((double) order.getOrderDate().getTime(), parsed.get("date"));
+        assertEquals(Map.of("number", "11111111", "expiry", "2032-10-22", "holder", card.getHolder()), parsed.get("card"));
+        // the line is also a valid import line
+        OrderRecord record = ImportFormat.JSON_LINES.parse(json.strip());
+        assertEquals(custom.getParts(), record.models().get(1).customParts());
+        assertEquals(preset, record.models().get(0).preset());
+    }
+
+    @Test
+    @DisplayName("Test CSV round trip")
+    void testCsv() throws IOException {
+        shop.placeOrder(List.of(preset, custom), customer, card);
+        String[] lines = export(shop.getOrderSnapshot(), ExportFormat.CSV, ExportFilter.all()).split("\n");
+
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("orderDate,status,version,customer"));
+        List<String> fields = ImportFormat.splitCsv(lines[1]);
+        assertEquals("PLACED", fields.get(1));
+        assertEquals("1", fields.get(2));
+        // without the date, status and version columns, the line is a valid import line
+        OrderRecord record = ImportFormat.CSV.parse(lines[1].substring(lines[1].indexOf(customer.getFirstName() + " - ")));
+        assertEquals(customer.getFirstName(), record.customer().getFirstName());
+        assertEquals(custom.getParts(), record.models().get(1).customParts());
+    }
+
+    @Test
+    @DisplayName("Test binary format")
+    void testBinary(@TempDir Path dir) throws IOException {
+        Order order = shop.placeOrder(List.of(custom), customer, card);
+        Path file = dir.resolve("orders.bin");
+        assertEquals(1, exporter.exportFile(shop.getOrderSnapshot(), ExportFormat.BINARY, ExportFilter.all(), file));
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(file)));
+        assertEquals(0x5043534F, in.readInt());
+        assertEquals(1, in.readByte());
+        assertEquals(order.getOrderDate().getTime(), in.readLong());
+        assertEquals(OrderStatus.PLACED.ordinal(), in.readByte());
+        assertEquals(1, in.readLong());
+        assertEquals(customer.getFirstName(), readText(in));
+        assertEquals(customer.getLastName(), readText(in));
+        assertEquals("11111111", readText(in));
+        assertEquals(card.getExpiryDate().getTime(), in.readLong());
+        assertEquals(card.getHolder(), readText(in));
+        assertEquals(1, in.readInt());
+        assertEquals(1, in.readByte());
+        assertEquals(custom.getName(), readText(in));
+        assertEquals(2, in.readInt());
+        assertEquals(custom.getParts().get(0), readText(in));
+        assertEquals(custom.getParts().get(1), readText(in));
+        assertEquals(-1, in.read());
+    }
+
+    private static String readText(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("Test filters")
+    void testFilters() throws IOException {
+        Date before = new Date(System.currentTimeMillis() - 1000);
+        shop.fulfillOrder(shop.placeOrder(List.of(preset), customer, card));
+        shop.cancelOrder(shop.placeOrder(List.of(preset), customer, card));
+        shop.placeOrder(List.of(preset), customer, card);
+        List<Order> orders = shop.getOrderSnapshot();
+
+        assertEquals(3, export(orders, ExportFormat.JSON_LINES, ExportFilter.all()).lines().count());
+        assertEquals(2, export(orders, ExportFormat.JSON_LINES,
+                ExportFilter.all().withStatuses(OrderStatus.PLACED, OrderStatus.CANCELLED)).lines().count());
+        assertEquals(0, export(orders, ExportFormat.JSON_LINES,
+                ExportFilter.all().placedBetween(null, before)).lines().count());
+        assertThrows(IllegalArgumentException.class, () -> new ExportFilter(Set.of(), null, null));
+    }
+
+    @Test
+    @DisplayName("Test exporting a snapshot while orders keep being placed")
+    void testSnapshotDuringIntake() throws Exception {
+        for (int i = 0; i < 1000; i++) {
+            shop.placeOrder(List.of(preset), customer, card);
+        }
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread intake = new Thread(() -> {
+            for (int i = 0; i < 20_000 && running.get(); i++) {
+                shop.placeOrder(List.of(preset), customer, card);
+            }
+        });
+        intake.start();
+        try {
+            for (int round = 0; round < 20; round++) {
+                List<Order> snapshot = shop.getOrderSnapshot();
+                int size = snapshot.size();
+                assertTrue(size >= 1000);
+                String csv = export(snapshot, ExportFormat.CSV, ExportFilter.all());
+                assertEquals(size + 1, csv.lines().count());
+            }
+        } finally {
+            running.set(false);
+            intake.join();
+        }
+        assertEquals(1, new OrderExporter().export(List.of(shop.getOrderSnapshot().get(0)), ExportFormat.BINARY,
+                ExportFilter.all(), Channels.newChannel(new ByteArrayOutputStream())));
+    }
+}
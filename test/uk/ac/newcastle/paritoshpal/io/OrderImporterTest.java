@@ -0,0 +1,185 @@
+package uk.ac.newcastle.paritoshpal.io;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import uk.ac.newcastle.paritoshpal.dto.ImportError;
+import uk.ac.newcastle.paritoshpal.dto.ImportResult;
+import uk.ac.newcastle.paritoshpal.model.customer.Customer;
+import uk.ac.newcastle.paritoshpal.model.customer.CustomerFactory;
+import uk.ac.newcastle.paritoshpal.model.pc.CustomModel;
+import uk.ac.newcastle.paritoshpal.service.Order;
+import uk.ac.newcastle.paritoshpal.service.OrderListener;
+import uk.ac.newcastle.paritoshpal.service.PCShop;
+import uk.ac.newcastle.paritoshpal.service.PCShopImpl;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.StringReader;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("OrderImporter Unit Tests")
+class OrderImporterTest {
+
+    private PCShopImpl shop;
+    private Customer hannah;
+
+    @BeforeEach
+    void setUp() {
+        shop = new PCShopImpl();
+        hannah = CustomerFactory.getCustomer("Hannah", "Baker");
+    }
+
+    private ImportResult importString(String text, ImportFormat format, int batchSize) throws IOException {
+        return new OrderImporter(shop, batchSize).importFrom(new BufferedReader(new StringReader(text)), format);
+    }
+
+    @Nested
+    @DisplayName("CSV Tests")
+    class CsvTests {
+
+        @Test
+        @DisplayName("Test valid lines are placed")
+        void testValidLines() throws IOException {
+            String csv = """
+                    customer,card,expiry,holder,models
+                    # a comment
+                    Hannah - Baker,11111111,2032-10-22,Hannah,preset:dell:inspiron:i9;RTX4090,custom:RAM 16 GB;SSD
+                    
+                    "Hannah - Baker",11111111,2032-10-22,Hannah,"custom:CPU, 8 cores"
+                    """;
+            ImportResult result = importString(csv, ImportFormat.CSV, 10);
+
+            assertEquals(5, result.linesRead());
+            assertEquals(2, result.ordersPlaced());
+            assertEquals(0, result.errorCount());
+            assertEquals(2, shop.getCustomerSummary(hannah).ordersPlaced());
+            assertEquals(3, shop.getCustomerSummary(hannah).customParts());
+        }
+
+        @Test
+        @DisplayName("Test invalid lines are reported")
+        void testInvalidLines() throws IOException {
+            String csv = """
+                    Hannah - Baker,11111111,2032-10-22,Hannah,preset:dell:inspiron:i9
+                    Hannah Baker,11111111,2032-10-22,Hannah,preset:dell:inspiron:i9
+                    Hannah - Baker,11111111,22/10/2032,Hannah,preset:dell:inspiron:i9
+                    Hannah - Baker,11111111,2032-10-22,Hannah,laptop:dell
+                    Hannah - Baker,123,2032-10-22,Hannah,custom:RAM
+                    Hannah - Baker,33333333,2020-01-01,Hannah,custom:RAM
+                    Hannah - Baker,11111111,2032-10-22,Hannah
+                    """;
+            ImportResult result = importString(csv, ImportFormat.CSV, 2);
+
+            assertEquals(7, result.linesRead());
+            assertEquals(1, result.ordersPlaced());
+            assertEquals(6, result.errorCount());
+            assertEquals(List.of(2L, 3L, 4L, 5L, 6L, 7L), result.errors().stream().map(ImportError::line).toList());
+            assertTrue(result.errors().get(0).message().contains("firstName - lastName"));
+        }
+    }
+
+    @Nested
+    @DisplayName("JSON Lines Tests")
+    class JsonLinesTests {
+
+        @Test
+        @DisplayName("Test valid and invalid lines")
+        void testLines() throws IOException {
+            String json = """
+                    {"customer":"Hannah - Baker","card":{"number":"11111111","expiry":"2032-10-22","holder":"Hannah"},\
+                    "models":[{"type":"preset","manufacturer":"dell","name":"inspiron","parts":["i9"]},\
+                    {"type":"custom","parts":["RAM \\u0031\\u0036 GB","SSD"]}]}
+                    {"customer":"Hannah - Baker","card":{"number":"11111111"},"models":[]}
+                    {"customer":"Hannah - Baker",
+                    {"customer":"Hannah - Baker","card":{"number":"11111111","expiry":"2032-10-22","holder":"Hannah"},\
+                    "models":[{"type":"laptop","parts":["i9"]}]}
+                    """;
+            List<Order> placed = new ArrayList<>();
+            shop.addOrderListener(new OrderListener() {
+                @Override
+                public void orderPlaced(Order order) {
+                    placed.add(order);
+                }
+            });
+            ImportResult result = importString(json, ImportFormat.JSON_LINES, 10);
+
+            assertEquals(4, result.linesRead());
+            assertEquals(1, result.ordersPlaced());
+            assertEquals(List.of(2L, 3L, 4L), result.errors().stream().map(ImportError::line).toList());
+            assertTrue(result.errors().get(1).message().startsWith("Invalid JSON"));
+            CustomModel custom = (CustomModel) placed.get(0).getModels().get(1);
+            assertEquals(List.of("RAM 16 GB", "SSD"), custom.getParts());
+        }
+
+        @Test
+        @DisplayName("Test deeply nested lines are rejected")
+        void testDeepNesting() throws IOException {
+            String json = "{\"customer\":" + "[".repeat(100_000) + "\n";
+            ImportResult result = importString(json, ImportFormat.JSON_LINES, 10);
+
+            assertEquals(1, result.errorCount());
+            assertTrue(result.errors().get(0).message().contains("Nesting deeper than " + JsonParser.MAX_DEPTH));
+            assertThrows(IllegalArgumentException.class,
+                    () -> new JsonParser("[".repeat(JsonParser.MAX_DEPTH + 1) + "]".repeat(JsonParser.MAX_DEPTH + 1)).parse());
+            assertNotNull(new JsonParser("[".repeat(JsonParser.MAX_DEPTH) + "]".repeat(JsonParser.MAX_DEPTH)).parse());
+        }
+    }
+
+    @Test
+    @DisplayName("Test streaming a large file in batches")
+    void testLargeFile(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("orders.csv");
+        int lines = 20_000;
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < lines; i++) {
+                // every 100th line has an invalid card number
+                String card = i % 100 == 0 ? "bad" : "11111111";
+                writer.write("Hannah - Baker," + card + ",2032-10-22,Hannah,preset:dell:inspiron:i9\n");
+            }
+        }
+        ImportResult result = new OrderImporter(shop, 512).importFile(file, ImportFormat.CSV);
+
+        assertEquals(lines, result.linesRead());
+        assertEquals(lines - lines / 100, result.ordersPlaced());
+        assertEquals(lines / 100, result.errorCount());
+        assertEquals(101, result.errors().get(1).line());
+        assertEquals(lines - lines / 100, shop.getCustomerSummary(hannah).ordersPlaced());
+    }
+
+    @Test
+    @DisplayName("Test an unexpected placement failure is reported per line")
+    void testUnexpectedFailure() throws IOException {
+        PCShop closed = (PCShop) Proxy.newProxyInstance(PCShop.class.getClassLoader(), new Class<?>[]{PCShop.class},
+                (proxy, method, args) -> {
+                    throw new UnsupportedOperationException("shop closed");
+                });
+        String csv = """
+                Hannah - Baker,11111111,2032-10-22,Hannah,custom:RAM
+                Hannah - Baker,11111111,2032-10-22,Hannah,custom:SSD
+                """;
+        ImportResult result = new OrderImporter(closed).importFrom(new BufferedReader(new StringReader(csv)), ImportFormat.CSV);
+
+        assertEquals(0, result.ordersPlaced());
+        assertEquals(List.of(1L, 2L), result.errors().stream().map(ImportError::line).toList());
+        assertTrue(result.errors().get(0).message().contains("shop closed"));
+    }
+
+    @Test
+    @DisplayName("Test invalid arguments")
+    void testInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> new OrderImporter(null));
+        assertThrows(IllegalArgumentException.class, () -> new OrderImporter(shop, 0));
+        assertThrows(IllegalArgumentException.class, () -> new OrderImporter(shop).importFile(null, ImportFormat.CSV));
+    }
+}
@@ -0,0 +1,86 @@
+package uk.ac.newcastle.paritoshpal.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Histogram Unit Tests")
+class HistogramTest {
+
+    @Test
+    @DisplayName("Test small values are exact")
+    void testSmallValuesAreExact() {
+        Histogram histogram = new Histogram(4);
+        for (int i = 1; i <= 10; i++) {
+            histogram.record(i);
+        }
+        HistogramSnapshot snapshot = histogram.snapshot();
+        assertEquals(10, snapshot.getCount());
+        assertEquals(5, snapshot.getValueAtPercentile(50));
+        assertEquals(9, snapshot.getValueAtPercentile(90));
+        assertEquals(10, snapshot.getValueAtPercentile(100));
+        assertEquals(10, snapshot.getMax());
+        assertEquals(5.5, snapshot.getMean());
+    }
+
+    @Test
+    @DisplayName("Test large values are within the relative error")
+    void testLargeValuesWithinError() {
+        Histogram histogram = new Histogram(4);
+        for (long v = 1; v <= 1_000_000; v++) {
+            histogram.record(v * 1000);
+        }
+        HistogramSnapshot snapshot = histogram.snapshot();
+        long p99 = snapshot.getValueAtPercentile(99);
+        assertEquals(990_000_000, p99, 990_000_000 / 16.0);
+        assertEquals(1_000_000_000, snapshot.getMax());
+    }
+
+    @Test
+    @DisplayName("Test bucket index and bound agree")
+    void testBucketBounds() {
+        for (long v : new long[]{0, 1, 15, 16, 17, 1000, 123_456_789, Long.MAX_VALUE}) {
+            int index = Histogram.bucketIndex(v, 4);
+            assertTrue(index < Histogram.bucketCount(4));
+            assertTrue(Histogram.bucketUpperBound(index, 4) >= v);
+        }
+    }
+
+    @Test
+    @DisplayName("Test merge()")
+    void testMerge() {
+        Histogram a = new Histogram(4);
+        Histogram b = new Histogram(4);
+        a.record(1);
+        b.record(100);
+        HistogramSnapshot merged = a.snapshot().merge(b.snapshot());
+        assertEquals(2, merged.getCount());
+        assertEquals(100, merged.getMax());
+        assertEquals(1, merged.getValueAtPercentile(50));
+        assertThrowsExactly(IllegalArgumentException.class, () -> a.snapshot().merge(new Histogram(5).snapshot()));
+    }
+
+    @Test
+    @DisplayName("Test concurrent recording")
+    void testConcurrentRecording() throws InterruptedException {
+        Histogram histogram = new Histogram();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    histogram.record(i);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(40_000, histogram.snapshot().getCount());
+    }
+}
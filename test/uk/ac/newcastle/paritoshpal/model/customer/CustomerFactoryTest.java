@@ -30,4 +30,16 @@ class CustomerFactoryTest {
         assertNotEquals(customer1,customer2);
     }
 
+    @Test
+    @DisplayName("Factory creates detached customers without sharing them")
+    void testDetachedCustomer(){
+        Customer detached = CustomerFactory.createDetachedCustomer("Detached","Customer");
+        Customer shared = CustomerFactory.getCustomer("Detached","Customer");
+
+        assertEquals(detached,shared);
+        assertNotSame(detached,shared);
+        assertSame(shared,CustomerFactory.getCustomer("Detached","Customer"));
+        assertThrows(IllegalArgumentException.class, () -> CustomerFactory.createDetachedCustomer("", "Customer"));
+    }
+
 }
\ No newline at end of file
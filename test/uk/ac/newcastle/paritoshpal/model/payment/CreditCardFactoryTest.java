@@ -6,6 +6,8 @@ import org.junit.jupiter.api.Test;
 
 import java.util.Calendar;
 import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -65,4 +67,53 @@ class CreditCardFactoryTest {
         assertNotSame(card1, card2);
     }
 
+
+    @Test
+    @DisplayName("Test cards expiring between two dates")
+    void testGetCardsExpiringBetween() {
+        CreditCard early = CreditCardFactory.getCreditCard("55550001", createDate(2036, Calendar.JUNE, 1), "Holder A");
+        CreditCard late = CreditCardFactory.getCreditCard("55550002", createDate(2036, Calendar.JUNE, 20), "Holder B");
+        CreditCard outside = CreditCardFactory.getCreditCard("55550003", createDate(2036, Calendar.AUGUST, 1), "Holder C");
+
+        List<CreditCard> expiring = CreditCardFactory.getCardsExpiringBetween(
+                createDate(2036, Calendar.JUNE, 1), createDate(2036, Calendar.JULY, 1));
+
+        assertEquals(List.of(early, late), expiring);
+        assertFalse(expiring.contains(outside));
+    }
+
+    @Test
+    @DisplayName("Test cards expiring within days")
+    void testGetCardsExpiringWithin() {
+        Date inTenDays = new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(10));
+        Date inSixtyDays = new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(60));
+        CreditCard soon = CreditCardFactory.getCreditCard("55550004", inTenDays, "Holder D");
+        CreditCard later = CreditCardFactory.getCreditCard("55550005", inSixtyDays, "Holder E");
+
+        List<CreditCard> expiring = CreditCardFactory.getCardsExpiringWithin(30);
+
+        assertTrue(expiring.contains(soon));
+        assertFalse(expiring.contains(later));
+        assertThrowsExactly(IllegalArgumentException.class, () -> CreditCardFactory.getCardsExpiringWithin(-1));
+    }
+
+    @Test
+    @DisplayName("Test eviction of expired cards")
+    void testEvictCardsExpiredBy() {
+        CreditCard expired = CreditCardFactory.getCreditCard("55550006", createDate(2001, Calendar.JANUARY, 1), "Holder F");
+        CreditCard valid = CreditCardFactory.getCreditCard("55550007", createDate(2035, Calendar.JANUARY, 1), "Holder G");
+
+        List<CreditCard> evicted = CreditCardFactory.evictCardsExpiredBy(new Date());
+
+        assertTrue(evicted.contains(expired));
+        assertFalse(evicted.contains(valid));
+        // evicted card is no longer cached, a renewed card can be registered
+        Date renewed = createDate(2037, Calendar.JANUARY, 1);
+        CreditCard reissued = CreditCardFactory.getCreditCard("55550006", renewed, "Holder F");
+        assertNotSame(expired, reissued);
+        assertTrue(reissued.isValid());
+        // valid card is still cached
+        assertSame(valid, CreditCardFactory.getCreditCard("55550007", renewed, "Holder G"));
+    }
+
 }
\ No newline at end of file
@@ -7,7 +7,9 @@ import org.junit.jupiter.api.Test;
 import uk.ac.newcastle.paritoshpal.model.pc.CustomModel;
 import uk.ac.newcastle.paritoshpal.model.pc.CustomModelFactory;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -96,6 +98,85 @@ class CustomModelTest {
             assertTrue(retrievedParts.contains("RAM: 24GB"));
 
         }
+
+        @Test
+        @DisplayName("Test repeated parts are counted, not copied")
+        void testPartCounts(){
+            for (int i = 0; i < 8; i++) {
+                customModel.addPart("RAM: 16GB");
+            }
+            customModel.addPart("CPU: Ryzen 7");
+            customModel.addPart("RAM: 16GB");
+
+            assertEquals(Map.of("RAM: 16GB", 9, "CPU: Ryzen 7", 1), customModel.partCounts());
+            assertEquals(10, customModel.getPartCount());
+            assertEquals(10, customModel.getParts().size());
+            assertEquals("RAM: 16GB", customModel.getParts().get(8));
+
+            Map<String,Integer> visited = new LinkedHashMap<>();
+            customModel.forEachPart(visited::put);
+            assertEquals(List.of("RAM: 16GB", "CPU: Ryzen 7"), List.copyOf(visited.keySet()));
+            assertEquals(customModel.partCounts(), visited);
+
+            assertTrue(customModel.removePart("CPU: Ryzen 7"));
+            assertTrue(customModel.removePart("RAM: 16GB"));
+            assertEquals(Map.of("RAM: 16GB", 8), customModel.partCounts());
+            assertEquals(8, customModel.getPartCount());
+            assertThrows(UnsupportedOperationException.class, () -> customModel.partCounts().put("PSU", 1));
+        }
+    }
+
+    @Nested
+    @DisplayName("Snapshot tests")
+    class SnapshotTests{
+
+        @Test
+        @DisplayName("Test a snapshot keeps the parts it was taken with")
+        void testSnapshot(){
+            customModel.addPart("RAM: 16GB");
+            customModel.addPart("RAM: 16GB");
+            CustomModel frozen = customModel.snapshot();
+            customModel.addPart("CPU: Ryzen 7");
+            customModel.removePart("RAM: 16GB");
+
+            assertFalse(customModel.isFrozen());
+            assertTrue(frozen.isFrozen());
+            assertEquals(Map.of("RAM: 16GB", 2), frozen.partCounts());
+            assertEquals(List.of("RAM: 16GB", "RAM: 16GB"), frozen.getParts());
+            assertSame(frozen.getParts(), frozen.getParts());
+            assertSame(frozen, frozen.snapshot());
+        }
+
+        @Test
+        @DisplayName("Test a snapshot is equal to its model and cannot change")
+        void testSnapshotImmutable(){
+            customModel.addPart("CPU: Ryzen 7");
+            CustomModel frozen = customModel.snapshot();
+
+            assertEquals(customModel, frozen);
+            assertEquals(customModel.hashCode(), frozen.hashCode());
+            assertThrowsExactly(IllegalStateException.class, () -> frozen.addPart("GPU"));
+            assertThrowsExactly(IllegalStateException.class, () -> frozen.removePart("CPU: Ryzen 7"));
+            assertThrows(UnsupportedOperationException.class, () -> frozen.getParts().add("GPU"));
+        }
+
+        @Test
+        @DisplayName("Test the configuration key ignores the order parts were added in")
+        void testConfiguration(){
+            customModel.addPart("RAM: 16GB");
+            customModel.addPart("CPU: Ryzen 7");
+            customModel.addPart("RAM: 16GB");
+            CustomModel other = CustomModelFactory.createCustomModel();
+            other.addPart("RAM: 16GB");
+            other.addPart("RAM: 16GB");
+            other.addPart("CPU: Ryzen 7");
+
+            assertEquals("CPU: Ryzen 7\nRAM: 16GB\nRAM: 16GB", customModel.getConfiguration());
+            assertEquals(customModel.getConfiguration(), other.snapshot().getConfiguration());
+            CustomModel frozen = customModel.snapshot();
+            assertSame(frozen.getConfiguration(), frozen.getConfiguration());
+            assertEquals("", CustomModelFactory.createCustomModel().getConfiguration());
+        }
     }
 
     @Nested
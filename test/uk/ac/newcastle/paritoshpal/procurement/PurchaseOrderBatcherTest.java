@@ -0,0 +1,177 @@
+package uk.ac.newcastle.paritoshpal.procurement;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import uk.ac.newcastle.paritoshpal.model.fulfillment.FulfillmentDetails;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("PurchaseOrderBatcher Unit Tests")
+class PurchaseOrderBatcherTest {
+
+    /**
+     * A clock that only moves when told to.
+     */
+    private static final class ManualClock extends Clock {
+        private Instant now = Instant.parse("2030-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+
+    private List<PurchaseOrder> sent;
+    private ManualClock clock;
+    private PurchaseOrderBatcher batcher;
+
+    @BeforeEach
+    void setUp() {
+        sent = new ArrayList<>();
+        clock = new ManualClock();
+        batcher = new PurchaseOrderBatcher(sent::add, 10, Duration.ofMinutes(5), clock);
+    }
+
+    private FulfillmentDetails details(Map<String, Map<String, Integer>> presetOrders) {
+        return new FulfillmentDetails(presetOrders, Map.of());
+    }
+
+    @Test
+    @DisplayName("Test demand is consolidated per manufacturer")
+    void testConsolidation() {
+        batcher.add(details(Map.of("dell", Map.of("inspiron", 2), "apple", Map.of("air-m4", 1))));
+        batcher.add(details(Map.of("dell", Map.of("inspiron", 3, "xps", 1))));
+        assertTrue(sent.isEmpty());
+        assertEquals(2, batcher.getPendingBatches());
+
+        assertEquals(2, batcher.flushAll());
+        PurchaseOrder dell = sent.stream().filter(o -> o.manufacturer().equals("dell")).findFirst().orElseThrow();
+        assertEquals(Map.of("inspiron", 5, "xps", 1), dell.models());
+        assertEquals(6, dell.units());
+        assertEquals(2, dell.fulfilments());
+        assertEquals(0, batcher.getPendingBatches());
+    }
+
+    @Test
+    @DisplayName("Test size threshold flushes a batch")
+    void testSizeThreshold() {
+        batcher.add(details(Map.of("dell", Map.of("inspiron", 6))));
+        batcher.add(details(Map.of("dell", Map.of("inspiron", 4), "apple", Map.of("air-m4", 1))));
+
+        assertEquals(1, sent.size());
+        assertEquals("dell", sent.get(0).manufacturer());
+        assertEquals(10, sent.get(0).units());
+        assertEquals(1, batcher.getPendingBatches());
+    }
+
+    @Test
+    @DisplayName("Test age threshold flushes a batch")
+    void testAgeThreshold() {
+        batcher.add(details(Map.of("dell", Map.of("inspiron", 1))));
+        clock.advance(Duration.ofMinutes(4));
+        batcher.add(details(Map.of("apple", Map.of("air-m4", 1))));
+        assertEquals(0, batcher.flushDue());
+
+        clock.advance(Duration.ofMinutes(1));
+        assertEquals(1, batcher.flushDue());
+        assertEquals("dell", sent.get(0).manufacturer());
+        assertEquals(1, batcher.getPurchaseOrdersSent());
+        assertEquals(2, batcher.getFulfilmentsBatched());
+    }
+
+    @Test
+    @DisplayName("Test a batch the sender fails to send is kept and retried")
+    void testFailedSendRequeued() {
+        List<PurchaseOrder> delivered = new ArrayList<>();
+        AtomicBoolean failing = new AtomicBoolean(true);
+        PurchaseOrderBatcher flaky = new PurchaseOrderBatcher(order -> {
+            if (failing.get()) {
+                throw new IllegalStateException("supplier unavailable");
+            }
+            delivered.add(order);
+        }, 10, Duration.ofMinutes(5), clock);
+
+        flaky.add(details(Map.of("dell", Map.of("inspiron", 10))));
+        assertEquals(1, flaky.getPendingBatches());
+        assertEquals(1, flaky.getSendFailures());
+        assertEquals(0, flaky.getPurchaseOrdersSent());
+
+        // the batch waits for its retry rather than being resent by every fulfilment
+        flaky.add(details(Map.of("dell", Map.of("xps", 1))));
+        assertEquals(1, flaky.getSendFailures());
+        failing.set(false);
+        clock.advance(Duration.ofMinutes(4));
+        assertEquals(0, flaky.flushDue());
+        clock.advance(Duration.ofMinutes(1));
+        assertEquals(1, flaky.flushDue());
+
+        assertEquals(1, delivered.size());
+        assertEquals(Map.of("inspiron", 10, "xps", 1), delivered.get(0).models());
+        assertEquals(2, delivered.get(0).fulfilments());
+        assertEquals(1, flaky.getPurchaseOrdersSent());
+        assertEquals(0, flaky.getPendingBatches());
+    }
+
+    @Test
+    @DisplayName("Test every further failure doubles the wait before a retry")
+    void testRetryBackoff() {
+        PurchaseOrderBatcher failing = new PurchaseOrderBatcher(order -> {
+            throw new IllegalStateException("supplier unavailable");
+        }, 10, Duration.ofMinutes(5), clock);
+
+        failing.add(details(Map.of("dell", Map.of("inspiron", 10))));
+        assertEquals(1, failing.getSendFailures());
+        clock.advance(Duration.ofMinutes(5));
+        assertEquals(0, failing.flushDue());
+        assertEquals(2, failing.getSendFailures());
+
+        clock.advance(Duration.ofMinutes(9));
+        assertEquals(0, failing.flushDue());
+        assertEquals(2, failing.getSendFailures());
+        clock.advance(Duration.ofMinutes(1));
+        assertEquals(0, failing.flushDue());
+        assertEquals(3, failing.getSendFailures());
+
+        // the wait stops growing at the cap
+        for (int i = 0; i < 10; i++) {
+            clock.advance(Duration.ofMinutes(5L * PurchaseOrderBatcher.MAX_BACKOFF_FACTOR));
+            failing.flushDue();
+        }
+        assertEquals(13, failing.getSendFailures());
+        assertEquals(1, failing.getPendingBatches());
+    }
+
+    @Test
+    @DisplayName("Test invalid arguments")
+    void testInvalidArguments() {
+        assertThrowsExactly(IllegalArgumentException.class, () -> new PurchaseOrderBatcher(null, 10, Duration.ofMinutes(1)));
+        assertThrowsExactly(IllegalArgumentException.class, () -> new PurchaseOrderBatcher(sent::add, 0, Duration.ofMinutes(1)));
+        assertThrowsExactly(IllegalArgumentException.class, () -> new PurchaseOrderBatcher(sent::add, 10, Duration.ZERO));
+        assertThrowsExactly(IllegalArgumentException.class, () -> batcher.add(null));
+    }
+}
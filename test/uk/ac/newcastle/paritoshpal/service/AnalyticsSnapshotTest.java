@@ -0,0 +1,124 @@
+package uk.ac.newcastle.paritoshpal.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import uk.ac.newcastle.paritoshpal.model.customer.Customer;
+import uk.ac.newcastle.paritoshpal.model.customer.CustomerFactory;
+import uk.ac.newcastle.paritoshpal.model.payment.CreditCard;
+import uk.ac.newcastle.paritoshpal.model.payment.CreditCardFactory;
+import uk.ac.newcastle.paritoshpal.model.pc.CustomModel;
+import uk.ac.newcastle.paritoshpal.model.pc.CustomModelFactory;
+import uk.ac.newcastle.paritoshpal.model.pc.PCModel;
+import uk.ac.newcastle.paritoshpal.model.pc.PresetModel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("AnalyticsSnapshot Unit Tests")
+class AnalyticsSnapshotTest {
+
+    private PCShopImpl all;
+    private PCShopImpl[] nodes;
+
+    @BeforeEach
+    void setUp() {
+        all = new PCShopImpl();
+        nodes = new PCShopImpl[]{new PCShopImpl(), new PCShopImpl(), new PCShopImpl()};
+
+        Calendar cal = Calendar.getInstance();
+        cal.set(2033, Calendar.JUNE, 6);
+        Date expiry = cal.getTime();
+        List<PresetModel> presets = List.of(new PresetModel("inspiron", "dell", List.of("i9")),
+                new PresetModel("inspiron", "dell", List.of("i7")),
+                new PresetModel("air-m4", "apple", List.of("M4")));
+        List<String> parts = List.of("CPU", "RAM", "SSD");
+
+        Random random = new Random(42);
+        for (int i = 0; i < 60; i++) {
+            Customer customer = CustomerFactory.getCustomer("Node" + (char) ('a' + random.nextInt(6)), "Customer");
+            CreditCard card = CreditCardFactory.getCreditCard("4" + (1000000 + random.nextInt(20)), expiry,
+                    "Node Customer");
+            List<PCModel> models = new ArrayList<>();
+            models.add(presets.get(random.nextInt(presets.size())));
+            CustomModel custom = CustomModelFactory.createCustomModel();
+            custom.addPart(parts.get(random.nextInt(parts.size())));
+            models.add(custom);
+
+            PCShopImpl node = nodes[random.nextInt(nodes.length)];
+            Order a = all.placeOrder(models, customer, card);
+            Order b = node.placeOrder(models, customer, card);
+            if (random.nextInt(3) > 0) {
+                all.fulfillOrder(a);
+                node.fulfillOrder(b);
+            }
+        }
+    }
+
+    private byte[][] exportNodes() {
+        byte[][] exported = new byte[nodes.length][];
+        for (int i = 0; i < nodes.length; i++) {
+            exported[i] = nodes[i].getAnalyticsSnapshot().toBytes();
+        }
+        return exported;
+    }
+
+    @Test
+    @DisplayName("Test merged node snapshots match a single shop")
+    void testMergedMatchesSingleShop() {
+        AnalyticsSnapshot merged = AnalyticsSnapshot.empty();
+        for (byte[] bytes : exportNodes()) {
+            merged = merged.merge(AnalyticsSnapshot.fromBytes(bytes));
+        }
+        assertEquals(all.getLargestCustomer(), merged.getLargestCustomer());
+        assertEquals(all.getMostOrderedModel(), merged.getMostOrderedModel());
+        assertEquals(all.getMostOrderedPart(), merged.getMostOrderedPart());
+        assertEquals(all.getAnalyticsSnapshot(), merged);
+        assertEquals(all.getAnalyticsSnapshot().getDistinctCards(), merged.getDistinctCards());
+        // decoded customers are equal to the shop's, but not taken from the factory
+        assertNotSame(all.getLargestCustomer().customer(), merged.getLargestCustomer().customer());
+    }
+
+    @Test
+    @DisplayName("Test merge is associative and commutative")
+    void testMergeLaws() {
+        byte[][] exported = exportNodes();
+        AnalyticsSnapshot a = AnalyticsSnapshot.fromBytes(exported[0]);
+        AnalyticsSnapshot b = AnalyticsSnapshot.fromBytes(exported[1]);
+        AnalyticsSnapshot c = AnalyticsSnapshot.fromBytes(exported[2]);
+
+        byte[] left = a.merge(b).merge(c).toBytes();
+        byte[] right = a.merge(b.merge(c)).toBytes();
+        byte[] shuffled = c.merge(a).merge(b).toBytes();
+        assertArrayEquals(left, right);
+        assertArrayEquals(left, shuffled);
+        assertEquals(a, a.merge(AnalyticsSnapshot.empty()));
+    }
+
+    @Test
+    @DisplayName("Test sharded shop snapshot")
+    void testShardedSnapshot() {
+        ShardedPCShop sharded = new ShardedPCShop(3);
+        assertEquals(AnalyticsSnapshot.empty(), sharded.getAnalyticsSnapshot());
+        assertNull(sharded.getAnalyticsSnapshot().getLargestCustomer());
+    }
+
+    @Test
+    @DisplayName("Test invalid bytes")
+    void testInvalidBytes() {
+        byte[] bytes = nodes[0].getAnalyticsSnapshot().toBytes();
+        assertThrows(IllegalArgumentException.class, () -> AnalyticsSnapshot.fromBytes(null));
+        assertThrows(IllegalArgumentException.class, () -> AnalyticsSnapshot.fromBytes(new byte[]{1, 2, 3}));
+        assertThrows(IllegalArgumentException.class,
+                () -> AnalyticsSnapshot.fromBytes(Arrays.copyOf(bytes, bytes.length - 1)));
+        assertThrows(IllegalArgumentException.class,
+                () -> AnalyticsSnapshot.fromBytes(Arrays.copyOf(bytes, bytes.length + 1)));
+        assertThrows(IllegalArgumentException.class, () -> AnalyticsSnapshot.empty().merge(null));
+    }
+}
@@ -0,0 +1,152 @@
+package uk.ac.newcastle.paritoshpal.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import uk.ac.newcastle.paritoshpal.model.customer.CustomerFactory;
+import uk.ac.newcastle.paritoshpal.model.payment.CreditCardFactory;
+import uk.ac.newcastle.paritoshpal.model.pc.PresetModel;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("IdempotencyTable Unit Tests")
+class IdempotencyTableTest {
+
+    /**
+     * A clock that only moves when told to.
+     */
+    private static final class ManualClock extends Clock {
+        private Instant now = Instant.parse("2030-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+
+    private ManualClock clock;
+    private Order order;
+
+    @BeforeEach
+    void setUp() {
+        clock = new ManualClock();
+        Calendar cal = Calendar.getInstance();
+        cal.set(2033, Calendar.JUNE, 6);
+        order = new PCShopImpl().placeOrder(List.of(new PresetModel("inspiron", "dell", List.of("i9"))),
+                CustomerFactory.getCustomer("Idem", "Potent"),
+                CreditCardFactory.getCreditCard("60606060", cal.getTime(), "Idem Potent"));
+    }
+
+    @Test
+    @DisplayName("Test keys expire after the window")
+    void testExpiry() {
+        IdempotencyTable table = new IdempotencyTable(Duration.ofMinutes(10), 100, clock);
+        assertSame(order, table.placeOnce("a", () -> order));
+        assertSame(order, table.placeOnce("a", () -> fail("placed twice")));
+
+        clock.advance(Duration.ofMinutes(9));
+        assertSame(order, table.get("a"));
+        clock.advance(Duration.ofMinutes(2));
+        assertNull(table.get("a"));
+
+        // expired keys are dropped once their generation is two windows old
+        clock.advance(Duration.ofMinutes(10));
+        table.get("b");
+        assertEquals(0, table.size());
+    }
+
+    @Test
+    @DisplayName("Test memory stays bounded")
+    void testBounded() {
+        IdempotencyTable table = new IdempotencyTable(Duration.ofHours(1), 10, clock);
+        for (int i = 0; i < 1000; i++) {
+            table.placeOnce("key-" + i, () -> order);
+            assertTrue(table.size() <= 10);
+        }
+        // the most recent keys are still remembered
+        assertSame(order, table.get("key-999"));
+        assertNull(table.get("key-0"));
+    }
+
+    @Test
+    @DisplayName("Test concurrent requests with the same key place one order")
+    void testConcurrentPlaceOnce() throws Exception {
+        IdempotencyTable table = new IdempotencyTable(Duration.ofMinutes(10), 100, clock);
+        AtomicInteger placements = new AtomicInteger();
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Order>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return table.placeOnce("retry", () -> {
+                        placements.incrementAndGet();
+                        try {
+                            Thread.sleep(20);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return order;
+                    });
+                }));
+            }
+            start.countDown();
+            for (Future<Order> result : results) {
+                assertSame(order, result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(1, placements.get());
+    }
+
+    @Test
+    @DisplayName("Test a failed placement releases its key")
+    void testFailedPlacementReleasesKey() {
+        IdempotencyTable table = new IdempotencyTable(Duration.ofMinutes(10), 100, clock);
+        assertThrows(IllegalStateException.class, () -> table.placeOnce("a", () -> {
+            throw new IllegalStateException("out of stock");
+        }));
+        assertNull(table.get("a"));
+        assertSame(order, table.placeOnce("a", () -> order));
+        assertSame(order, table.placeOnce("a", () -> fail("placed twice")));
+    }
+
+    @Test
+    @DisplayName("Test invalid configuration")
+    void testInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> new IdempotencyTable(Duration.ZERO, 10, clock));
+        assertThrows(IllegalArgumentException.class, () -> new IdempotencyTable(Duration.ofMinutes(1), 1, clock));
+        assertThrows(IllegalArgumentException.class, () -> new IdempotencyTable(Duration.ofMinutes(1), 10, null));
+    }
+}
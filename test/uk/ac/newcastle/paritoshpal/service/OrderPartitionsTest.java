@@ -0,0 +1,100 @@
+package uk.ac.newcastle.paritoshpal.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import uk.ac.newcastle.paritoshpal.model.customer.Customer;
+import uk.ac.newcastle.paritoshpal.model.customer.CustomerFactory;
+import uk.ac.newcastle.paritoshpal.model.payment.CreditCard;
+import uk.ac.newcastle.paritoshpal.model.payment.CreditCardFactory;
+import uk.ac.newcastle.paritoshpal.model.pc.PCModel;
+import uk.ac.newcastle.paritoshpal.model.pc.PresetModel;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("OrderPartitions Unit Tests")
+class OrderPartitionsTest {
+
+    private Customer customer;
+    private CreditCard card;
+    private List<PCModel> models;
+    private OrderPartitions partitions;
+
+    @BeforeEach
+    void setUp() {
+        customer = CustomerFactory.getCustomer("Partition", "Customer");
+        Calendar cal = Calendar.getInstance();
+        cal.set(2033, Calendar.JUNE, 6);
+        card = CreditCardFactory.getCreditCard("48484848", cal.getTime(), "Partition Customer");
+        models = List.of(new PresetModel("inspiron", "dell", List.of("i9")));
+        partitions = new OrderPartitions();
+    }
+
+    private List<Order> addOrders(int count) {
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Order order = new Order(card, models, customer);
+            order.setSequence(i);
+            partitions.add(order);
+            orders.add(order);
+        }
+        return orders;
+    }
+
+    @Test
+    @DisplayName("Test a migrated order moves to its new partition")
+    void testMigrate() {
+        List<Order> orders = addOrders(3);
+        assertEquals(3, partitions.size(OrderStatus.PLACED));
+
+        orders.get(1).fulfill();
+        partitions.migrate(orders.get(1), OrderStatus.PLACED, OrderStatus.FULFILLED);
+        orders.get(0).cancel();
+        partitions.migrate(orders.get(0), OrderStatus.PLACED, OrderStatus.CANCELLED);
+
+        assertEquals(List.of(orders.get(2)), List.copyOf(partitions.orders(OrderStatus.PLACED)));
+        assertEquals(List.of(orders.get(1)), List.copyOf(partitions.orders(OrderStatus.FULFILLED)));
+        assertEquals(Set.of(0), Set.copyOf(partitions.sequences(OrderStatus.CANCELLED)));
+        for (OrderStatus status : OrderStatus.values()) {
+            assertEquals(1, partitions.size(status));
+        }
+    }
+
+    @Test
+    @DisplayName("Test a concurrent reader never misses a migrating order")
+    void testConcurrentReaderNeverMisses() throws InterruptedException {
+        int count = 20_000;
+        List<Order> orders = addOrders(count);
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<String> failure = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            while (!done.get() && failure.get() == null) {
+                // an order missing from the old partition was added to the new one before the walk reached it
+                Set<Integer> seen = new HashSet<>(partitions.sequences(OrderStatus.PLACED));
+                seen.addAll(partitions.sequences(OrderStatus.FULFILLED));
+                if (seen.size() != count) {
+                    failure.set("saw " + seen.size() + " of " + count + " orders");
+                }
+            }
+        });
+        reader.start();
+        for (Order order : orders) {
+            order.fulfill();
+            partitions.migrate(order, OrderStatus.PLACED, OrderStatus.FULFILLED);
+        }
+        done.set(true);
+        reader.join();
+
+        assertNull(failure.get());
+        assertEquals(count, partitions.size(OrderStatus.FULFILLED));
+        assertEquals(0, partitions.size(OrderStatus.PLACED));
+    }
+}
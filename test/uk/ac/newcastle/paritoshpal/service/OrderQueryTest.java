@@ -0,0 +1,236 @@
+package uk.ac.newcastle.paritoshpal.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import uk.ac.newcastle.paritoshpal.model.customer.Customer;
+import uk.ac.newcastle.paritoshpal.model.customer.CustomerFactory;
+import uk.ac.newcastle.paritoshpal.model.payment.CreditCard;
+import uk.ac.newcastle.paritoshpal.model.payment.CreditCardFactory;
+import uk.ac.newcastle.paritoshpal.model.pc.CustomModel;
+import uk.ac.newcastle.paritoshpal.model.pc.CustomModelFactory;
+import uk.ac.newcastle.paritoshpal.model.pc.PCModel;
+import uk.ac.newcastle.paritoshpal.model.pc.PresetModel;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("OrderQuery Unit Tests")
+class OrderQueryTest {
+
+    private List<Customer> customers;
+    private CreditCard card;
+    private List<PresetModel> presets;
+    private List<String> parts;
+
+    @BeforeEach
+    void setUp() {
+        customers = new ArrayList<>();
+        for (char first = 'a'; first <= 'f'; first++) {
+            customers.add(CustomerFactory.getCustomer("Query" + first, "Customer"));
+        }
+        Calendar cal = Calendar.getInstance();
+        cal.set(2033, Calendar.JUNE, 6);
+        card = CreditCardFactory.getCreditCard("46464646", cal.getTime(), "Query Customer");
+        presets = List.of(new PresetModel("inspiron", "dell", List.of("i9", "SSD")),
+                new PresetModel("air-m4", "apple", List.of("M4")));
+        parts = List.of("CPU", "RAM", "SSD", "GPU", "PSU");
+    }
+
+    private List<PCModel> randomModels(Random random) {
+        List<PCModel> models = new ArrayList<>();
+        if (random.nextBoolean()) {
+            models.add(presets.get(random.nextInt(presets.size())));
+        }
+        if (models.isEmpty() || random.nextBoolean()) {
+            CustomModel custom = CustomModelFactory.createCustomModel();
+            custom.addPart(parts.get(random.nextInt(parts.size())));
+            custom.addPart(parts.get(random.nextInt(parts.size())));
+            models.add(custom);
+        }
+        return models;
+    }
+
+    /**
+     * Places random orders and cancels or fulfils most of them.
+     */
+    private void populate(PCShop shop, Random random, int count) {
+        for (int i = 0; i < count; i++) {
+            Order order = shop.placeOrder(randomModels(random), customers.get(random.nextInt(customers.size())), card);
+            int action = random.nextInt(4);
+            if (action == 0) {
+                shop.cancelOrder(order);
+            } else if (action < 3) {
+                shop.fulfillOrder(order);
+            }
+        }
+    }
+
+    private static boolean hasPart(Order order, String part) {
+        return order.getModels().stream().anyMatch(model -> model.getParts().contains(part));
+    }
+
+    private static List<Order> scan(List<Order> history, Predicate<Order> filter) {
+        return history.stream().filter(filter).toList();
+    }
+
+    @Test
+    @DisplayName("Test every combination of criteria matches a scan of the history")
+    void testMatchesScan() {
+        Random random = new Random(7);
+        PCShopImpl shop = new PCShopImpl();
+        populate(shop, random, 300);
+        List<Order> history = shop.getOrderSnapshot();
+        Date from = history.get(100).getOrderDate();
+        Date to = history.get(200).getOrderDate();
+        Predicate<Order> inRange = order -> !order.getOrderDate().before(from) && order.getOrderDate().before(to);
+
+        for (Customer customer : customers) {
+            for (OrderStatus status : OrderStatus.values()) {
+                for (String part : parts) {
+                    assertEquals(scan(history, order -> order.getCustomer().equals(customer)
+                                    && order.getOrderStatus() == status && hasPart(order, part)),
+                            shop.orders().customer(customer).status(status).containsPart(part).toList());
+                    assertEquals(scan(history, order -> order.getOrderStatus() == status && hasPart(order, part)
+                                    && inRange.test(order)),
+                            shop.orders().status(status).containsPart(part).between(from, to).toList());
+                }
+            }
+        }
+        assertEquals(history, shop.orders().toList());
+        assertEquals(scan(history, order -> order.getOrderStatus() != OrderStatus.PLACED),
+                shop.orders().status(OrderStatus.CANCELLED, OrderStatus.FULFILLED).toList());
+        assertEquals(scan(history, order -> hasPart(order, "i9")), shop.orders().containsPart("i9").toList());
+        assertEquals(scan(history, inRange), shop.orders().between(from, to).toList());
+        assertEquals(scan(history, order -> !order.getOrderDate().before(from)),
+                shop.orders().between(from, null).toList());
+    }
+
+    @Test
+    @DisplayName("Test the status index follows cancels and fulfils")
+    void testStatusIndexFollowsTransitions() {
+        PCShopImpl shop = new PCShopImpl();
+        Order order = shop.placeOrder(randomModels(new Random(1)), customers.get(0), card);
+        assertEquals(List.of(order), shop.orders().status(OrderStatus.PLACED).toList());
+        shop.fulfillOrder(order);
+        assertEquals(0, shop.orders().status(OrderStatus.PLACED).count());
+        assertEquals(List.of(order), shop.orders().status(OrderStatus.FULFILLED).toList());
+    }
+
+    @Test
+    @DisplayName("Test the planner drives the query with the most selective index")
+    void testPlannerPicksMostSelectiveIndex() {
+        PCShopImpl shop = new PCShopImpl();
+        Customer rare = customers.get(0);
+        Customer frequent = customers.get(1);
+        for (int i = 0; i < 50; i++) {
+            CustomModel custom = CustomModelFactory.createCustomModel();
+            custom.addPart(i == 0 ? "GPU" : "RAM");
+            Order order = shop.placeOrder(List.of(custom), i % 10 == 0 ? rare : frequent, card);
+            if (i % 2 == 0) {
+                shop.fulfillOrder(order);
+            }
+        }
+        assertTrue(shop.orders().explain().startsWith("full scan (50 of 50"));
+        assertTrue(shop.orders().status(OrderStatus.FULFILLED).customer(rare).explain()
+                .startsWith("customer index (5 of 50"));
+        assertTrue(shop.orders().customer(rare).containsPart("GPU").explain().startsWith("part index (1 of 50"));
+        assertTrue(shop.orders().containsPart("HDD").explain().startsWith("part index (0 of 50"));
+        assertEquals(0, shop.orders().containsPart("HDD").count());
+        Date after = new Date(System.currentTimeMillis() + 60_000);
+        assertTrue(shop.orders().status(OrderStatus.PLACED).between(after, null).explain()
+                .startsWith("time index (0 of 50"));
+    }
+
+    @Test
+    @DisplayName("Test the result streams lazily and honours the limit")
+    void testLazyAndLimited() {
+        PCShopImpl shop = new PCShopImpl();
+        populate(shop, new Random(3), 100);
+        AtomicInteger visited = new AtomicInteger();
+        List<Order> firstTwo = shop.orders().stream().peek(order -> visited.incrementAndGet()).limit(2).toList();
+        assertEquals(shop.getOrderSnapshot().subList(0, 2), firstTwo);
+        assertEquals(2, visited.get());
+        assertEquals(5, shop.orders().limit(5).count());
+        assertEquals(0, shop.orders().limit(0).count());
+    }
+
+    @Test
+    @DisplayName("Test a query is immutable and can be refined")
+    void testImmutable() {
+        PCShopImpl shop = new PCShopImpl();
+        populate(shop, new Random(5), 60);
+        OrderQuery fulfilled = shop.orders().status(OrderStatus.FULFILLED);
+        long all = fulfilled.count();
+        long forCustomer = fulfilled.customer(customers.get(0)).count();
+        assertTrue(forCustomer <= all);
+        assertEquals(all, fulfilled.count());
+    }
+
+    @Test
+    @DisplayName("Test invalid criteria are rejected")
+    void testInvalidCriteria() {
+        OrderQuery query = new PCShopImpl().orders();
+        assertThrows(IllegalArgumentException.class, () -> query.customer(null));
+        assertThrows(IllegalArgumentException.class, () -> query.status(null));
+        assertThrows(IllegalArgumentException.class, () -> query.status(OrderStatus.PLACED, (OrderStatus) null));
+        assertThrows(IllegalArgumentException.class, () -> query.containsPart(" "));
+        assertThrows(IllegalArgumentException.class, () -> query.limit(-1));
+        assertThrows(IllegalArgumentException.class, () -> query.between(new Date(10), new Date(5)));
+    }
+
+    @Test
+    @DisplayName("Test a sharded shop returns the same orders as a scan of all shards")
+    void testSharded() {
+        ShardedPCShop shop = new ShardedPCShop(4);
+        populate(shop, new Random(11), 200);
+        List<Order> history = new ArrayList<>();
+        shop.getOrderSnapshot().forEach(history::add);
+        for (Customer customer : customers) {
+            assertEquals(scan(history, order -> order.getCustomer().equals(customer)
+                            && order.getOrderStatus() == OrderStatus.FULFILLED),
+                    shop.orders().customer(customer).status(OrderStatus.FULFILLED).toList());
+        }
+        List<Order> withSsd = shop.orders().containsPart("SSD").toList();
+        assertEquals(new HashSet<>(scan(history, order -> hasPart(order, "SSD"))), Set.copyOf(withSsd));
+        for (int i = 1; i < withSsd.size(); i++) {
+            assertFalse(withSsd.get(i).getOrderDate().before(withSsd.get(i - 1).getOrderDate()));
+        }
+        assertEquals(3, shop.orders().containsPart("SSD").limit(3).count());
+        assertEquals(1, shop.orders().customer(customers.get(0)).explain().split(";").length);
+        assertEquals(4, shop.orders().explain().split(";").length);
+    }
+
+    @Test
+    @DisplayName("Test a sharded query is merged lazily and releases the shards between chunks")
+    void testShardedLazyMerge() throws InterruptedException {
+        ShardedPCShop shop = new ShardedPCShop(4);
+        populate(shop, new Random(13), 1500);
+        List<Order> history = new ArrayList<>();
+        shop.getOrderSnapshot().forEach(history::add);
+
+        Iterator<Order> result = shop.orders().stream().iterator();
+        List<Order> read = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            read.add(result.next());
+        }
+        // would block on a shard lock still held by the query
+        Thread placer = new Thread(() -> populate(shop, new Random(17), 50));
+        placer.start();
+        placer.join(10_000);
+        assertFalse(placer.isAlive());
+        result.forEachRemaining(read::add);
+
+        assertEquals(history, read);
+    }
+}
@@ -131,6 +131,51 @@ class OrderTest {
 
         }
 
+        @Test
+        @DisplayName("Test version increments on every transition")
+        void testVersion(){
+            assertEquals(1, order.getVersion());
+            assertEquals(new OrderState(OrderStatus.PLACED, 1), order.getState());
+            order.fulfill(1);
+            assertEquals(2, order.getVersion());
+            assertEquals(OrderStatus.FULFILLED, order.getOrderStatus());
+            assertEquals(new OrderState(OrderStatus.FULFILLED, 2), order.getState());
+        }
+
+        @Test
+        @DisplayName("Test stale version is rejected")
+        void testStaleVersion(){
+            long read = order.getVersion();
+            order.cancel(read);
+
+            StaleOrderException e = assertThrowsExactly(StaleOrderException.class, () -> order.fulfill(read));
+            assertEquals(1, e.getExpectedVersion());
+            assertEquals(2, e.getActualVersion());
+            assertEquals(OrderStatus.CANCELLED, order.getOrderStatus());
+        }
+
+        @Test
+        @DisplayName("Test only one of two racing clients wins")
+        void testRace() throws InterruptedException {
+            for (int round = 0; round < 200; round++) {
+                Order raced = new Order(creditCard, models, customer);
+                long read = raced.getVersion();
+                int[] wins = new int[2];
+                Thread canceller = new Thread(() -> {
+                    try { raced.cancel(read); wins[0] = 1; } catch (StaleOrderException ignored) { }
+                });
+                Thread fulfiller = new Thread(() -> {
+                    try { raced.fulfill(read); wins[1] = 1; } catch (StaleOrderException ignored) { }
+                });
+                canceller.start();
+                fulfiller.start();
+                canceller.join();
+                fulfiller.join();
+                assertEquals(1, wins[0] + wins[1]);
+                assertEquals(2, raced.getVersion());
+            }
+        }
+
 
     }
 
@@ -152,6 +197,21 @@ class OrderTest {
             assertEquals(models,order.getModels());
         }
 
+        @Test
+        @DisplayName("Test custom models are frozen when the order is placed")
+        void testCustomModelsFrozen(){
+            CustomModel customModel = (CustomModel) models.get(models.size() - 1);
+            Order order = new Order(creditCard, models, customer);
+            CustomModel placed = (CustomModel) order.getModels().get(models.size() - 1);
+
+            customModel.addPart("RAM: 64GB");
+            assertTrue(placed.isFrozen());
+            assertEquals(2, placed.getPartCount());
+            assertFalse(placed.partCounts().containsKey("RAM: 64GB"));
+            assertEquals(customModel, placed);
+            assertThrows(IllegalStateException.class, () -> placed.addPart("RAM: 64GB"));
+        }
+
         @Test
         @DisplayName("Test getOrderDate()")
         void testGetOrderDate(){
@@ -4,9 +4,15 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import uk.ac.newcastle.paritoshpal.dto.CacheStats;
 import uk.ac.newcastle.paritoshpal.dto.CustomerStats;
+import uk.ac.newcastle.paritoshpal.dto.CustomerSummary;
 import uk.ac.newcastle.paritoshpal.dto.ModelStats;
 import uk.ac.newcastle.paritoshpal.dto.PartsStats;
+import uk.ac.newcastle.paritoshpal.inventory.Inventory;
+import uk.ac.newcastle.paritoshpal.metrics.MetricsSnapshot;
+import uk.ac.newcastle.paritoshpal.metrics.Operation;
 import uk.ac.newcastle.paritoshpal.model.customer.Customer;
 import uk.ac.newcastle.paritoshpal.model.customer.CustomerFactory;
 import uk.ac.newcastle.paritoshpal.model.fulfillment.FulfillmentDetails;
@@ -16,9 +22,22 @@ import uk.ac.newcastle.paritoshpal.model.pc.CustomModel;
 import uk.ac.newcastle.paritoshpal.model.pc.CustomModelFactory;
 import uk.ac.newcastle.paritoshpal.model.pc.PCModel;
 import uk.ac.newcastle.paritoshpal.model.pc.PresetModel;
+import uk.ac.newcastle.paritoshpal.procurement.PurchaseOrder;
+import uk.ac.newcastle.paritoshpal.procurement.PurchaseOrderBatcher;
 import static org.junit.jupiter.api.Assertions.*;
 
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.List;
 
@@ -130,6 +149,25 @@ class PCShopImplTest {
             // verify status change
             assertEquals(OrderStatus.FULFILLED,order.getOrderStatus());
         }
+
+        @Test
+        @DisplayName("Test an order placed in another shop is rejected unchanged")
+        void testForeignOrderRejected(){
+            PCShopImpl other = new PCShopImpl();
+            Order foreign = other.placeOrder(List.of(preset1),custA,cardA);
+            shop.placeOrder(List.of(preset2),custA,cardA);
+
+            assertThrowsExactly(IllegalArgumentException.class, () -> shop.cancelOrder(foreign));
+            assertThrowsExactly(IllegalArgumentException.class, () -> shop.fulfillOrder(foreign));
+            assertThrowsExactly(IllegalArgumentException.class, () -> shop.cancelIfVersion(foreign, 1));
+            assertEquals(OrderStatus.PLACED, foreign.getOrderStatus());
+            assertEquals(1, foreign.getVersion());
+            assertEquals(0, shop.orders().status(OrderStatus.CANCELLED).count());
+            assertEquals(1, shop.getCustomerSummary(custA).ordersPlaced());
+
+            other.cancelOrder(foreign);
+            assertEquals(OrderStatus.CANCELLED, foreign.getOrderStatus());
+        }
     }
 
     @Nested
@@ -235,4 +273,455 @@ class PCShopImplTest {
 
 
 
-}
\ No newline at end of file
+    @Nested
+    @DisplayName("Metrics Tests")
+    class MetricsTests{
+
+        @Test
+        @DisplayName("Test operations are counted")
+        void testOperationCounts(){
+            shop.fulfillOrder(shop.placeOrder(List.of(preset1), custA, cardA));
+            shop.cancelOrder(shop.placeOrder(List.of(preset2), custB, cardB));
+            shop.placeOrder(List.of(preset3), custB, cardB);
+            assertThrowsExactly(IllegalArgumentException.class, () -> shop.placeOrder(List.of(preset1), custA, invalidCard));
+            shop.getLargestCustomer();
+
+            MetricsSnapshot snapshot = shop.getMetrics().snapshot();
+            assertEquals(4, snapshot.operations().get(Operation.PLACE_ORDER).calls());
+            assertEquals(1, snapshot.operations().get(Operation.PLACE_ORDER).failures());
+            assertEquals(1, snapshot.operations().get(Operation.FULFILL_ORDER).calls());
+            assertEquals(1, snapshot.operations().get(Operation.CANCEL_ORDER).calls());
+            assertEquals(1, snapshot.operations().get(Operation.LARGEST_CUSTOMER).latency().getCount());
+        }
+
+        @Test
+        @DisplayName("Test status gauges")
+        void testStatusGauges(){
+            shop.fulfillOrder(shop.placeOrder(List.of(preset1), custA, cardA));
+            shop.cancelOrder(shop.placeOrder(List.of(preset2), custB, cardB));
+            Order placed = shop.placeOrder(List.of(preset3), custB, cardB);
+            // a failed transition does not move the order
+            shop.cancelOrder(placed);
+            assertThrowsExactly(IllegalStateException.class, () -> shop.fulfillOrder(placed));
+
+            MetricsSnapshot snapshot = shop.getMetrics().snapshot();
+            assertEquals(3, snapshot.historySize());
+            assertEquals(0, snapshot.ordersByStatus().get(OrderStatus.PLACED));
+            assertEquals(1, snapshot.ordersByStatus().get(OrderStatus.FULFILLED));
+            assertEquals(2, snapshot.ordersByStatus().get(OrderStatus.CANCELLED));
+        }
+
+        @Test
+        @DisplayName("Test metrics MBean")
+        void testMBean() throws Exception {
+            shop.placeOrder(List.of(preset1), custA, cardA);
+            ObjectName name = shop.getMetrics().registerMBean("test-shop");
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            try {
+                assertEquals(1L, server.getAttribute(name, "HistorySize"));
+            } finally {
+                server.unregisterMBean(name);
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Flight Recorder Tests")
+    class FlightRecorderTests{
+
+        @Test
+        @DisplayName("Test order lifecycle events are recorded")
+        void testLifecycleEvents(@TempDir Path dir) throws Exception {
+            List<RecordedEvent> events;
+            try (Recording recording = new Recording()) {
+                for (String event : List.of("OrderPlaced", "OrderCancelled", "OrderFulfilled", "AnalyticsQuery")) {
+                    recording.enable("uk.ac.newcastle.paritoshpal." + event).withThreshold(Duration.ZERO);
+                }
+                recording.start();
+                shop.fulfillOrder(shop.placeOrder(List.of(preset1, preset2, custom1), custA, cardA));
+                shop.cancelOrder(shop.placeOrder(List.of(preset1), custB, cardB));
+                shop.getMostOrderedPart();
+                shop.getMostOrderedPart();
+                recording.stop();
+                Path file = dir.resolve("shop.jfr");
+                recording.dump(file);
+                events = RecordingFile.readAllEvents(file);
+            }
+
+            RecordedEvent fulfilled = single(events, "uk.ac.newcastle.paritoshpal.OrderFulfilled");
+            assertEquals(custA.toString(), fulfilled.getString("customer"));
+            assertEquals(3, fulfilled.getInt("models"));
+            assertEquals(2, fulfilled.getInt("manufacturers"));
+            assertEquals(3, fulfilled.getInt("parts"));
+            assertTrue(fulfilled.getBoolean("success"));
+
+            assertEquals(2, events.stream()
+                    .filter(e -> e.getEventType().getName().equals("uk.ac.newcastle.paritoshpal.OrderPlaced")).count());
+            assertTrue(single(events, "uk.ac.newcastle.paritoshpal.OrderCancelled").getBoolean("success"));
+
+            List<RecordedEvent> queries = events.stream()
+                    .filter(e -> e.getEventType().getName().equals("uk.ac.newcastle.paritoshpal.AnalyticsQuery"))
+                    .sorted(Comparator.comparing(RecordedEvent::getStartTime))
+                    .toList();
+            assertEquals(2, queries.size());
+            for (RecordedEvent query : queries) {
+                assertEquals("getMostOrderedPart", query.getString("query"));
+                assertTrue(query.getBoolean("resultFound"));
+            }
+            assertFalse(queries.get(0).getBoolean("cacheHit"));
+            assertEquals(1, queries.get(0).getLong("ordersScanned"));
+            // the repeated query is answered from the cache and scans nothing
+            assertTrue(queries.get(1).getBoolean("cacheHit"));
+            assertEquals(0, queries.get(1).getLong("ordersScanned"));
+        }
+
+        private RecordedEvent single(List<RecordedEvent> events, String name) {
+            List<RecordedEvent> matching = events.stream()
+                    .filter(e -> e.getEventType().getName().equals(name))
+                    .toList();
+            assertEquals(1, matching.size());
+            return matching.get(0);
+        }
+    }
+
+    @Nested
+    @DisplayName("Analytics Cache Tests")
+    class AnalyticsCacheTests{
+
+        @Test
+        @DisplayName("Test repeated queries hit the cache")
+        void testRepeatedQueriesHit(){
+            shop.fulfillOrder(shop.placeOrder(List.of(preset1), custA, cardA));
+
+            CustomerStats first = shop.getLargestCustomer();
+            CustomerStats second = shop.getLargestCustomer();
+            assertSame(first, second);
+            shop.getMostOrderedModel();
+            shop.getMostOrderedModel();
+
+            CacheStats stats = shop.getAnalyticsCacheStats();
+            assertEquals(2, stats.hits());
+            assertEquals(2, stats.misses());
+            assertEquals(0.5, stats.hitRatio());
+        }
+
+        @Test
+        @DisplayName("Test writes invalidate cached results")
+        void testWritesInvalidate(){
+            shop.fulfillOrder(shop.placeOrder(List.of(preset1), custA, cardA));
+            assertEquals(custA, shop.getLargestCustomer().customer());
+
+            shop.fulfillOrder(shop.placeOrder(List.of(preset2), custB, cardB));
+            shop.fulfillOrder(shop.placeOrder(List.of(preset2), custB, cardB));
+            assertEquals(custB, shop.getLargestCustomer().customer());
+            assertEquals(preset2, shop.getMostOrderedModel().model());
+
+            Order pending = shop.placeOrder(List.of(preset1), custA, cardA);
+            shop.cancelOrder(pending);
+            assertEquals(custB, shop.getLargestCustomer().customer());
+            assertEquals(0, shop.getAnalyticsCacheStats().hits());
+        }
+    }
+
+    @Nested
+    @DisplayName("Customer Summary Tests")
+    class CustomerSummaryTests{
+
+        @Test
+        @DisplayName("Test getCustomerSummary()")
+        void testGetCustomerSummary(){
+            Order first = shop.placeOrder(List.of(preset1, preset2, custom1), custA, cardA);
+            shop.fulfillOrder(first);
+            Order cancelled = shop.placeOrder(List.of(preset3, custom2), custA, cardA);
+            shop.cancelOrder(cancelled);
+            Order last = shop.placeOrder(List.of(preset1), custA, cardA);
+            shop.placeOrder(List.of(preset1), custB, cardB);
+
+            CustomerSummary summary = shop.getCustomerSummary(custA);
+            assertEquals(custA, summary.customer());
+            assertEquals(3, summary.ordersPlaced());
+            assertEquals(1, summary.ordersFulfilled());
+            assertEquals(1, summary.ordersCancelled());
+            // cancelled order's units are not counted
+            assertEquals(3, summary.presetUnits());
+            assertEquals(4, summary.customParts());
+            assertEquals(first.getOrderDate(), summary.firstOrderDate());
+            assertEquals(last.getOrderDate(), summary.lastOrderDate());
+        }
+
+        @Test
+        @DisplayName("Test getCustomerSummary() for unknown and null customers")
+        void testGetCustomerSummaryUnknown(){
+            assertNull(shop.getCustomerSummary(custD));
+            assertThrowsExactly(IllegalArgumentException.class, () -> shop.getCustomerSummary(null));
+        }
+    }
+
+    @Nested
+    @DisplayName("Inventory Tests")
+    class InventoryTests{
+
+        private Inventory inventory;
+        private PCShopImpl stockedShop;
+
+        @BeforeEach
+        void setUp() {
+            inventory = new Inventory();
+            inventory.addStock("Case", 1);
+            inventory.addStock("RAM 16 GB", 2);
+            inventory.addStock("Intel Core Ultra 9", 5);
+            stockedShop = new PCShopImpl(inventory);
+        }
+
+        @Test
+        @DisplayName("Test placeOrder() reserves and fulfillOrder() commits")
+        void testReserveAndCommit(){
+            Order order = stockedShop.placeOrder(List.of(preset1, custom1), custA, cardA);
+            assertEquals(0, inventory.getAvailable("RAM 16 GB"));
+            assertEquals(2, inventory.getReserved("RAM 16 GB"));
+
+            stockedShop.fulfillOrder(order);
+            assertEquals(0, inventory.getAvailable("RAM 16 GB"));
+            assertEquals(0, inventory.getReserved("RAM 16 GB"));
+        }
+
+        @Test
+        @DisplayName("Test cancelOrder() releases")
+        void testCancelReleases(){
+            Order order = stockedShop.placeOrder(List.of(custom1), custA, cardA);
+            stockedShop.cancelOrder(order);
+            assertEquals(1, inventory.getAvailable("Case"));
+            assertEquals(2, inventory.getAvailable("RAM 16 GB"));
+            assertEquals(0, inventory.getReserved("Case"));
+        }
+
+        @Test
+        @DisplayName("Test placeOrder() out of stock")
+        void testOutOfStock(){
+            stockedShop.placeOrder(List.of(custom1), custA, cardA);
+            // custom2 needs a second case and parts that are not stocked at all
+            assertThrowsExactly(IllegalStateException.class,
+                    () -> stockedShop.placeOrder(List.of(custom2), custB, cardB));
+            assertNull(stockedShop.getCustomerSummary(custB));
+            // preset models need no warehouse parts
+            assertNotNull(stockedShop.placeOrder(List.of(preset1), custB, cardB));
+        }
+    }
+
+    @Nested
+    @DisplayName("Order Listener Tests")
+    class OrderListenerTests{
+
+        @Test
+        @DisplayName("Test listeners are notified")
+        void testListenersNotified(){
+            List<String> calls = new ArrayList<>();
+            OrderListener listener = new OrderListener() {
+                @Override
+                public void orderPlaced(Order order) {
+                    calls.add("placed");
+                }
+
+                @Override
+                public void orderCancelled(Order order) {
+                    calls.add("cancelled");
+                }
+
+                @Override
+                public void orderFulfilled(Order order, FulfillmentDetails details) {
+                    calls.add("fulfilled " + details.getPresetOrders().keySet());
+                }
+            };
+            shop.addOrderListener(listener);
+
+            shop.fulfillOrder(shop.placeOrder(List.of(preset1), custA, cardA));
+            Order order = shop.placeOrder(List.of(preset2), custB, cardB);
+            shop.cancelOrder(order);
+            assertThrowsExactly(IllegalStateException.class, () -> shop.cancelOrder(order));
+
+            assertEquals(List.of("placed", "fulfilled [dell]", "placed", "cancelled"), calls);
+            assertTrue(shop.removeOrderListener(listener));
+        }
+
+        @Test
+        @DisplayName("Test purchase order batching from fulfilments")
+        void testPurchaseOrderBatching(){
+            List<PurchaseOrder> sent = new ArrayList<>();
+            PurchaseOrderBatcher batcher = new PurchaseOrderBatcher(sent::add, 100, Duration.ofHours(1));
+            shop.addOrderListener(batcher);
+
+            shop.fulfillOrder(shop.placeOrder(List.of(preset1, preset1, custom1), custA, cardA));
+            shop.fulfillOrder(shop.placeOrder(List.of(preset1, preset2), custB, cardB));
+            batcher.flushAll();
+
+            assertEquals(2, sent.size());
+            PurchaseOrder dell = sent.stream().filter(o -> o.manufacturer().equals("dell")).findFirst().orElseThrow();
+            assertEquals(3, dell.models().get("inspiron"));
+        }
+
+        @Test
+        @DisplayName("Test a failing listener affects neither the operation nor other listeners")
+        void testFailingListenerIsolated(){
+            List<String> calls = new ArrayList<>();
+            shop.addOrderListener(new OrderListener() {
+                @Override
+                public void orderPlaced(Order order) {
+                    throw new IllegalStateException("listener failure");
+                }
+
+                @Override
+                public void orderFulfilled(Order order, FulfillmentDetails details) {
+                    throw new IllegalStateException("listener failure");
+                }
+            });
+            shop.addOrderListener(new OrderListener() {
+                @Override
+                public void orderPlaced(Order order) {
+                    calls.add("placed");
+                }
+
+                @Override
+                public void orderFulfilled(Order order, FulfillmentDetails details) {
+                    calls.add("fulfilled");
+                }
+            });
+
+            Order order = shop.placeOrder("req-1", List.of(preset1), custA, cardA);
+            assertNotNull(shop.fulfillOrder(order));
+            assertSame(order, shop.placeOrder("req-1", List.of(preset1), custA, cardA));
+
+            assertEquals(List.of("placed", "fulfilled"), calls);
+            assertEquals(OrderStatus.FULFILLED, order.getOrderStatus());
+            assertEquals(0, shop.getMetrics().snapshot().operations().get(Operation.FULFILL_ORDER).failures());
+        }
+    }
+
+    @Nested
+    @DisplayName("Idempotency Tests")
+    class IdempotencyTests{
+
+        @Test
+        @DisplayName("Test retried request returns the original order")
+        void testRetryReturnsOriginal(){
+            Order first = shop.placeOrder("req-1", List.of(preset1), custA, cardA);
+            Order retry = shop.placeOrder("req-1", List.of(preset1), custA, cardA);
+            Order other = shop.placeOrder("req-2", List.of(preset1), custA, cardA);
+
+            assertSame(first, retry);
+            assertNotSame(first, other);
+            assertEquals(2, shop.getCustomerSummary(custA).ordersPlaced());
+            assertEquals(2, shop.getMetrics().snapshot().operations().get(Operation.PLACE_ORDER).calls());
+        }
+
+        @Test
+        @DisplayName("Test failed request is not remembered")
+        void testFailedRequestNotRemembered(){
+            assertThrows(IllegalArgumentException.class,
+                    () -> shop.placeOrder("req-1", List.of(preset1), custA, invalidCard));
+            Order order = shop.placeOrder("req-1", List.of(preset1), custA, cardA);
+            assertEquals(OrderStatus.PLACED, order.getOrderStatus());
+        }
+
+        @Test
+        @DisplayName("Test invalid keys")
+        void testInvalidKeys(){
+            shop.placeOrder("req-1", List.of(preset1), custA, cardA);
+            assertThrows(IllegalArgumentException.class,
+                    () -> shop.placeOrder("req-1", List.of(preset1), custB, cardB));
+            assertThrows(IllegalArgumentException.class,
+                    () -> shop.placeOrder(null, List.of(preset1), custA, cardA));
+            assertThrows(IllegalArgumentException.class,
+                    () -> shop.placeOrder(" ", List.of(preset1), custA, cardA));
+        }
+    }
+
+    @Nested
+    @DisplayName("Conditional Operation Tests")
+    class ConditionalOperationTests{
+
+        @Test
+        @DisplayName("Test conditional fulfil at the current version")
+        void testFulfillIfVersion(){
+            Order order = shop.placeOrder(List.of(preset1), custA, cardA);
+            FulfillmentDetails details = shop.fulfillIfVersion(order, order.getVersion());
+            assertEquals(1, details.getPresetOrders().get("dell").get("inspiron"));
+            assertEquals(1, shop.getCustomerSummary(custA).ordersFulfilled());
+        }
+
+        @Test
+        @DisplayName("Test stale conditional cancel has no effect")
+        void testStaleCancel(){
+            Order order = shop.placeOrder(List.of(preset1), custA, cardA);
+            long read = order.getVersion();
+            shop.fulfillOrder(order);
+
+            assertThrowsExactly(StaleOrderException.class, () -> shop.cancelIfVersion(order, read));
+            assertEquals(OrderStatus.FULFILLED, order.getOrderStatus());
+            assertEquals(0, shop.getCustomerSummary(custA).ordersCancelled());
+            assertEquals(1, shop.getMetrics().snapshot().operations().get(Operation.CANCEL_ORDER).failures());
+            assertThrows(IllegalArgumentException.class, () -> shop.cancelIfVersion(null, 1));
+        }
+
+        @Test
+        @DisplayName("Test a version no order can have is rejected")
+        void testInvalidExpectedVersion(){
+            Order order = shop.placeOrder(List.of(preset1), custA, cardA);
+            assertThrowsExactly(IllegalArgumentException.class, () -> shop.cancelIfVersion(order, 0));
+            assertThrowsExactly(IllegalArgumentException.class, () -> shop.fulfillIfVersion(order, Order.ANY_VERSION));
+            assertEquals(OrderStatus.PLACED, order.getOrderStatus());
+            assertEquals(1, order.getVersion());
+        }
+    }
+
+
+    @Nested
+    @DisplayName("Pagination Tests")
+    class PaginationTests{
+
+        @Test
+        @DisplayName("Test walking the history page by page returns every order once")
+        void testWalk(){
+            List<Order> placed = new ArrayList<>();
+            for (int i = 0; i < 7; i++) {
+                placed.add(shop.placeOrder(List.of(preset1), i % 2 == 0 ? custA : custB, cardA));
+            }
+            List<Order> walked = new ArrayList<>();
+            OrderPage page = shop.pageOrders(null, 3);
+            walked.addAll(page.orders());
+            while (page.hasMore()) {
+                assertEquals(3, page.orders().size());
+                page = shop.pageOrders(page.nextCursor(), 3);
+                walked.addAll(page.orders());
+            }
+            assertEquals(placed, walked);
+            assertThrows(UnsupportedOperationException.class, () -> shop.pageOrders(null, 3).orders().clear());
+        }
+
+        @Test
+        @DisplayName("Test a cursor stays valid while orders are placed")
+        void testCursorSurvivesAppends(){
+            shop.placeOrder(List.of(preset1), custA, cardA);
+            OrderPage page = shop.pageOrders(null, 10);
+            assertFalse(page.hasMore());
+            assertTrue(shop.pageOrders(page.nextCursor(), 10).orders().isEmpty());
+
+            Order later = shop.placeOrder(List.of(preset2), custB, cardB);
+            OrderPage next = shop.pageOrders(page.nextCursor(), 10);
+            assertEquals(List.of(later), next.orders());
+        }
+
+        @Test
+        @DisplayName("Test invalid page requests")
+        void testInvalidRequests(){
+            assertThrows(IllegalArgumentException.class, () -> shop.pageOrders(null, 0));
+            assertThrows(IllegalArgumentException.class, () -> shop.pageOrders("not a cursor!", 5));
+            assertThrows(IllegalArgumentException.class, () -> shop.pageOrders("AQ", 5));
+            shop.placeOrder(List.of(preset1), custA, cardA);
+            String cursor = shop.pageOrders(null, 5).nextCursor();
+            // the cursor is ahead of a shop that has no order yet
+            assertThrows(IllegalArgumentException.class, () -> new PCShopImpl().pageOrders(cursor, 5));
+            assertThrows(IllegalArgumentException.class, () -> new ShardedPCShop(2).pageOrders(cursor, 5));
+        }
+    }
+
+}
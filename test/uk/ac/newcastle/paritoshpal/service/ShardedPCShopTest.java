@@ -0,0 +1,207 @@
+package uk.ac.newcastle.paritoshpal.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import uk.ac.newcastle.paritoshpal.dto.CustomerSummary;
+import uk.ac.newcastle.paritoshpal.model.customer.Customer;
+import uk.ac.newcastle.paritoshpal.model.customer.CustomerFactory;
+import uk.ac.newcastle.paritoshpal.model.payment.CreditCard;
+import uk.ac.newcastle.paritoshpal.model.payment.CreditCardFactory;
+import uk.ac.newcastle.paritoshpal.model.pc.CustomModel;
+import uk.ac.newcastle.paritoshpal.model.pc.CustomModelFactory;
+import uk.ac.newcastle.paritoshpal.model.pc.PCModel;
+import uk.ac.newcastle.paritoshpal.model.pc.PresetModel;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ShardedPCShop Unit Tests")
+class ShardedPCShopTest {
+
+    private List<Customer> customers;
+    private CreditCard card;
+    private List<PresetModel> presets;
+    private List<String> parts;
+
+    @BeforeEach
+    void setUp() {
+        customers = new ArrayList<>();
+        for (char first = 'a'; first <= 'h'; first++) {
+            customers.add(CustomerFactory.getCustomer("Shard" + first, "Customer"));
+        }
+        Calendar cal = Calendar.getInstance();
+        cal.set(2033, Calendar.JUNE, 6);
+        card = CreditCardFactory.getCreditCard("31313131", cal.getTime(), "Shard Customer");
+        presets = List.of(new PresetModel("inspiron", "dell", List.of("i9")),
+                new PresetModel("xps", "dell", List.of("i7")),
+                new PresetModel("air-m4", "apple", List.of("M4")));
+        parts = List.of("CPU", "RAM", "SSD", "GPU");
+    }
+
+    private List<PCModel> randomModels(Random random) {
+        List<PCModel> models = new ArrayList<>();
+        models.add(presets.get(random.nextInt(presets.size())));
+        if (random.nextBoolean()) {
+            CustomModel custom = CustomModelFactory.createCustomModel();
+            custom.addPart(parts.get(random.nextInt(parts.size())));
+            models.add(custom);
+        }
+        return models;
+    }
+
+    @Test
+    @DisplayName("Test analytics match a single shop")
+    void testMatchesSingleShop() {
+        for (long seed = 0; seed < 20; seed++) {
+            Random random = new Random(seed);
+            PCShopImpl single = new PCShopImpl();
+            ShardedPCShop sharded = new ShardedPCShop(4);
+            // few orders, so that ties are frequent
+            for (int i = 0; i < 12; i++) {
+                List<PCModel> models = randomModels(random);
+                Customer customer = customers.get(random.nextInt(customers.size()));
+                Order a = single.placeOrder(models, customer, card);
+                Order b = sharded.placeOrder(models, customer, card);
+                if (random.nextInt(4) > 0) {
+                    assertEquals(single.fulfillOrder(a), sharded.fulfillOrder(b));
+                }
+            }
+            assertEquals(single.getLargestCustomer(), sharded.getLargestCustomer());
+            assertEquals(single.getMostOrderedModel(), sharded.getMostOrderedModel());
+            assertEquals(single.getMostOrderedPart(), sharded.getMostOrderedPart());
+            for (Customer customer : customers) {
+                CustomerSummary expected = single.getCustomerSummary(customer);
+                CustomerSummary actual = sharded.getCustomerSummary(customer);
+                assertEquals(expected == null, actual == null);
+                if (expected != null) {
+                    assertEquals(expected.ordersFulfilled(), actual.ordersFulfilled());
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Test concurrent orders")
+    void testConcurrentOrders() throws Exception {
+        ShardedPCShop shop = new ShardedPCShop(4);
+        int threads = 4;
+        int ordersPerThread = 500;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < ordersPerThread; i++) {
+                        Customer customer = customers.get((thread * 2 + i) % customers.size());
+                        shop.fulfillOrder(shop.placeOrder(List.of(presets.get(0)), customer, card));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(threads * ordersPerThread, shop.getMostOrderedModel().modelCount());
+        long fulfilled = 0;
+        for (Customer customer : customers) {
+            fulfilled += shop.getCustomerSummary(customer).ordersFulfilled();
+        }
+        assertEquals(threads * ordersPerThread, fulfilled);
+    }
+
+    @Test
+    @DisplayName("Test invalid arguments")
+    void testInvalid() {
+        ShardedPCShop shop = new ShardedPCShop(2);
+        assertThrows(IllegalArgumentException.class, () -> new ShardedPCShop(0));
+        assertThrows(IllegalArgumentException.class, () -> shop.placeOrder(List.of(presets.get(0)), null, card));
+        assertThrows(IllegalArgumentException.class, () -> shop.cancelOrder(null));
+        assertThrows(IllegalArgumentException.class, () -> shop.fulfillOrder(null));
+        assertNull(shop.getLargestCustomer());
+    }
+
+    @Test
+    @DisplayName("Test paging merges the shards by order date and follows new orders")
+    void testPaging() throws Exception {
+        ShardedPCShop shop = new ShardedPCShop(4);
+        Random random = new Random(3);
+        for (int i = 0; i < 50; i++) {
+            shop.placeOrder(randomModels(random), customers.get(random.nextInt(customers.size())), card);
+        }
+        List<Order> walked = new ArrayList<>();
+        OrderPage page = shop.pageOrders(null, 8);
+        walked.addAll(page.orders());
+        while (page.hasMore()) {
+            page = shop.pageOrders(page.nextCursor(), 8);
+            walked.addAll(page.orders());
+        }
+        assertEquals(50, walked.size());
+        // the snapshot is merged the same way, and can be iterated again
+        Iterable<Order> snapshot = shop.getOrderSnapshot();
+        List<Order> merged = new ArrayList<>();
+        snapshot.forEach(merged::add);
+        assertEquals(walked, merged);
+        merged.clear();
+        snapshot.forEach(merged::add);
+        assertEquals(walked, merged);
+        for (int i = 1; i < walked.size(); i++) {
+            assertFalse(walked.get(i).getOrderDate().before(walked.get(i - 1).getOrderDate()));
+        }
+
+        Order later = shop.placeOrder(List.of(presets.get(0)), customers.get(0), card);
+        assertEquals(List.of(later), shop.pageOrders(page.nextCursor(), 8).orders());
+        merged.clear();
+        snapshot.forEach(merged::add);
+        assertEquals(walked, merged);
+    }
+
+    @Test
+    @DisplayName("Test concurrent retries on different shards place one order")
+    void testConcurrentRetries() throws Exception {
+        ShardedPCShop shop = new ShardedPCShop(4);
+        int threads = customers.size();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<Order>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                Customer customer = customers.get(i);
+                results.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        return shop.placeOrder("shared-key", List.of(presets.get(0)), customer, card);
+                    } catch (IllegalArgumentException e) {
+                        // the key was taken by another customer
+                        return null;
+                    }
+                }));
+            }
+            start.countDown();
+            Set<Order> placed = new HashSet<>();
+            for (Future<Order> result : results) {
+                Order order = result.get();
+                if (order != null) {
+                    placed.add(order);
+                }
+            }
+            assertEquals(1, placed.size());
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(1, shop.orders().count());
+    }
+}